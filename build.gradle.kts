@@ -34,6 +34,7 @@ plugins {
     id("io.papermc.hangar-publish-plugin") version "0.1.2"
     id("com.modrinth.minotaur") version "2.8.7"
     id("xyz.jpenilla.run-paper") version "2.3.1"
+    id("me.champeau.jmh") version "0.7.2"
     id("io.github.apdevteam.github-packages") version "1.2.2"
 }
 
@@ -123,6 +124,12 @@ dependencies {
 
     testImplementation(platform("org.junit:junit-bom:5.9.1"))
     testImplementation("org.junit.jupiter:junit-jupiter")
+
+    // Benchmarks, run headless against stubbed Bukkit types. ./gradlew jmh
+    jmh("org.spigotmc:spigot-api:1.20.2-R0.1-SNAPSHOT") {
+        exclude("com.google.code.gson", "gson")
+    }
+    jmh("org.jetbrains:annotations:26.0.1")
 }
 
 
@@ -197,6 +204,15 @@ tasks {
     }
 }
 
+jmh {
+    warmupIterations = 2
+    iterations = 5
+    fork = 1
+    resultFormat = "JSON"
+    // Only run some benchmarks, e.g: ./gradlew jmh -PjmhIncludes=BarrelLookup
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes.add(it) }
+}
+
 tasks.withType(xyz.jpenilla.runtask.task.AbstractRun::class) {
     javaLauncher = javaToolchains.launcherFor {
         vendor = JvmVendorSpec.ADOPTIUM
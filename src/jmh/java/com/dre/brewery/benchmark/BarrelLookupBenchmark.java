@@ -0,0 +1,111 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.benchmark;
+
+import com.dre.brewery.Barrel;
+import com.dre.brewery.utility.BoundingBox;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Barrel lookup by spigot and by wood with many loaded barrels in one world.
+ * <p>Lookups hit random barrels, so the MRU reordering of the barrel list does not help much.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BarrelLookupBenchmark {
+
+    private static final int LOOKUPS = 1024;
+    private static final int ROW = 100;
+
+    @Param({ "1000", "10000", "100000" })
+    public int barrelCount;
+
+    private Block[] spigots;
+    private Block[] woods;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkEnvironment.init();
+        World world = BenchmarkEnvironment.getWorld();
+        Barrel.onUnload(world);
+
+        Block[] allSpigots = new Block[barrelCount];
+        Block[] allWoods = new Block[barrelCount];
+        for (int i = 0; i < barrelCount; i++) {
+            // Small barrels in a grid, spigot in front of a 2x2x2 body
+            int x = (i % ROW) * 4;
+            int z = (i / ROW) * 4;
+            Block spigot = world.getBlockAt(x, 64, z);
+            spigot.setType(Material.OAK_FENCE);
+            Block wood = world.getBlockAt(x + 1, 64, z);
+            wood.setType(Material.OAK_PLANKS);
+            BoundingBox bounds = new BoundingBox(x + 1, 64, z, x + 2, 65, z + 1);
+            Barrel.registerBarrel(new Barrel(spigot, (byte) 0, bounds, new ItemStack[0], 0, UUID.randomUUID(), true));
+            allSpigots[i] = spigot;
+            allWoods[i] = wood;
+        }
+
+        Random random = new Random(42);
+        spigots = new Block[LOOKUPS];
+        woods = new Block[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            int index = random.nextInt(barrelCount);
+            spigots[i] = allSpigots[index];
+            woods[i] = allWoods[index];
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Barrel.onUnload(BenchmarkEnvironment.getWorld());
+    }
+
+    @Benchmark
+    public Barrel getBySpigot() {
+        next = (next + 1) & (LOOKUPS - 1);
+        return Barrel.getBySpigot(spigots[next]);
+    }
+
+    @Benchmark
+    public Barrel getByWood() {
+        next = (next + 1) & (LOOKUPS - 1);
+        return Barrel.getByWood(woods[next]);
+    }
+}
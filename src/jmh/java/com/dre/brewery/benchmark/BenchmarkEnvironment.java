@@ -0,0 +1,96 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.benchmark;
+
+import com.dre.brewery.BreweryPlugin;
+import com.dre.brewery.configuration.configurer.TranslationManager;
+import com.dre.brewery.recipe.CustomItem;
+import com.dre.brewery.recipe.PluginItem;
+import com.dre.brewery.recipe.SimpleItem;
+import com.dre.brewery.utility.MinecraftVersion;
+import com.github.Anon8281.universalScheduler.UniversalScheduler;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.util.HashMap;
+
+/**
+ * Boots just enough of BreweryX to run its hot paths without a server.
+ * <p>Bukkit is replaced by the proxies in {@link Stubs}, the plugin instance is allocated without running
+ * the JavaPlugin constructor, and configs are written to a temporary data folder.
+ */
+public final class BenchmarkEnvironment {
+
+    private static boolean initialized;
+    private static World world;
+
+    private BenchmarkEnvironment() {
+    }
+
+    public static synchronized void init() {
+        if (initialized) return;
+        try {
+            File dataFolder = Files.createTempDirectory("breweryx-jmh").toFile();
+            dataFolder.deleteOnExit();
+            Bukkit.setServer(Stubs.server());
+
+            // Allocate without constructor, JavaPlugin would require the PluginClassLoader
+            Field unsafeField = Class.forName("sun.misc.Unsafe").getDeclaredField("theUnsafe");
+            unsafeField.setAccessible(true);
+            Object unsafe = unsafeField.get(null);
+            BreweryPlugin plugin = (BreweryPlugin) unsafe.getClass()
+                .getMethod("allocateInstance", Class.class)
+                .invoke(unsafe, BreweryPlugin.class);
+
+            setField(JavaPlugin.class, plugin, "dataFolder", dataFolder);
+            setField(JavaPlugin.class, plugin, "server", Bukkit.getServer());
+            setField(BreweryPlugin.class, plugin, "ingredientLoaders", new HashMap<>());
+            setField(BreweryPlugin.class, null, "instance", plugin);
+            setField(BreweryPlugin.class, null, "MCVersion", MinecraftVersion.getIt());
+            setField(BreweryPlugin.class, null, "scheduler", UniversalScheduler.getScheduler(plugin));
+            TranslationManager.newInstance(dataFolder);
+
+            CustomItem.registerItemLoader(plugin);
+            SimpleItem.registerItemLoader(plugin);
+            PluginItem.registerItemLoader(plugin);
+
+            world = Stubs.world("world");
+            initialized = true;
+        } catch (ReflectiveOperationException | java.io.IOException e) {
+            throw new IllegalStateException("Could not set up the benchmark environment", e);
+        }
+    }
+
+    public static World getWorld() {
+        init();
+        return world;
+    }
+
+    private static void setField(Class<?> owner, Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = owner.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.benchmark;
+
+import com.dre.brewery.BIngredients;
+import com.dre.brewery.Brew;
+import com.dre.brewery.BarrelWoodType;
+import com.dre.brewery.lore.BrewCodec;
+import com.dre.brewery.lore.XORScrambleStream;
+import com.dre.brewery.lore.XORUnscrambleStream;
+import com.dre.brewery.recipe.Ingredient;
+import com.dre.brewery.recipe.SimpleItem;
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.security.InvalidKeyException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Brew payload save/load through the XOR stream chain compared to BrewCodec.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BrewCodecBenchmark {
+
+    private static final long SEED = 4839261847561L;
+    private final List<Long> prevSeeds = new ArrayList<>();
+
+    private Brew brew;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        BenchmarkEnvironment.init();
+        List<Ingredient> list = new ArrayList<>();
+        for (Material mat : new Material[]{ Material.WHEAT, Material.SUGAR, Material.HONEY_BOTTLE }) {
+            SimpleItem item = new SimpleItem(mat);
+            item.setAmount(3);
+            list.add(item);
+        }
+        brew = new Brew(new BIngredients(list, 8));
+        brew.setQuality(8);
+        brew.setAlc(12);
+        brew.setAgeTime(3.5F);
+        brew.setWood(BarrelWoodType.OAK);
+        prevSeeds.add(987654321L);
+        prevSeeds.add(SEED);
+        payload = streamSave();
+    }
+
+    @Benchmark
+    public byte[] streamSave() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        XORScrambleStream scrambler = new XORScrambleStream(bytes, SEED);
+        try (DataOutputStream out = new DataOutputStream(scrambler)) {
+            out.writeByte(BrewCodec.PARITY);
+            out.writeByte(Brew.SAVE_VER);
+            scrambler.start();
+            brew.saveToStream(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] codecSave() throws IOException {
+        BrewCodec.Writer writer = new BrewCodec.Writer();
+        writer.data().writeByte(BrewCodec.PARITY);
+        writer.data().writeByte(Brew.SAVE_VER);
+        writer.startScrambled(SEED);
+        brew.saveToStream(writer.data());
+        return writer.finish();
+    }
+
+    @Benchmark
+    public BIngredients streamLoad() throws IOException, InvalidKeyException {
+        XORUnscrambleStream unscrambler = new XORUnscrambleStream(new ByteArrayInputStream(payload), SEED, prevSeeds);
+        try (DataInputStream in = new DataInputStream(unscrambler)) {
+            in.readByte();
+            byte ver = in.readByte();
+            unscrambler.start();
+            in.readByte(); // quality
+            int bools = in.readUnsignedByte();
+            if ((bools & 64) != 0) in.readShort();
+            if ((bools & 1) != 0) in.readByte();
+            if ((bools & 2) != 0) in.readFloat();
+            if ((bools & 4) != 0) in.readFloat();
+            if ((bools & 8) != 0) in.readUTF();
+            return BIngredients.load(in, ver);
+        }
+    }
+
+    @Benchmark
+    public BIngredients codecLoad() throws IOException, InvalidKeyException {
+        BrewCodec.Reader in = new BrewCodec.Reader(payload.clone()); // Codec works in place
+        in.checkParity();
+        byte ver = in.readByte();
+        in.unscramble(SEED, prevSeeds);
+        in.readByte(); // quality
+        int bools = in.readUnsignedByte();
+        if ((bools & 64) != 0) in.readShort();
+        if ((bools & 1) != 0) in.readByte();
+        if ((bools & 2) != 0) in.readFloat();
+        if ((bools & 4) != 0) in.readFloat();
+        if ((bools & 8) != 0) in.readUTF();
+        return BIngredients.load(in.remaining(), ver);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.benchmark;
+
+import com.dre.brewery.storage.serialization.ItemStackCodec;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Barrel inventories through each ItemStackCodec.
+ * <p>The paper codec needs Paper's ItemStack byte methods and fails in setup on the Spigot API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ItemCodecBenchmark {
+
+    @Param({ "bukkit", "paper" })
+    public String codecName;
+
+    @Param({ "27", "54" })
+    public int slots;
+
+    private ItemStackCodec codec;
+    private ItemStack[] inventory;
+    private String serializedInventory;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkEnvironment.init();
+        codec = codecName.equals("paper") ? ItemStackCodec.PAPER : ItemStackCodec.BUKKIT;
+        if (!codec.isAvailable()) {
+            throw new IllegalStateException("The " + codecName + " codec is not available with this API");
+        }
+
+        // Half filled barrel
+        inventory = new ItemStack[slots];
+        for (int i = 0; i < inventory.length; i += 2) {
+            inventory[i] = new ItemStack(Material.POTION, 1);
+        }
+        serializedInventory = codec.encode(inventory);
+    }
+
+    @Benchmark
+    public String encode() {
+        return codec.encode(inventory);
+    }
+
+    @Benchmark
+    public ItemStack[] decode() {
+        return codec.decode(serializedInventory);
+    }
+}
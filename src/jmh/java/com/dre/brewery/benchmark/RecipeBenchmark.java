@@ -0,0 +1,110 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.benchmark;
+
+import com.dre.brewery.BIngredients;
+import com.dre.brewery.BarrelWoodType;
+import com.dre.brewery.recipe.BRecipe;
+import com.dre.brewery.recipe.BestRecipeResult;
+import com.dre.brewery.recipe.Ingredient;
+import com.dre.brewery.recipe.PotionColor;
+import com.dre.brewery.recipe.SimpleItem;
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BIngredients.getBestRecipeFull over a growing amount of registered recipes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RecipeBenchmark {
+
+    private static final Material[] MATERIALS = {
+        Material.WHEAT, Material.SUGAR_CANE, Material.APPLE, Material.POTATO, Material.CARROT, Material.SUGAR,
+        Material.HONEY_BOTTLE, Material.SWEET_BERRIES, Material.GLOW_BERRIES, Material.MELON_SLICE, Material.COCOA_BEANS,
+        Material.BROWN_MUSHROOM, Material.RED_MUSHROOM, Material.SPIDER_EYE, Material.NETHER_WART, Material.GOLDEN_CARROT
+    };
+
+    @Param({ "10", "100", "1000" })
+    public int recipeCount;
+
+    private BIngredients ingredients;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkEnvironment.init();
+        Random random = new Random(1234);
+
+        BRecipe.getAllRecipes().clear();
+        BRecipe.numConfigRecipes = 0;
+        for (int i = 0; i < recipeCount; i++) {
+            BRecipe.Builder builder = new BRecipe.Builder("Bad Recipe " + i, "Recipe " + i, "Good Recipe " + i)
+                .color(PotionColor.values()[i % PotionColor.values().length])
+                .cook(1 + random.nextInt(10))
+                .difficulty(1 + random.nextInt(10))
+                .alcohol(random.nextInt(40));
+            if (random.nextBoolean()) {
+                builder.age(1 + random.nextInt(20), BarrelWoodType.OAK);
+            }
+            for (int j = 1 + random.nextInt(4); j > 0; j--) {
+                SimpleItem item = new SimpleItem(MATERIALS[random.nextInt(MATERIALS.length)]);
+                item.setAmount(1 + random.nextInt(8));
+                builder.addIngredient(item);
+            }
+            BRecipe.getAllRecipes().add(builder.get());
+        }
+        BRecipe.numConfigRecipes = recipeCount;
+
+        // Ingredients of one of the recipes, so the search has a proper winner
+        BRecipe target = BRecipe.getAllRecipes().get(recipeCount / 2);
+        List<Ingredient> list = new ArrayList<>();
+        target.getIngredients().forEach(item -> {
+            Ingredient ing = (Ingredient) item.getMutableCopy();
+            ing.setAmount(item.getAmount());
+            list.add(ing);
+        });
+        ingredients = new BIngredients(list, target.getCookingTime());
+    }
+
+    @Benchmark
+    public BestRecipeResult bestRecipeCooked() {
+        return ingredients.getBestRecipeFull(BarrelWoodType.ANY, 0, false);
+    }
+
+    @Benchmark
+    public BestRecipeResult bestRecipeAged() {
+        return ingredients.getBestRecipeFull(BarrelWoodType.OAK, 12, false);
+    }
+}
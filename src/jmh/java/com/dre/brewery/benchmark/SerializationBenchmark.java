@@ -0,0 +1,88 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.benchmark;
+
+import com.dre.brewery.storage.records.SerializableBPlayer;
+import com.dre.brewery.storage.serialization.BukkitSerialization;
+import com.dre.brewery.storage.serialization.SQLDataSerializer;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization used by the DataManagers: Gson/Base64 records and BukkitObjectStream barrel inventories.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    private final SQLDataSerializer serializer = new SQLDataSerializer();
+
+    private SerializableBPlayer player;
+    private String serializedPlayer;
+    private ItemStack[] inventory;
+    private String serializedInventory;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkEnvironment.init();
+        player = new SerializableBPlayer(UUID.randomUUID().toString(), 8, 42, 10);
+        serializedPlayer = serializer.serialize(player);
+
+        // Half filled small barrel
+        inventory = new ItemStack[27];
+        for (int i = 0; i < inventory.length; i += 2) {
+            inventory[i] = new ItemStack(Material.POTION, 1);
+        }
+        serializedInventory = BukkitSerialization.itemStackArrayToBase64(inventory);
+    }
+
+    @Benchmark
+    public String serializeRecord() {
+        return serializer.serialize(player);
+    }
+
+    @Benchmark
+    public SerializableBPlayer deserializeRecord() {
+        return serializer.deserialize(serializedPlayer, SerializableBPlayer.class);
+    }
+
+    @Benchmark
+    public String serializeInventory() {
+        return BukkitSerialization.itemStackArrayToBase64(inventory);
+    }
+
+    @Benchmark
+    public ItemStack[] deserializeInventory() {
+        return BukkitSerialization.itemStackArrayFromBase64(serializedInventory);
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.benchmark;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.UnsafeValues;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.command.ConsoleCommandSender;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitScheduler;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Lightweight proxy stubs for the Bukkit types the benchmarks touch.
+ * <p>Every method that is not handled explicitly returns null, false or 0.
+ */
+final class Stubs {
+
+    private static final Map<UUID, World> worlds = new ConcurrentHashMap<>();
+
+    private Stubs() {
+    }
+
+    @FunctionalInterface
+    private interface Answer {
+        Object answer(Object proxy, String name, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Answer answer) {
+        InvocationHandler handler = new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                Object[] a = args == null ? new Object[0] : args;
+                switch (method.getName()) {
+                    case "equals":
+                        if (a.length == 1 && method.getParameterTypes()[0] == Object.class) {
+                            Object handled = answer.answer(proxy, "equals", a);
+                            return handled != null ? handled : proxy == a[0];
+                        }
+                        break;
+                    case "hashCode":
+                        if (a.length == 0) {
+                            Object handled = answer.answer(proxy, "hashCode", a);
+                            return handled != null ? handled : System.identityHashCode(proxy);
+                        }
+                        break;
+                    case "toString":
+                        if (a.length == 0) {
+                            return type.getSimpleName() + "Stub";
+                        }
+                        break;
+                }
+                Object result = answer.answer(proxy, method.getName(), a);
+                return result != null ? result : defaultValue(method.getReturnType());
+            }
+        };
+        return (T) Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class<?>[]{ type }, handler);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) return null;
+        if (type == boolean.class) return false;
+        if (type == char.class) return '\0';
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0F;
+        if (type == double.class) return 0D;
+        if (type == byte.class) return (byte) 0;
+        if (type == short.class) return (short) 0;
+        return 0;
+    }
+
+    static Server server() {
+        Logger logger = Logger.getLogger("BreweryX-JMH");
+        ConsoleCommandSender console = proxy(ConsoleCommandSender.class, (p, name, args) -> switch (name) {
+            case "getName" -> "CONSOLE";
+            case "hasPermission", "isOp" -> true;
+            default -> null;
+        });
+        PluginManager pluginManager = proxy(PluginManager.class, (p, name, args) -> null);
+        BukkitScheduler scheduler = proxy(BukkitScheduler.class, (p, name, args) -> null);
+        UnsafeValues unsafe = proxy(UnsafeValues.class, (p, name, args) -> switch (name) {
+            case "getDataVersion" -> 3578; // 1.20.2
+            case "getMaterial" -> Material.getMaterial((String) args[0]);
+            case "fromLegacy", "toLegacy" -> args[0] instanceof Material ? args[0] : null;
+            default -> null;
+        });
+        ItemFactory itemFactory = proxy(ItemFactory.class, (p, name, args) -> switch (name) {
+            // No metas in the stub, ItemStacks compare by type and amount
+            case "equals" -> args.length == 2 ? Objects.equals(args[0], args[1]) : null;
+            case "isApplicable" -> true;
+            default -> null;
+        });
+
+        return proxy(Server.class, (p, name, args) -> switch (name) {
+            case "getLogger" -> logger;
+            case "getName" -> "BreweryX-Stub";
+            case "getVersion" -> "stub (MC: 1.20.2)";
+            case "getBukkitVersion" -> "1.20.2-R0.1-SNAPSHOT";
+            case "getConsoleSender" -> console;
+            case "getPluginManager" -> pluginManager;
+            case "getScheduler" -> scheduler;
+            case "getUnsafe" -> unsafe;
+            case "getItemFactory" -> itemFactory;
+            case "isPrimaryThread" -> true;
+            case "createInventory" -> inventory(args[1] instanceof Integer size ? size : 27);
+            case "getWorld" -> args[0] instanceof UUID uuid ? worlds.get(uuid)
+                : worlds.values().stream().filter(w -> w.getName().equals(args[0])).findFirst().orElse(null);
+            case "getWorlds" -> new ArrayList<>(worlds.values());
+            default -> null;
+        });
+    }
+
+    /**
+     * A World that only knows the types of blocks explicitly set through setType.
+     */
+    static World world(String worldName) {
+        UUID uid = UUID.nameUUIDFromBytes(worldName.getBytes());
+        Map<Long, Material> types = new HashMap<>();
+        World world = proxy(World.class, new Answer() {
+            @Override
+            public Object answer(Object self, String name, Object[] args) {
+                World w = (World) self;
+                return switch (name) {
+                    case "getUID" -> uid;
+                    case "getName" -> worldName;
+                    case "getMinHeight" -> -64;
+                    case "getMaxHeight" -> 320;
+                    case "isChunkLoaded" -> true;
+                    case "getBlockAt" -> args[0] instanceof Location loc
+                        ? block(w, types, loc.getBlockX(), loc.getBlockY(), loc.getBlockZ())
+                        : block(w, types, (int) args[0], (int) args[1], (int) args[2]);
+                    case "equals" -> args[0] instanceof World other && uid.equals(other.getUID());
+                    case "hashCode" -> uid.hashCode();
+                    default -> null;
+                };
+            }
+        });
+        worlds.put(uid, world);
+        return world;
+    }
+
+    private static long pack(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFF) << 38 | ((long) z & 0x3FFFFFF) << 12 | (y & 0xFFF);
+    }
+
+    private static Block block(World world, Map<Long, Material> types, int x, int y, int z) {
+        return proxy(Block.class, (self, name, args) -> switch (name) {
+            case "getX" -> x;
+            case "getY" -> y;
+            case "getZ" -> z;
+            case "getWorld" -> world;
+            case "getType" -> types.getOrDefault(pack(x, y, z), Material.AIR);
+            case "setType" -> {
+                types.put(pack(x, y, z), (Material) args[0]);
+                yield null;
+            }
+            case "getLocation" -> new Location(world, x, y, z);
+            case "getRelative" -> {
+                if (args[0] instanceof BlockFace face) {
+                    int distance = args.length > 1 ? (int) args[1] : 1;
+                    yield block(world, types, x + face.getModX() * distance, y + face.getModY() * distance, z + face.getModZ() * distance);
+                }
+                yield block(world, types, x + (int) args[0], y + (int) args[1], z + (int) args[2]);
+            }
+            case "equals" -> args[0] instanceof Block other && other.getX() == x && other.getY() == y && other.getZ() == z
+                && world.equals(other.getWorld());
+            case "hashCode" -> Long.hashCode(pack(x, y, z)) * 31 + world.hashCode();
+            default -> null;
+        });
+    }
+
+    static Inventory inventory(int size) {
+        ItemStack[] contents = new ItemStack[size];
+        return proxy(Inventory.class, (self, name, args) -> switch (name) {
+            case "getSize" -> size;
+            case "getItem" -> contents[(int) args[0]];
+            case "setItem" -> {
+                contents[(int) args[0]] = (ItemStack) args[1];
+                yield null;
+            }
+            case "getContents", "getStorageContents" -> Arrays.copyOf(contents, size);
+            case "setContents", "setStorageContents" -> {
+                ItemStack[] items = (ItemStack[]) args[0];
+                Arrays.fill(contents, null);
+                System.arraycopy(items, 0, contents, 0, Math.min(size, items.length));
+                yield null;
+            }
+            case "clear" -> {
+                Arrays.fill(contents, null);
+                yield null;
+            }
+            case "contains" -> args[0] instanceof Material mat && Arrays.stream(contents).anyMatch(i -> i != null && i.getType() == mat);
+            case "getViewers" -> List.of();
+            default -> null;
+        });
+    }
+}
@@ -23,6 +23,7 @@ package com.dre.brewery;
 import com.dre.brewery.lore.BrewLore;
 import com.dre.brewery.utility.Logging;
 import com.dre.brewery.utility.MinecraftVersion;
+import com.dre.brewery.utility.perf.PerfMetrics;
 import com.github.Anon8281.universalScheduler.UniversalRunnable;
 import com.github.Anon8281.universalScheduler.scheduling.tasks.MyScheduledTask;
 import io.papermc.lib.PaperLib;
@@ -52,6 +53,8 @@ public class BDistiller {
 
     private static final int DISTILLTIME = 400;
     private static final Map<Block, BDistiller> trackedDistillers = new ConcurrentHashMap<>();
+    private static final PerfMetrics.Counter TASKS_STARTED = PerfMetrics.counter("brewery_distiller_tasks_total",
+        "Distilling tasks started on brewing stands");
 
     private MyScheduledTask task;
     private int runTime = -1;
@@ -70,6 +73,7 @@ public class BDistiller {
 
     public void start() {
         task = new DistillRunnable().runTaskTimer(BreweryPlugin.getInstance(), 2L, 1L);
+        TASKS_STARTED.increment();
     }
 
     public static void distillerClick(InventoryClickEvent event) {
@@ -91,6 +95,10 @@ public class BDistiller {
         distiller.start();
     }
 
+    public static int getActiveDistillers() {
+        return trackedDistillers.size();
+    }
+
     public static boolean isTrackingDistiller(Block block) {
         return trackedDistillers.containsKey(block);
     }
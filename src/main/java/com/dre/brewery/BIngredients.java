@@ -32,13 +32,16 @@ import com.dre.brewery.recipe.BRecipe;
 import com.dre.brewery.recipe.BestRecipeResult;
 import com.dre.brewery.recipe.DebuggableItem;
 import com.dre.brewery.recipe.Ingredient;
+import com.dre.brewery.recipe.IngredientSet;
 import com.dre.brewery.recipe.ItemLoader;
 import com.dre.brewery.recipe.PotionColor;
 import com.dre.brewery.recipe.RecipeEvaluation;
 import com.dre.brewery.recipe.RecipeItem;
+import com.dre.brewery.recipe.RecipeScore;
 import com.dre.brewery.utility.BUtil;
 import com.dre.brewery.utility.Logging;
 import com.dre.brewery.utility.MinecraftVersion;
+import com.dre.brewery.utility.perf.PerfMetrics;
 import lombok.Getter;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
@@ -69,10 +72,14 @@ public class BIngredients {
     private static final BreweryPlugin plugin = BreweryPlugin.getInstance();
     private static final Config config = ConfigManager.getConfig(Config.class);
     private static final Lang lang = ConfigManager.getConfig(Lang.class);
+    private static final PerfMetrics.Counter LOOKUPS = PerfMetrics.counter("brewery_recipe_lookups_total",
+        "Searches for the best recipe of a brew");
+    private static final PerfMetrics.Counter EVALUATIONS = PerfMetrics.counter("brewery_recipe_evaluations_total",
+        "Recipes scored against a brew while searching for the best recipe");
     private static int lastId = 0; // Legacy
 
     private int id; // Legacy
-    private List<Ingredient> ingredients = new ArrayList<>();
+    private IngredientSet ingredientSet = IngredientSet.EMPTY; // Interned, replaced on every change
     private int cookedTime;
 
     /**
@@ -87,7 +94,7 @@ public class BIngredients {
      * Load from File
      */
     public BIngredients(List<Ingredient> ingredients, int cookedTime) {
-        this.ingredients = ingredients;
+        this.ingredientSet = IngredientSet.of(ingredients);
         this.cookedTime = cookedTime;
         //this.id = lastId;
         //lastId++;
@@ -111,16 +118,14 @@ public class BIngredients {
      * @param ingredient the item to add
      */
     public void add(ItemStack ingredient) {
-        for (Ingredient existing : ingredients) {
-            if (existing.matches(ingredient)) {
-                existing.setAmount(existing.getAmount() + 1);
-                return;
-            }
+        int existing = ingredientSet.indexOfMatching(ingredient);
+        if (existing >= 0) {
+            ingredientSet = ingredientSet.increment(existing);
+            return;
         }
 
         Ingredient ing = RecipeItem.getMatchingRecipeItem(ingredient, true).toIngredient(ingredient);
-        ing.setAmount(1);
-        ingredients.add(ing);
+        ingredientSet = ingredientSet.plus(ing);
     }
 
     /**
@@ -143,14 +148,7 @@ public class BIngredients {
     }
 
     private void add(Ingredient ingredient) {
-        for (Ingredient existing : ingredients) {
-            if (existing.isSimilar(ingredient)) {
-                existing.setAmount(existing.getAmount() + 1);
-                return;
-            }
-        }
-        ingredient.setAmount(1);
-        ingredients.add(ingredient);
+        ingredientSet = ingredientSet.plus(ingredient);
     }
 
     /**
@@ -232,10 +230,12 @@ public class BIngredients {
         //potionMeta.addCustomEffect((PotionEffectType.REGENERATION).createEffect((uid * 4), 0), true);
 
         brew.touch();
-        BrewModifyEvent modifyEvent = new BrewModifyEvent(brew, potionMeta, BrewModifyEvent.Type.FILL, brewer);
-        plugin.getServer().getPluginManager().callEvent(modifyEvent);
-        if (modifyEvent.isCancelled()) {
-            return null;
+        if (BrewModifyEvent.hasListeners()) {
+            BrewModifyEvent modifyEvent = new BrewModifyEvent(brew, potionMeta, BrewModifyEvent.Type.FILL, brewer);
+            plugin.getServer().getPluginManager().callEvent(modifyEvent);
+            if (modifyEvent.isCancelled()) {
+                return null;
+            }
         }
         brew.save(potionMeta);
         potion.setItemMeta(potionMeta);
@@ -248,15 +248,35 @@ public class BIngredients {
      * returns amount of ingredients
      */
     public int getIngredientsCount() {
-        int count = 0;
-        for (Ingredient ing : ingredients) {
-            count += ing.getAmount();
-        }
-        return count;
+        return ingredientSet.getTotalAmount();
+    }
+
+    /**
+     * Unmodifiable List view of the ingredients, the Ingredients in it must not be changed
+     */
+    public List<Ingredient> getIngredientView() {
+        return ingredientSet.asList();
     }
 
+    /**
+     * Copy of the ingredients, changing the List doesn't change these ingredients.
+     * <p>The Ingredients in it must not be changed
+     *
+     * @deprecated Ingredients are immutable now, use {@link #getIngredientView()} to read them without copying
+     */
+    @Deprecated
     public List<Ingredient> getIngredientList() {
-        return ingredients;
+        return new ArrayList<>(ingredientSet.asList());
+    }
+
+    /**
+     * Same as getIngredientList()
+     *
+     * @deprecated Use {@link #getIngredientView()}
+     */
+    @Deprecated
+    public List<Ingredient> getIngredients() {
+        return getIngredientList();
     }
 
     /**
@@ -269,81 +289,108 @@ public class BIngredients {
      * best recipe for current state of potion, STILL not always returns the correct one...
      */
     public BestRecipeResult getBestRecipeFull(BarrelWoodType wood, float time, boolean distilled) {
-        if (BRecipe.getAllRecipes().isEmpty()) {
+        return getBestRecipeFull(BRecipe.getAllRecipes(), wood, time, distilled);
+    }
+
+    /**
+     * best recipe for current state of potion out of the given recipes.
+     * <p>Does not modify anything, so this can be called off the main thread with a snapshot of the recipes
+     */
+    public BestRecipeResult getBestRecipeFull(List<BRecipe> recipes, BarrelWoodType wood, float time, boolean distilled) {
+        if (recipes.isEmpty()) {
             return new BestRecipeResult.NoRecipesRegistered();
         }
+        LOOKUPS.increment();
+        EVALUATIONS.add(recipes.size());
+
+        // Ranking only needs the numbers, the evaluation with all its defects is built for the result alone
+        RecipeScore ingredientScore = new RecipeScore();
+        RecipeScore cookingScore = new RecipeScore();
+        RecipeScore ageScore = new RecipeScore();
+        RecipeScore woodScore = new RecipeScore();
+        RecipeScore completeScore = new RecipeScore();
 
         // tracks the highest quality recipe using exact numbers, no rounding or clamping
         // if no legacy recipe can be found, this is the plugin's best guess at what the player is trying to make
         BRecipe bestRecipe = null;
-        RecipeEvaluation bestEval = null;
+        RecipeScore bestScore = new RecipeScore();
         // the original Brewery plugin uses a different algorithm that rounds and clamps ingredient/cook/age/wood
         // qualities before adding them, so we have to do the same here to avoid breaking backward compatibility
         float quality = 0;
         BRecipe bestRecipeLegacy = null;
-        RecipeEvaluation bestEvalLegacy = null;
+        boolean debug = config.isDebug();
 
         // FIXME: This should include BCauldronRecipes too. (Proper parent class needed!)
-        for (BRecipe recipe : BRecipe.getAllRecipes()) {
-            RecipeEvaluation completeRecipeEval;
-
-            RecipeEvaluation ingredientEval = getIngredientQualityFull(recipe);
-            int ingredientQuality = ingredientEval.getQuality();
+        for (BRecipe recipe : recipes) {
+            scoreIngredients(recipe, ingredientScore, null);
+            int ingredientQuality = ingredientScore.getQuality();
 
-            RecipeEvaluation cookingEval = getCookingQualityFull(recipe, distilled);
-            int cookingQuality = cookingEval.getQuality();
+            scoreCooking(recipe, distilled, cookingScore, null);
+            int cookingQuality = cookingScore.getQuality();
 
             // age and wood quality cannot be fatal, only need to check ingredient and cooking
-            boolean isFatal = ingredientEval.isFatal() || cookingEval.isFatal();
+            boolean isFatal = ingredientScore.isFatal() || cookingScore.isFatal();
 
             if (recipe.needsToAge() || time > 0.5) {
                 // needs riping in barrel
-                RecipeEvaluation ageEval = getAgeQualityFull(recipe, time);
-                int ageQuality = ageEval.getQuality();
+                scoreAge(recipe, time, ageScore, null);
+                int ageQuality = ageScore.getQuality();
 
-                RecipeEvaluation woodEval = getWoodQualityFull(recipe, wood);
-                int woodQuality = woodEval.getQuality();
+                scoreWood(recipe, wood, woodScore, null);
+                int woodQuality = woodScore.getQuality();
 
                 // is this recipe better than the previous best?
-                Logging.debugLog("Ingredient Quality: " + ingredientQuality + " Cooking Quality: " + cookingQuality +
-                    " Wood Quality: " + woodQuality + " age Quality: " + ageQuality + " for " + recipe.getName(5));
-                completeRecipeEval = RecipeEvaluation.combine(ingredientEval, cookingEval, ageEval, woodEval);
+                if (debug) {
+                    Logging.debugLog("Ingredient Quality: " + ingredientQuality + " Cooking Quality: " + cookingQuality +
+                        " Wood Quality: " + woodQuality + " age Quality: " + ageQuality + " for " + recipe.getName(5));
+                }
+                completeScore.combine(ingredientScore, cookingScore, ageScore, woodScore);
 
                 float averageQuality = ((float) ingredientQuality + cookingQuality + woodQuality + ageQuality) / 4;
                 if (!isFatal && averageQuality > quality) {
-                    quality = ((float) ingredientQuality + cookingQuality + woodQuality + ageQuality) / 4;
+                    quality = averageQuality;
                     bestRecipeLegacy = recipe;
-                    bestEvalLegacy = completeRecipeEval;
                 }
 
             } else {
                 // calculate quality without age and barrel
-                Logging.debugLog("Ingredient Quality: " + ingredientQuality + " Cooking Quality: " + cookingQuality + " for " + recipe.getName(5));
-                completeRecipeEval = RecipeEvaluation.combine(ingredientEval, cookingEval);
+                if (debug) {
+                    Logging.debugLog("Ingredient Quality: " + ingredientQuality + " Cooking Quality: " + cookingQuality + " for " + recipe.getName(5));
+                }
+                completeScore.combine(ingredientScore, cookingScore);
 
                 float averageQuality = ((float) ingredientQuality + cookingQuality) / 2;
                 if (!isFatal && averageQuality > quality) {
                     quality = averageQuality;
                     bestRecipeLegacy = recipe;
-                    bestEvalLegacy = completeRecipeEval;
                 }
             }
 
-            if (bestEval == null || completeRecipeEval.compareMostToLeastComplexity(bestEval) > 0) {
+            if (bestRecipe == null || completeScore.compareMostToLeastComplexity(bestScore) > 0) {
                 bestRecipe = recipe;
-                bestEval = completeRecipeEval;
+                bestScore.copyFrom(completeScore);
             }
         }
 
         if (bestRecipeLegacy != null) {
             Logging.debugLog(String.format("best recipe: %s has Quality=%.3f",
                 bestRecipeLegacy.getName(5), quality));
-            return new BestRecipeResult.Found(bestRecipeLegacy, bestEvalLegacy);
+            return new BestRecipeResult.Found(bestRecipeLegacy, getCompleteEvaluation(bestRecipeLegacy, wood, time, distilled));
         } else {
             Logging.debugLog(String.format("guess recipe: %s has Quality=%.3f",
-                bestRecipe.getName(5), bestEval.getTrueQuality()));
-            return new BestRecipeResult.Error(bestRecipe, bestEval);
+                bestRecipe.getName(5), bestScore.getTrueQuality()));
+            return new BestRecipeResult.Error(bestRecipe, getCompleteEvaluation(bestRecipe, wood, time, distilled));
+        }
+    }
+
+    // The evaluation getBestRecipeFull ranked the recipe by, with all of its defects
+    private RecipeEvaluation getCompleteEvaluation(BRecipe recipe, BarrelWoodType wood, float time, boolean distilled) {
+        RecipeEvaluation ingredientEval = getIngredientQualityFull(recipe);
+        RecipeEvaluation cookingEval = getCookingQualityFull(recipe, distilled);
+        if (recipe.needsToAge() || time > 0.5) {
+            return RecipeEvaluation.combine(ingredientEval, cookingEval, getAgeQualityFull(recipe, time), getWoodQualityFull(recipe, wood));
         }
+        return RecipeEvaluation.combine(ingredientEval, cookingEval);
     }
 
     /**
@@ -377,7 +424,7 @@ public class BIngredients {
         float bestMatch = 0;
         float match;
         for (BCauldronRecipe recipe : BCauldronRecipe.getAllRecipes()) {
-            match = recipe.getIngredientMatch(ingredients);
+            match = recipe.getIngredientMatch(ingredientSet.asList());
             if (match >= 10) {
                 return recipe;
             }
@@ -432,69 +479,112 @@ public class BIngredients {
         return result;
     }
 
+    /**
+     * returns the overall quality of a brew made from these ingredients with the given recipe
+     */
+    public int getQuality(BRecipe recipe, boolean distilled, BarrelWoodType wood, float ageTime) {
+        // calculate quality from all of the factors
+        float quality = getIngredientQuality(recipe) + getCookingQuality(recipe, distilled);
+        if (recipe.needsToAge() || ageTime > 0.5) {
+            quality += getWoodQuality(recipe, wood) + getAgeQuality(recipe, ageTime);
+            quality /= 4;
+        } else {
+            quality /= 2;
+        }
+        return Math.round(quality);
+    }
+
     /**
      * returns the quality of the ingredients conditioning given recipe, -1 if no recipe is near them
      */
     public int getIngredientQuality(BRecipe recipe) {
-        return getIngredientQualityFull(recipe).getQuality();
+        RecipeScore score = new RecipeScore();
+        scoreIngredients(recipe, score, null);
+        return score.getQuality();
     }
     public RecipeEvaluation getIngredientQualityFull(BRecipe recipe) {
         RecipeEvaluation eval = new RecipeEvaluation();
-
-        List<RecipeItem> missingIngredients = recipe.getMissingIngredients(ingredients);
-        if (!missingIngredients.isEmpty()) {
+        scoreIngredients(recipe, new RecipeScore(), eval);
+        return eval;
+    }
+    // Defects are only created when an evaluation is given to record them in
+    private void scoreIngredients(BRecipe recipe, RecipeScore score, @Nullable RecipeEvaluation eval) {
+        score.reset();
+        int size = ingredientSet.size();
+        int[] amountsInRecipe = new int[size];
+        if (eval == null) {
+            for (int missing = ingredientSet.matchRecipe(recipe.getIngredients(), amountsInRecipe, null); missing > 0; missing--) {
+                score.fatal();
+            }
+        } else {
             // when ingredients are not complete
-            for (RecipeItem missing : missingIngredients) {
+            List<RecipeItem> missingItems = new ArrayList<>();
+            ingredientSet.matchRecipe(recipe.getIngredients(), amountsInRecipe, missingItems);
+            for (RecipeItem missing : missingItems) {
+                score.fatal();
                 eval.fatal(new BrewDefect.MissingIngredient(missing, missing.getAmount()));
             }
         }
 
         int badStuff = 0;
-        for (Ingredient ingredient : ingredients) {
-            int amountInRecipe = recipe.amountOf(ingredient);
-            int count = ingredient.getAmount();
+        for (int i = 0; i < size; i++) {
+            Ingredient ingredient = ingredientSet.get(i);
+            int amountInRecipe = amountsInRecipe[i];
+            int count = ingredientSet.getAmount(i);
             if (amountInRecipe == 0) {
                 // this ingredient doesn't belong into the recipe
                 badStuff++;
                 if (count > (getIngredientsCount() / 2)) {
                     // when more than half of the ingredients don't fit into the recipe
-                    eval.fatal(new BrewDefect.WrongIngredient(ingredient));
-                } else if (badStuff < ingredients.size()) {
+                    score.fatal();
+                    if (eval != null) eval.fatal(new BrewDefect.WrongIngredient(ingredient));
+                } else if (badStuff < size) {
                     // when there are other ingredients
                     float badIngredientDeduction = count * (recipe.getDifficulty() / 2.0f);
-                    eval.deduct(new BrewDefect.WrongIngredient(ingredient), badIngredientDeduction);
+                    score.deduct(badIngredientDeduction);
+                    if (eval != null) eval.deduct(new BrewDefect.WrongIngredient(ingredient), badIngredientDeduction);
                 } else {
                     // ingredients don't fit at all
-                    eval.fatal(new BrewDefect.WrongIngredient(ingredient));
+                    score.fatal();
+                    if (eval != null) eval.fatal(new BrewDefect.WrongIngredient(ingredient));
                 }
             } else if (count != amountInRecipe) {
                 // calculate the quality
                 float ingredientCountDeduction = ((float) Math.abs(count - amountInRecipe) / recipe.allowedCountDiff(amountInRecipe)) * 10.0f;
-                eval.deduct(new BrewDefect.WrongCount(ingredient, amountInRecipe), ingredientCountDeduction);
+                score.deduct(ingredientCountDeduction);
+                if (eval != null) eval.deduct(new BrewDefect.WrongCount(ingredient, amountInRecipe), ingredientCountDeduction);
             }
         }
-        return eval;
     }
 
     /**
      * returns the quality regarding the cooking-time conditioning given Recipe
      */
     public int getCookingQuality(BRecipe recipe, boolean distilled) {
-        return getCookingQualityFull(recipe, distilled).getQuality();
+        RecipeScore score = new RecipeScore();
+        scoreCooking(recipe, distilled, score, null);
+        return score.getQuality();
     }
     public RecipeEvaluation getCookingQualityFull(BRecipe recipe, boolean distilled) {
         RecipeEvaluation eval = new RecipeEvaluation();
+        scoreCooking(recipe, distilled, new RecipeScore(), eval);
+        return eval;
+    }
+    private void scoreCooking(BRecipe recipe, boolean distilled, RecipeScore score, @Nullable RecipeEvaluation eval) {
+        score.reset();
         if (recipe.needsDistilling() != distilled) {
-            eval.fatal(new BrewDefect.DistillMismatch(distilled, recipe.needsDistilling(), recipe.isAlcoholic()));
+            score.fatal();
+            if (eval != null) eval.fatal(new BrewDefect.DistillMismatch(distilled, recipe.needsDistilling(), recipe.isAlcoholic()));
         }
 
         if (cookedTime < 1) {
-            eval.deduct(new BrewDefect.CookTimeMismatch(0, recipe.getCookingTime()), 10);
+            score.deduct(10);
+            if (eval != null) eval.deduct(new BrewDefect.CookTimeMismatch(0, recipe.getCookingTime()), 10);
         } else if (cookedTime != recipe.getCookingTime()) {
             float cookTimeDeduction = ((float) Math.abs(cookedTime - recipe.getCookingTime()) / recipe.allowedTimeDiff(recipe.getCookingTime())) * 10.0f;
-            eval.deduct(new BrewDefect.CookTimeMismatch(cookedTime, recipe.getCookingTime()), cookTimeDeduction);
+            score.deduct(cookTimeDeduction);
+            if (eval != null) eval.deduct(new BrewDefect.CookTimeMismatch(cookedTime, recipe.getCookingTime()), cookTimeDeduction);
         }
-        return eval;
     }
 
     /**
@@ -511,14 +601,21 @@ public class BIngredients {
      * returns the quality regarding the barrel wood conditioning given Recipe
      */
     public int getWoodQuality(BRecipe recipe, BarrelWoodType wood) {
-        return getWoodQualityFull(recipe, wood).getQuality();
+        RecipeScore score = new RecipeScore();
+        scoreWood(recipe, wood, score, null);
+        return score.getQuality();
     }
 
     public RecipeEvaluation getWoodQualityFull(BRecipe recipe, BarrelWoodType wood) {
         RecipeEvaluation eval = new RecipeEvaluation();
+        scoreWood(recipe, wood, new RecipeScore(), eval);
+        return eval;
+    }
+    private void scoreWood(BRecipe recipe, BarrelWoodType wood, RecipeScore score, @Nullable RecipeEvaluation eval) {
+        score.reset();
         if (recipe.usesAnyWood()) {
             // type of wood doesnt matter
-            return eval;
+            return;
         }
 
         if (wood != recipe.getWood()) {
@@ -528,9 +625,9 @@ public class BIngredients {
             } else {
                 woodDeduction = recipe.getWoodDiff(wood.getIndex()) * recipe.getDifficulty();
             }
-            eval.deduct(new BrewDefect.WrongWood(wood, recipe.getWood()), woodDeduction);
+            score.deduct(woodDeduction);
+            if (eval != null) eval.deduct(new BrewDefect.WrongWood(wood, recipe.getWood()), woodDeduction);
         }
-        return eval;
     }
     // At difficulty 1, distances 0-5 have quality 10, 10, 9, 8, 7, 6
     // At difficulty 5, distances 0-5 have quality 10, 8, 4, 1, 0, 0
@@ -558,15 +655,22 @@ public class BIngredients {
      * returns the quality regarding the ageing time conditioning given Recipe
      */
     public int getAgeQuality(BRecipe recipe, float time) {
-        return getAgeQualityFull(recipe, time).getQuality();
+        RecipeScore score = new RecipeScore();
+        scoreAge(recipe, time, score, null);
+        return score.getQuality();
     }
     public RecipeEvaluation getAgeQualityFull(BRecipe recipe, float time) {
         RecipeEvaluation eval = new RecipeEvaluation();
+        scoreAge(recipe, time, new RecipeScore(), eval);
+        return eval;
+    }
+    private void scoreAge(BRecipe recipe, float time, RecipeScore score, @Nullable RecipeEvaluation eval) {
+        score.reset();
         if (!BUtil.isClose(time, recipe.getAge())) {
             float ageDeduction = Math.abs(time - recipe.getAge()) * ((float) recipe.getDifficulty() / 2);
-            eval.deduct(new BrewDefect.AgeMismatch(time, recipe.getAge(), recipe.isAlcoholic()), ageDeduction);
+            score.deduct(ageDeduction);
+            if (eval != null) eval.deduct(new BrewDefect.AgeMismatch(time, recipe.getAge(), recipe.isAlcoholic()), ageDeduction);
         }
-        return eval;
     }
 
     @Override
@@ -574,21 +678,27 @@ public class BIngredients {
         if (this == obj) return true;
         if (!(obj instanceof BIngredients)) return false;
         BIngredients other = ((BIngredients) obj);
+        // Sets are interned, equal ingredients are the same instance
         return cookedTime == other.cookedTime &&
-            ingredients.equals(other.ingredients);
+            ingredientSet == other.ingredientSet;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * ingredientSet.hashCode() + cookedTime;
     }
 
     // Creates a copy ingredients
     public BIngredients copy() {
         BIngredients copy = new BIngredients();
-        copy.ingredients.addAll(ingredients);
+        copy.ingredientSet = ingredientSet;
         copy.cookedTime = cookedTime;
         return copy;
     }
 
     @Override
     public String toString() {
-        String ingredientsStr = ingredients.stream()
+        String ingredientsStr = ingredientSet.asList().stream()
             .map(DebuggableItem::debug)
             .collect(Collectors.joining(", ", "[", "]"));
         return new StringJoiner(", ", "BIngredients{", "}")
@@ -630,11 +740,7 @@ public class BIngredients {
 
     public void save(DataOutputStream out) throws IOException {
         out.writeInt(cookedTime);
-        out.writeByte(ingredients.size());
-        for (Ingredient ing : ingredients) {
-            ing.saveTo(out);
-            out.writeShort(Math.min(ing.getAmount(), Short.MAX_VALUE));
-        }
+        ingredientSet.save(out);
     }
 
     public static BIngredients load(DataInputStream in, short dataVersion) throws IOException {
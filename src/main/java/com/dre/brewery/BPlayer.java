@@ -27,13 +27,13 @@ import com.dre.brewery.api.events.brew.BrewDrinkEvent;
 import com.dre.brewery.configuration.ConfigManager;
 import com.dre.brewery.configuration.files.Config;
 import com.dre.brewery.configuration.files.Lang;
+import com.dre.brewery.listeners.DrunkMoveListener;
 import com.dre.brewery.lore.BrewLore;
 import com.dre.brewery.recipe.BEffect;
 import com.dre.brewery.utility.BUtil;
 import com.dre.brewery.utility.Logging;
 import com.dre.brewery.utility.MinecraftVersion;
 import com.dre.brewery.utility.PermissionUtil;
-import com.github.Anon8281.universalScheduler.scheduling.tasks.MyScheduledTask;
 import io.papermc.lib.PaperLib;
 import lombok.Getter;
 import lombok.Setter;
@@ -41,18 +41,15 @@ import lombok.ToString;
 import net.md_5.bungee.api.ChatMessageType;
 import net.md_5.bungee.api.chat.TextComponent;
 import org.bukkit.Bukkit;
-import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Entity;
-import org.bukkit.entity.Item;
 import org.bukkit.entity.Player;
 import org.bukkit.event.player.PlayerItemConsumeEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.metadata.FixedMetadataValue;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
 import org.bukkit.util.Vector;
@@ -62,7 +59,6 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -76,9 +72,9 @@ public class BPlayer {
     private static final Lang lang = ConfigManager.getConfig(Lang.class);
 
     private static final ConcurrentHashMap<String, BPlayer> players = new ConcurrentHashMap<>();// Players uuid and BPlayer
-    private static final ConcurrentHashMap<Player, Integer> pTasks = new ConcurrentHashMap<>();// Player and count
-    private static MyScheduledTask task;
-    private static Random pukeRand;
+    private static final ConcurrentHashMap<UUID, BPlayer> stumbling = new ConcurrentHashMap<>();// Players drunk enough to be pushed around
+    private static final String[][] barsCache = new String[2][101];// Bars by hangover and strength, filled on first use
+    private static final String[] starsCache = new String[11];// Stars by quality, filled on first use
 
     private final String uuid;
     private int quality = 0;// = quality of drunkenness * drunkenness
@@ -155,6 +151,52 @@ public class BPlayer {
         return players.isEmpty();
     }
 
+    /**
+     * Get the BPlayer if it is drunk enough to stumble when moving.
+     * <p>Called on every move of every player, so this is only a single lookup without conversions
+     */
+    @Nullable
+    public static BPlayer getStumbling(UUID uuid) {
+        return stumbling.get(uuid);
+    }
+
+    /**
+     * Recheck which players are drunk enough to stumble, after players were loaded in bulk.
+     */
+    public static void updateAllStumbling() {
+        stumbling.clear();
+        for (BPlayer bPlayer : players.values()) {
+            if (bPlayer.canStumble()) {
+                stumbling.put(UUID.fromString(bPlayer.uuid), bPlayer);
+            }
+        }
+        DrunkMoveListener.setActive(!stumbling.isEmpty());
+    }
+
+    private boolean canStumble() {
+        return drunkenness >= 10 && drunkenness <= 100;
+    }
+
+    // Update the stumbling players if this player crossed a threshold
+    private void updateStumbling() {
+        UUID id = UUID.fromString(uuid);
+        boolean changed;
+        if (canStumble() && players.get(uuid) == this) {
+            changed = stumbling.put(id, this) != this;
+        } else {
+            changed = stumbling.remove(id, this);
+        }
+        if (changed) {
+            DrunkMoveListener.setActive(!stumbling.isEmpty());
+        }
+    }
+
+    private static void removeStumbling(String uuid) {
+        if (stumbling.remove(UUID.fromString(uuid)) != null) {
+            DrunkMoveListener.setActive(!stumbling.isEmpty());
+        }
+    }
+
     public static boolean hasPlayer(OfflinePlayer player) {
         return players.containsKey(player.getUniqueId().toString());
     }
@@ -168,6 +210,7 @@ public class BPlayer {
 
     public static void remove(OfflinePlayer player) {
         players.remove(player.getUniqueId().toString());
+        removeStumbling(player.getUniqueId().toString());
     }
 
 
@@ -180,6 +223,7 @@ public class BPlayer {
             Map.Entry<String, BPlayer> entry = iterator.next();
             if (entry.getValue() == this) {
                 iterator.remove();
+                removeStumbling(uuid);
                 return;
             }
         }
@@ -187,6 +231,8 @@ public class BPlayer {
 
     public static void clear() {
         players.clear();
+        stumbling.clear();
+        DrunkMoveListener.setActive(false);
     }
 
     // Drink a brew and apply effects, etc.
@@ -235,6 +281,7 @@ public class BPlayer {
         if (bPlayer.drunkenness > 100) {
             bPlayer.drinkCap(player);
         }
+        bPlayer.updateStumbling();
 
         if (config.isShowStatusOnDrink()) {
             // Only show the Player his drunkenness if he is already drunk, or this drink changed his drunkenness
@@ -313,7 +360,22 @@ public class BPlayer {
         }
     }
 
-    private String generateBars(int strength, boolean hangover) {
+    // Bars and stars only depend on these few values, so every player shares the same strings
+    private static String generateBars(int strength, boolean hangover) {
+        if (strength > 100) {
+            return buildBars(strength, hangover);
+        }
+        String[] cache = barsCache[hangover ? 1 : 0];
+        int index = Math.max(strength, 0);
+        String bars = cache[index];
+        if (bars == null) {
+            bars = buildBars(index, hangover);
+            cache[index] = bars;
+        }
+        return bars;
+    }
+
+    private static String buildBars(int strength, boolean hangover) {
         // Generate 25 Bars, color one per 4 drunkenness
         StringBuilder b = new StringBuilder();
         int bars;
@@ -348,7 +410,19 @@ public class BPlayer {
         return generateBars(offlineDrunk > 0 ? offlineDrunk : drunkenness, offlineDrunk > 0);
     }
 
-    private String generateStars(int quality) {
+    private static String generateStars(int quality) {
+        if (quality < 0 || quality >= starsCache.length) {
+            return buildStars(quality);
+        }
+        String stars = starsCache[quality];
+        if (stars == null) {
+            stars = buildStars(quality);
+            starsCache[quality] = stars;
+        }
+        return stars;
+    }
+
+    private static String buildStars(int quality) {
         // Generate stars representing the quality
         StringBuilder b = new StringBuilder();
         int stars = quality / 2;
@@ -380,6 +454,7 @@ public class BPlayer {
     public void drinkCap(Player player) {
         quality = getQuality() * 100;
         drunkenness = 100;
+        updateStumbling();
         if (config.isEnableKickOnOverdrink() && !player.hasPermission("brewery.bypass.overdrink")) {
             BreweryPlugin.getScheduler().runTaskLater(() -> passOut(player), 1);
         } else {
@@ -390,7 +465,7 @@ public class BPlayer {
 
     // push the player around if he moves
     public static void playerMove(PlayerMoveEvent event) {
-        BPlayer bPlayer = get(event.getPlayer());
+        BPlayer bPlayer = getStumbling(event.getPlayer().getUniqueId());
         if (bPlayer != null) {
             bPlayer.move(event);
         }
@@ -406,6 +481,12 @@ public class BPlayer {
 
     // drain the drunkenness by amount, returns true when player has to be removed
     public boolean drain(@Nullable Player player, int amount) {
+        boolean remove = drainDrunkenness(player, amount);
+        updateStumbling();
+        return remove;
+    }
+
+    private boolean drainDrunkenness(@Nullable Player player, int amount) {
         if (drunkenness > 0) {
             quality -= getQuality() * amount;
         }
@@ -538,11 +619,14 @@ public class BPlayer {
 
         } else if (offlineDrunk >= 30 || drunkenness >= 30) {
             if (config.isEnableWake() && !player.hasPermission("brewery.bypass.teleport")) {
-                Location randomLoc = Wakeup.getRandom(player.getLocation());
-                if (randomLoc != null) {
-                    PaperLib.teleportAsync(player, randomLoc);
-                    lang.sendEntry(player, "Player_Wake");
-                }
+                Wakeup.getRandom(player.getLocation()).thenAccept(randomLoc -> {
+                    if (randomLoc != null) {
+                        BreweryPlugin.getScheduler().runTask(player, () -> {
+                            PaperLib.teleportAsync(player, randomLoc);
+                            lang.sendEntry(player, "Player_Wake");
+                        });
+                    }
+                });
             }
         }
 
@@ -621,71 +705,14 @@ public class BPlayer {
         }
         BUtil.reapplyPotionEffect(player, PotionEffectType.HUNGER.createEffect(80, 4), true);
 
-        if (pTasks.isEmpty()) {
-            task = BreweryPlugin.getScheduler().runTaskTimer(player, BPlayer::pukeTask, 1L, 1L);
-        }
-        pTasks.put(player, event.getCount());
-    }
-
-    public static void pukeTask() {
-        for (Iterator<Map.Entry<Player, Integer>> iter = pTasks.entrySet().iterator(); iter.hasNext(); ) {
-            Map.Entry<Player, Integer> entry = iter.next();
-            Player player = entry.getKey();
-            int count = entry.getValue();
-            if (!player.isValid() || !player.isOnline()) {
-                iter.remove();
-                continue;
-            }
-            puke(player);
-            if (count <= 1) {
-                iter.remove();
-            } else {
-                entry.setValue(count - 1);
-            }
-        }
-        if (pTasks.isEmpty()) {
-            task.cancel();
-        }
+        PukeEngine.add(player, event.getCount());
     }
 
+    /**
+     * Throw one puke item, see {@link PukeEngine#puke(Player)}
+     */
     public static void puke(Player player) {
-        if (pukeRand == null) {
-            pukeRand = new Random();
-        }
-        if (config.getPukeItem() == null || config.getPukeItem().isEmpty()) {
-            config.setPukeItem(List.of(Material.SOUL_SAND));
-        }
-        Location loc = player.getLocation();
-        loc.setY(loc.getY() + 1.1);
-        loc.setPitch(loc.getPitch() - 10 + pukeRand.nextInt(20));
-        loc.setYaw(loc.getYaw() - 10 + pukeRand.nextInt(20));
-        Vector direction = loc.getDirection();
-        direction.multiply(0.5);
-        loc.add(direction);
-
-        Item item = player.getWorld().dropItem(loc, new ItemStack(config.getPukeItem().get(new Random().nextInt(config.getPukeItem().size()))));
-        item.setVelocity(direction);
-        item.setPickupDelay(32767); // Item can never be picked up when pickup delay is 32767
-        item.setMetadata("brewery_puke", new FixedMetadataValue(BreweryPlugin.getInstance(), true));
-        if (VERSION.isOrLater(MinecraftVersion.V1_14)) item.setPersistent(false); // No need to save Puke items
-
-        int pukeDespawntime = config.getPukeDespawntime();
-        int despawnRate = BUtil.getItemDespawnRate(player.getWorld());
-        if (pukeDespawntime >= (despawnRate - 200)) {
-            return;
-        }
-
-        // Setting the age determines when an item is despawned. At age 6000 it is removed.
-        if (pukeDespawntime <= 0) {
-            // Just show the item for a few ticks
-            item.setTicksLived(despawnRate - 4);
-        } else if (pukeDespawntime <= 120) {
-            // it should despawn in less than 6 sec. Add up to half of that randomly
-            item.setTicksLived(despawnRate - pukeDespawntime + pukeRand.nextInt((int) (pukeDespawntime / 2F)));
-        } else {
-            // Add up to 5 sec randomly
-            item.setTicksLived(despawnRate - pukeDespawntime + pukeRand.nextInt(100));
-        }
+        PukeEngine.puke(player);
     }
 
 
@@ -850,24 +877,33 @@ public class BPlayer {
     // decreasing drunkenness over time
     public static void onUpdate() {
         if (!players.isEmpty()) {
-            Iterator<Map.Entry<String, BPlayer>> iter = players.entrySet().iterator();
-            while (iter.hasNext()) {
-                Map.Entry<String, BPlayer> entry = iter.next();
+            boolean folia = MinecraftVersion.isFolia();
+            for (Map.Entry<String, BPlayer> entry : players.entrySet()) {
                 String uuid = entry.getKey();
                 BPlayer bplayer = entry.getValue();
                 Player playerIfOnline = BUtil.getPlayerfromString(uuid);
 
-                if (bplayer.getAlcRecovery() == -1) {
-                    bplayer.recalculateAlcRecovery(playerIfOnline);
-                }
-
-                if (bplayer.drain(playerIfOnline, bplayer.getAlcRecovery())) {
-                    iter.remove();
+                if (folia && playerIfOnline != null) {
+                    // Online players are updated on their own entity scheduler
+                    BreweryPlugin.getScheduler().runTask(playerIfOnline, () -> bplayer.updateMinute(uuid, playerIfOnline));
+                } else {
+                    bplayer.updateMinute(uuid, playerIfOnline);
                 }
             }
         }
     }
 
+    private void updateMinute(String uuid, @Nullable Player playerIfOnline) {
+        if (alcRecovery == -1) {
+            recalculateAlcRecovery(playerIfOnline);
+        }
+
+        if (drain(playerIfOnline, alcRecovery)) {
+            players.remove(uuid, this);
+            removeStumbling(uuid);
+        }
+    }
+
     // save all data
     public static void save(ConfigurationSection config) {
         for (Map.Entry<String, BPlayer> entry : players.entrySet()) {
@@ -895,6 +931,7 @@ public class BPlayer {
 
     public void setDrunkeness(int value) {
         drunkenness = value;
+        updateStumbling();
     }
 
     public void setData(int drunkenness, int quality) {
@@ -908,6 +945,7 @@ public class BPlayer {
             }
         }
         this.drunkenness = drunkenness;
+        updateStumbling();
     }
 
     public int getQuality() {
@@ -21,15 +21,18 @@
 package com.dre.brewery;
 
 import com.dre.brewery.api.events.barrel.BarrelAccessEvent;
+import com.dre.brewery.api.events.barrel.BarrelAgeBatchEvent;
 import com.dre.brewery.api.events.barrel.BarrelCreateEvent;
 import com.dre.brewery.api.events.barrel.BarrelDestroyEvent;
 import com.dre.brewery.api.events.barrel.BarrelRemoveEvent;
+import com.dre.brewery.api.events.brew.BrewModifyEvent;
 import com.dre.brewery.configuration.ConfigManager;
 import com.dre.brewery.configuration.files.Config;
 import com.dre.brewery.configuration.files.Lang;
 import com.dre.brewery.integration.Hook;
 import com.dre.brewery.integration.barrel.LogBlockBarrel;
 import com.dre.brewery.lore.BrewLore;
+import com.dre.brewery.storage.serialization.ItemStackCodec;
 import com.dre.brewery.utility.BoundingBox;
 import com.dre.brewery.utility.Logging;
 import com.dre.brewery.utility.MinecraftVersion;
@@ -61,6 +64,7 @@ import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
 
 /**
  * A Multi Block Barrel with Inventory
@@ -73,6 +77,7 @@ public class Barrel extends BarrelBody implements InventoryHolder {
     private static final Config config = ConfigManager.getConfig(Config.class);
     private static final Lang lang = ConfigManager.getConfig(Lang.class);
     private static Map<UUID, Integer> checkCounters = new ConcurrentHashMap<>(); // Which Barrel was last checked
+    private static final int POTIONS_PER_TICK = 9;
     /**
      * -- GETTER --
      * Is this a small barrel?
@@ -80,7 +85,10 @@ public class Barrel extends BarrelBody implements InventoryHolder {
     private final boolean small;
 
     private boolean checked; // Checked by the random BarrelCheck routine
+    private boolean aging; // Brews are being aged over a few ticks, the inventory can't be modified
     private Inventory inventory;
+    @Nullable
+    private String unreadableItems; // Stored items this server can't decode, saved back as they are
     private float time;
     private final UUID id;
 
@@ -136,12 +144,45 @@ public class Barrel extends BarrelBody implements InventoryHolder {
         this.id = id;
     }
 
+    /**
+     * Fill the inventory with stored items.
+     * <p>If they can't be decoded on this server, the barrel keeps them as they are and can't be opened,
+     * so saving it doesn't overwrite them with an empty inventory.
+     */
+    public void loadItems(@Nullable String serializedItems) {
+        ItemStack[] items;
+        try {
+            items = ItemStackCodec.decodeAny(serializedItems);
+        } catch (IllegalStateException e) {
+            Logging.errorLog("Could not load the items of Barrel " + id + " at " + spigot.getLocation() + ", they are kept in storage until they can be read", e);
+            unreadableItems = serializedItems;
+            return;
+        }
+        if (items != null) {
+            for (int slot = 0; slot < items.length && slot < inventory.getSize(); slot++) {
+                if (items[slot] != null) {
+                    inventory.setItem(slot, items[slot]);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The items of this barrel as they should be stored
+     */
+    public String serializeItems() {
+        return unreadableItems != null ? unreadableItems : ItemStackCodec.encodeItems(inventory.getContents());
+    }
+
     public static void onUpdate() {
-        barrels.values()
-            .stream()
-            .flatMap(List::stream)
-            .filter(Objects::nonNull)
-            .forEach(barrel -> barrel.time += (float) (1.0 / config.getAgingYearDuration()));
+        boolean sharded = MinecraftVersion.isFolia();
+        if (!sharded) {
+            barrels.values()
+                .stream()
+                .flatMap(List::stream)
+                .filter(Objects::nonNull)
+                .forEach(Barrel::ageMinute);
+        }
         for (UUID worldUuid : barrels.keySet()) {
             List<Barrel> worldBarrels = barrels.get(worldUuid);
             int numBarrels = worldBarrels.size();
@@ -159,11 +200,41 @@ public class Barrel extends BarrelBody implements InventoryHolder {
                         randomInTheBack.checked = false;
                     }
                 }
-                new BarrelCheck().runTaskTimer(BreweryPlugin.getInstance(), 1, 1);
+                if (!sharded) {
+                    // On Folia the unchecked barrels are checked by the ShardedHeartbeat in their region
+                    new BarrelCheck().runTaskTimer(BreweryPlugin.getInstance(), 1, 1);
+                }
             }
         }
     }
 
+    /**
+     * Age this barrel by one minute, called from the heartbeat.
+     */
+    void ageMinute() {
+        time += (float) (1.0 / config.getAgingYearDuration());
+    }
+
+    /**
+     * Check if this barrel is still intact and remove it if not.
+     * <p>Has to run on the thread owning the barrel's region
+     */
+    void checkStructure() {
+        Block broken = getBrokenBlock(false);
+        if (broken != null) {
+            Logging.debugLog("Barrel at "
+                + broken.getWorld().getName() + "/" + broken.getX() + "/" + broken.getY() + "/" + broken.getZ()
+                + " has been destroyed unexpectedly, contents will drop");
+            // remove the barrel if it was destroyed
+            remove(broken, null, true);
+        } else {
+            // Dont check this barrel again, its enough to check it once after every restart (and when randomly chosen)
+            // as now this is only the backup if we dont register the barrel breaking,
+            // for example when removing it with some world editor
+            checked = true;
+        }
+    }
+
     public static @NotNull List<Barrel> getBarrels(UUID worldUuid) {
         List<Barrel> worldBarrels = barrels.get(worldUuid);
         return worldBarrels == null ? List.of() : worldBarrels;
@@ -203,33 +274,22 @@ public class Barrel extends BarrelBody implements InventoryHolder {
      * player opens the barrel
      */
     public void open(Player player) {
+        if (unreadableItems != null) {
+            lang.sendEntry(player, "Error_BarrelItemsUnreadable");
+            return;
+        }
         if (inventory == null) {
             this.inventory = Bukkit.createInventory(this, isLarge() ? config.getBarrelInvSizeLarge() * 9 : config.getBarrelInvSizeSmall() * 9, lang.getEntry("Etc_Barrel"));
-        } else {
-            if (time > 0) {
-                // if nobody has the inventory opened
-                if (inventory.getViewers().isEmpty()) {
-                    // if inventory contains potions
-                    if (inventory.contains(Material.POTION)) {
-                        BarrelWoodType wood = this.getWood();
-                        long loadTime = System.nanoTime();
-                        for (ItemStack item : inventory.getContents()) {
-                            if (item != null) {
-                                Brew brew = Brew.get(item);
-                                if (brew != null) {
-                                    brew.age(item, time, wood);
-                                }
-                            }
-                        }
-                        loadTime = System.nanoTime() - loadTime;
-                        float ftime = (float) (loadTime / 1000000.0);
-                        Logging.debugLog("opening Barrel with potions (" + ftime + "ms)");
-                    }
-                }
+            time = 0;
+        } else if (!aging) {
+            // if nobody has the inventory opened and it contains potions
+            if (time > 0 && inventory.getViewers().isEmpty() && inventory.contains(Material.POTION)) {
+                // the barreltime is reset once the potions have their new age
+                ageContents(time);
+            } else {
+                time = 0;
             }
         }
-        // reset barreltime, potions have new age
-        time = 0;
 
         if (Hook.LOGBLOCK.isEnabled()) {
             try {
@@ -241,6 +301,159 @@ public class Barrel extends BarrelBody implements InventoryHolder {
         player.openInventory(inventory);
     }
 
+    /**
+     * Age all brews in the inventory by the given time.
+     * <p>The potions are copied and aged on the barrels region thread, a few each tick, then written back together.
+     * Until then the barrel is aging and its inventory can be viewed, but not modified.
+     */
+    private void ageContents(float agedTime) {
+        BarrelWoodType wood = this.getWood();
+        ItemStack[] originals = copyPotions();
+        ItemStack[] aged = new ItemStack[originals.length];
+        for (int i = 0; i < originals.length; i++) {
+            if (originals[i] != null) {
+                aged[i] = originals[i].clone();
+            }
+        }
+        Brew[] brews = new Brew[aged.length];
+        aging = true;
+
+        forEachPotion(aged, 0, i -> {
+            Brew brew = Brew.get(aged[i]);
+            if (brew == null || brew.isImmutable()) return;
+            PotionMeta potionMeta = (PotionMeta) aged[i].getItemMeta();
+            brew.ageMeta(aged[i], potionMeta, agedTime, wood);
+            brew.save(potionMeta);
+            aged[i].setItemMeta(potionMeta);
+            brews[i] = brew;
+        }, () -> applyAged(originals, aged, brews, agedTime));
+    }
+
+    /**
+     * @return Copies of the potions in the inventory, null for all other slots
+     */
+    private ItemStack[] copyPotions() {
+        ItemStack[] potions = inventory.getContents();
+        for (int i = 0; i < potions.length; i++) {
+            if (potions[i] != null && potions[i].getType() == Material.POTION) {
+                potions[i] = potions[i].clone();
+            } else {
+                potions[i] = null;
+            }
+        }
+        return potions;
+    }
+
+    /**
+     * Run the action for each potion starting at the given slot, then call done.
+     * <p>Runs on the barrels region thread, at most {@value #POTIONS_PER_TICK} potions per tick so full barrels don't stall the server.
+     * If the plugin is disabled in the meantime, done is never called and the barrel keeps its time.
+     */
+    private void forEachPotion(ItemStack[] potions, int from, IntConsumer action, Runnable done) {
+        int slot = from;
+        for (int handled = 0; slot < potions.length && handled < POTIONS_PER_TICK; slot++) {
+            if (potions[slot] == null) continue;
+            handled++;
+            try {
+                action.accept(slot);
+            } catch (Exception e) {
+                Logging.errorLog("Failed to process Brew in slot " + slot + " of Barrel " + id, e);
+                potions[slot] = null;
+            }
+        }
+        if (slot >= potions.length) {
+            done.run();
+        } else if (BreweryPlugin.getInstance().isEnabled()) {
+            int next = slot;
+            BreweryPlugin.getScheduler().runTask(spigot.getLocation(), () -> forEachPotion(potions, next, action, done));
+        }
+    }
+
+    /**
+     * Write the aged brews back into the inventory, skipping any slot that changed in the meantime, and take the aged time off the barrel.
+     * <p>Listeners get one BarrelAgeBatchEvent for the whole barrel, the per brew events are only created if anything listens to them.
+     */
+    private void applyAged(ItemStack[] originals, ItemStack[] aged, Brew[] brews, float agedTime) {
+        aging = false;
+        // time kept counting while the brews were aged
+        time = Math.max(0, time - agedTime);
+        boolean batch = BarrelAgeBatchEvent.hasListeners();
+        boolean single = BrewModifyEvent.hasListeners();
+        List<BarrelAgeBatchEvent.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < brews.length && i < inventory.getSize(); i++) {
+            if (brews[i] == null || !originals[i].equals(inventory.getItem(i))) continue;
+            if (batch || single) {
+                entries.add(new BarrelAgeBatchEvent.Entry(i, brews[i], (PotionMeta) aged[i].getItemMeta()));
+            } else {
+                // Nobody listens, the aged item was already saved
+                inventory.setItem(i, aged[i]);
+            }
+        }
+        if (entries.isEmpty()) return;
+
+        if (batch) {
+            BarrelAgeBatchEvent batchEvent = new BarrelAgeBatchEvent(this, entries);
+            BreweryPlugin.getInstance().getServer().getPluginManager().callEvent(batchEvent);
+            if (batchEvent.isCancelled()) {
+                return;
+            }
+        }
+        for (BarrelAgeBatchEvent.Entry entry : entries) {
+            if (entry.isCancelled()) continue;
+            int slot = entry.getSlot();
+            PotionMeta potionMeta = entry.getItemMeta();
+            if (single) {
+                BrewModifyEvent modifyEvent = new BrewModifyEvent(entry.getBrew(), potionMeta, BrewModifyEvent.Type.AGE);
+                BreweryPlugin.getInstance().getServer().getPluginManager().callEvent(modifyEvent);
+                if (modifyEvent.isCancelled()) {
+                    continue;
+                }
+            }
+            // Listeners might have changed the Brew
+            entry.getBrew().save(potionMeta);
+            aged[slot].setItemMeta(potionMeta);
+            inventory.setItem(slot, aged[slot]);
+        }
+    }
+
+    /**
+     * Save all brews in the inventory again that were encoded with a previous seed or encode setting.
+     * <p>Like aging, the brews are loaded a few per tick and only slots that didn't change in the meantime are replaced.
+     *
+     * @param done Called on the thread owning this barrel with the amount of brews that were saved again
+     */
+    public void reencodeContents(IntConsumer done) {
+        if (inventory == null || aging || !inventory.getViewers().isEmpty() || !inventory.contains(Material.POTION)) {
+            done.accept(0);
+            return;
+        }
+        ItemStack[] originals = copyPotions();
+        ItemStack[] reencoded = new ItemStack[originals.length];
+        for (int i = 0; i < originals.length; i++) {
+            if (originals[i] != null && !Brew.isCurrentFormat(originals[i].getItemMeta())) {
+                reencoded[i] = originals[i].clone();
+            }
+        }
+        aging = true;
+
+        forEachPotion(reencoded, 0, i -> {
+            // Brew.get saves the item again if needed
+            Brew brew = Brew.get(reencoded[i]);
+            if (brew == null || !brew.isNeedsSave()) {
+                reencoded[i] = null;
+            }
+        }, () -> {
+            aging = false;
+            int count = 0;
+            for (int i = 0; i < reencoded.length && i < inventory.getSize(); i++) {
+                if (reencoded[i] == null || !originals[i].equals(inventory.getItem(i))) continue;
+                inventory.setItem(i, reencoded[i]);
+                count++;
+            }
+            done.accept(count);
+        });
+    }
+
     public void playOpeningSound() {
         float randPitch = (float) (Math.random() * 0.1);
         Location location = getSpigot().getLocation();
@@ -431,6 +644,9 @@ public class Barrel extends BarrelBody implements InventoryHolder {
         // Listened to by LWCBarrel (IntegrationListener)
         BreweryPlugin.getInstance().getServer().getPluginManager().callEvent(event);
 
+        if (unreadableItems != null) {
+            Logging.errorLog("Removed Barrel " + id + " with items that could not be read, their stored data was: " + unreadableItems);
+        }
         if (inventory != null) {
             List<HumanEntity> viewers = new ArrayList<>(inventory.getViewers());
             // Copy List to fix ConcModExc
@@ -519,6 +735,26 @@ public class Barrel extends BarrelBody implements InventoryHolder {
      * @return Future on whether this barrel is a small barrel, the future will be in an appropriate thread for modifying the world in that position
      */
     public static CompletableFuture<Boolean> computeSmall(Location spigotPosition) {
+        return computeSmall(spigotPosition, null, null);
+    }
+
+    /**
+     * Whether a loaded barrel is small, from its stored shape if possible.
+     * <p>Only reads the spigot block, which may load its chunk, if neither the size nor valid bounds were stored
+     *
+     * @param spigotPosition Position of spigot
+     * @param storedSmall    The stored size, null if not stored
+     * @param bounds         The stored bounds, null if not stored
+     * @return Future on whether this barrel is a small barrel
+     */
+    public static CompletableFuture<Boolean> computeSmall(Location spigotPosition, @Nullable Boolean storedSmall, @Nullable BoundingBox bounds) {
+        if (storedSmall != null) {
+            return CompletableFuture.completedFuture(storedSmall);
+        }
+        if (bounds != null && !bounds.isBad()) {
+            return CompletableFuture.completedFuture(bounds.volume() == 8);
+        }
+
         if (!MinecraftVersion.isFolia()) {
             return CompletableFuture.completedFuture(BarrelAsset.isBarrelAsset(BarrelAsset.SIGN, spigotPosition.getBlock().getType()));
         }
@@ -555,6 +791,17 @@ public class Barrel extends BarrelBody implements InventoryHolder {
             .add(barrel);
     }
 
+    /**
+     * Amount of loaded barrels, without copying them. Safe to call from other threads
+     */
+    public static int countBarrels() {
+        int count = 0;
+        for (List<Barrel> worldBarrels : barrels.values()) {
+            count += worldBarrels.size();
+        }
+        return count;
+    }
+
     public static List<Barrel> getAllBarrels() {
         return barrels.values().stream()
             .flatMap(List::stream)
@@ -581,21 +828,7 @@ public class Barrel extends BarrelBody implements InventoryHolder {
                         if (barrel.checked) {
                             continue;
                         }
-                        BreweryPlugin.getScheduler().runTask(barrel.getSpigot().getLocation(), () -> {
-                            Block broken = barrel.getBrokenBlock(false);
-                            if (broken != null) {
-                                Logging.debugLog("Barrel at "
-                                    + broken.getWorld().getName() + "/" + broken.getX() + "/" + broken.getY() + "/" + broken.getZ()
-                                    + " has been destroyed unexpectedly, contents will drop");
-                                // remove the barrel if it was destroyed
-                                barrel.remove(broken, null, true);
-                            } else {
-                                // Dont check this barrel again, its enough to check it once after every restart (and when randomly chosen)
-                                // as now this is only the backup if we dont register the barrel breaking,
-                                // for example when removing it with some world editor
-                                barrel.checked = true;
-                            }
-                        });
+                        BreweryPlugin.getScheduler().runTask(barrel.getSpigot().getLocation(), barrel::checkStructure);
                         return;
                     }
                     cancel();
@@ -24,6 +24,7 @@ import com.dre.brewery.utility.BUtil;
 import com.dre.brewery.utility.BoundingBox;
 import com.dre.brewery.utility.MinecraftVersion;
 import com.google.common.collect.ImmutableMap;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.bukkit.Material;
@@ -45,6 +46,16 @@ public abstract class BarrelBody {
     protected Block spigot;
     protected final BoundingBox bounds;
     protected byte signoffset;
+    // Shape of the barrel, stored with it so loading never needs the blocks. null until the structure was checked once
+    @Nullable
+    protected BarrelFacing facing;
+    @Nullable
+    protected BarrelWoodType woodType;
+    // Sign found by getSignOfSpigot, only kept in memory
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Nullable
+    private Block signBlock;
 
     private static final Map<BlockVector, BarrelPart> UNTRANSFORMED_SMALL_BARREL_PART_MAP = Map.of(
         new BlockVector(1, 0, 0), BarrelPart.BOTTOM_RIGHT,
@@ -128,6 +139,27 @@ public abstract class BarrelBody {
      */
     public void destroySign() {
         signoffset = 0;
+        signBlock = null;
+    }
+
+    public void setSpigot(Block spigot) {
+        this.spigot = spigot;
+        this.signBlock = null;
+    }
+
+    public void setSignoffset(byte signoffset) {
+        this.signoffset = signoffset;
+        this.signBlock = null;
+    }
+
+    /**
+     * Forget the cached facing, wood type and sign, they are read from the blocks again when next needed.
+     * <p>Call when the blocks of this barrel were changed or moved
+     */
+    public void invalidateShape() {
+        facing = null;
+        woodType = null;
+        signBlock = null;
     }
 
 
@@ -171,7 +203,18 @@ public abstract class BarrelBody {
      * woodtype of the block the spigot is attached to
      */
     public BarrelWoodType getWood() {
-        BarrelFacing direction = getDirection(spigot);
+        if (woodType == null) {
+            BarrelFacing direction = facing != null ? facing : getDirection(spigot);
+            if (direction == null) {
+                return BarrelWoodType.ANY;
+            }
+            facing = direction;
+            woodType = getWood(direction);
+        }
+        return woodType;
+    }
+
+    private BarrelWoodType getWood(@Nullable BarrelFacing direction) {
         if (direction == null) {
             return BarrelWoodType.ANY;
         }
@@ -210,12 +253,17 @@ public abstract class BarrelBody {
      */
     public Block getSignOfSpigot() {
         if (signoffset != 0) {
+            if (signBlock != null) {
+                return signBlock;
+            }
             if (BarrelAsset.isBarrelAsset(BarrelAsset.SIGN, spigot.getType())) {
+                signBlock = spigot;
                 return spigot;
             }
 
             Block relative = spigot.getRelative(0, signoffset, 0);
             if (BarrelAsset.isBarrelAsset(BarrelAsset.SIGN, relative.getType())) {
+                signBlock = relative;
                 return relative;
             } else {
                 signoffset = 0;
@@ -241,6 +289,19 @@ public abstract class BarrelBody {
         return block;
     }
 
+    /**
+     * Set the shape loaded from storage, unless the structure was already checked in the meantime.
+     *
+     * @param facing   The stored facing, null if not stored
+     * @param woodType The stored wood, null if not stored
+     */
+    public void loadShape(@Nullable BarrelFacing facing, @Nullable BarrelWoodType woodType) {
+        if (this.facing == null && this.woodType == null) {
+            this.facing = facing;
+            this.woodType = woodType;
+        }
+    }
+
     public abstract void remove(@Nullable Block broken, @Nullable Player breaker, boolean dropItems);
 
     /**
@@ -279,10 +340,13 @@ public abstract class BarrelBody {
         int dz1 = direction.getDz();
         int dz2 = orthogonal.getDz();
 
-        Block brokenBlock = validateStructure(direction, dx1, dx2, dz1, dz2, UNTRANSFORMED_SMALL_BARREL_PART_MAP);
+        BarrelWoodType wood = getWood(direction);
+        Block brokenBlock = validateStructure(direction, wood, dx1, dx2, dz1, dz2, UNTRANSFORMED_SMALL_BARREL_PART_MAP);
         if (brokenBlock != null) {
             return brokenBlock;
         }
+        this.facing = direction;
+        this.woodType = wood;
 
         BlockVector spigotPos = spigot.getLocation().toVector().toBlockVector();
         BlockVector minBarrel = (BlockVector) new BlockVector(dx1, 0, dz1).add(spigotPos);
@@ -302,10 +366,13 @@ public abstract class BarrelBody {
         int dz1 = direction.getDz();
         int dz2 = orthogonal.getDz();
 
-        Block brokenBlock = validateStructure(direction, dx1, dx2, dz1, dz2, UNTRANSFORMED_LARGE_BARREL_PART_MAP);
+        BarrelWoodType wood = getWood(direction);
+        Block brokenBlock = validateStructure(direction, wood, dx1, dx2, dz1, dz2, UNTRANSFORMED_LARGE_BARREL_PART_MAP);
         if (brokenBlock != null) {
             return brokenBlock;
         }
+        this.facing = direction;
+        this.woodType = wood;
         BlockVector spigotPos = spigot.getLocation().toVector().toBlockVector();
         BlockVector minBarrel = (BlockVector) new BlockVector(dx1 - dx2, 0, dz1 - dz2).add(spigotPos);
         BlockVector maxBarrel = (BlockVector) new BlockVector(4 * dx1 + dx2, 2, 4 * dz1 + dz2).add(spigotPos);
@@ -314,15 +381,14 @@ public abstract class BarrelBody {
     }
 
     @Nullable
-    private Block validateStructure(BarrelFacing direction, int dx1, int dx2, int dz1, int dz2, Map<BlockVector, BarrelPart> untransformedBarrelPartMap) {
-        BarrelWoodType woodType = getWood();
+    private Block validateStructure(BarrelFacing direction, BarrelWoodType wood, int dx1, int dx2, int dz1, int dz2, Map<BlockVector, BarrelPart> untransformedBarrelPartMap) {
         for (Map.Entry<BlockVector, BarrelPart> entry : untransformedBarrelPartMap.entrySet()) {
             int relativeX = dx1 * entry.getKey().getBlockX() + dx2 * entry.getKey().getBlockZ();
             int relativeZ = dz1 * entry.getKey().getBlockX() + dz2 * entry.getKey().getBlockZ();
             int relativeY = entry.getKey().getBlockY();
             Block block = spigot.getRelative(relativeX, relativeY, relativeZ);
             BlockData blockData = block.getBlockData();
-            if (!entry.getValue().matches(woodType, blockData, direction)) {
+            if (!entry.getValue().matches(wood, blockData, direction)) {
                 return block;
             }
         }
@@ -24,14 +24,12 @@ import com.dre.brewery.api.events.brew.BrewModifyEvent;
 import com.dre.brewery.configuration.ConfigManager;
 import com.dre.brewery.configuration.files.Config;
 import com.dre.brewery.configuration.files.Lang;
-import com.dre.brewery.lore.Base91DecoderStream;
-import com.dre.brewery.lore.Base91EncoderStream;
+import com.dre.brewery.lore.BrewCodec;
 import com.dre.brewery.lore.BrewLore;
 import com.dre.brewery.lore.LoreLoadStream;
 import com.dre.brewery.lore.LoreSaveStream;
 import com.dre.brewery.lore.NBTLoadStream;
 import com.dre.brewery.lore.NBTSaveStream;
-import com.dre.brewery.lore.XORScrambleStream;
 import com.dre.brewery.lore.XORUnscrambleStream;
 import com.dre.brewery.recipe.BEffect;
 import com.dre.brewery.recipe.BRecipe;
@@ -40,6 +38,7 @@ import com.dre.brewery.recipe.PotionColor;
 import com.dre.brewery.utility.BUtil;
 import com.dre.brewery.utility.Logging;
 import com.dre.brewery.utility.MinecraftVersion;
+import com.dre.brewery.utility.perf.PerfMetrics;
 import lombok.Getter;
 import lombok.Setter;
 import org.bukkit.Material;
@@ -57,11 +56,13 @@ import org.bukkit.potion.PotionType;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.DataInputStream;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
 import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
 import java.security.InvalidKeyException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -78,10 +79,17 @@ public class Brew implements Cloneable {
     private static final MinecraftVersion VERSION = BreweryPlugin.getMCVersion();
     private static final Config config = ConfigManager.getConfig(Config.class);
     private static final Lang lang = ConfigManager.getConfig(Lang.class);
+    private static final PerfMetrics.Counter DECODED = PerfMetrics.counter("brewery_brews_decoded_total", "Brews read from item data");
+    private static final PerfMetrics.Counter ENCODED = PerfMetrics.counter("brewery_brews_encoded_total", "Brews written into item data");
 
     public static final byte SAVE_VER = 1;
+    // Increase when Brews saved in the current format have to go through the conversion checks again
+    private static final int FORMAT_GENERATION = 1;
     private static long saveSeed;
     private static List<Long> prevSaveSeeds = new ArrayList<>(); // Save Seeds that have been used in the past, stored to decode brews made at that time
+    private static volatile List<Long> reencodedSeeds = List.of(); // Previous seeds no brew in a barrel used anymore on the last BrewReencoder pass
+    private static volatile BrewCodec.Keyring keyring = new BrewCodec.Keyring(0, null); // Rebuilt when the seeds change
+    private static volatile int seedStamp = computeSeedStamp(0); // Recomputed when the seed changes
     public static Map<Integer, Brew> legacyPotions = new HashMap<>();
     public static long installTime = System.currentTimeMillis(); // plugin install time in millis after epoch
 
@@ -159,6 +167,45 @@ public class Brew implements Cloneable {
         return brew;
     }
 
+    /**
+     * Stamp of the current save format, changes with the format generation, the save seed and the encode setting.
+     */
+    private static int formatStamp() {
+        return config.isEnableEncode() ? seedStamp : ~seedStamp;
+    }
+
+    // The stamp is stored in plaintext, so it is a MAC keyed with the seed that can't be traced back to it
+    private static int computeSeedStamp(long seed) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(ByteBuffer.allocate(Long.BYTES).putLong(seed).array(), "HmacSHA256"));
+            byte[] hash = mac.doFinal(ByteBuffer.allocate(Integer.BYTES).putInt(FORMAT_GENERATION).array());
+            return ByteBuffer.wrap(hash).getInt();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    /**
+     * Checks the format stamp written with the Brew data, without decoding it.
+     * <p>If true, the meta holds a Brew saved in the current format, that doesn't need any conversion or saving again.
+     * Items without stamp, i.e. normal potions or brews saved before stamps, return false
+     */
+    public static boolean isCurrentFormat(ItemMeta meta) {
+        if (!MinecraftVersion.isUseNBT()) return false;
+        Integer stamp = NBTLoadStream.getFormatStamp(meta);
+        return stamp != null && stamp == formatStamp();
+    }
+
+    /**
+     * Cheap check if this meta could hold Brew data in any format, including legacy ones.
+     */
+    public static boolean mayBeBrew(ItemMeta meta) {
+        if (meta.hasLore()) return true;
+        if (MinecraftVersion.isUseNBT() && NBTLoadStream.hasDataInMeta(meta)) return true;
+        return meta instanceof PotionMeta potionMeta && potionMeta.hasCustomEffect(PotionEffectType.REGENERATION);
+    }
+
     /**
      * returns a Brew by ItemStack
      *
@@ -285,11 +332,9 @@ public class Brew implements Cloneable {
     public boolean setRecipeFromString(String name) {
         currentRecipe = null;
         if (name != null && !name.equals("")) {
-            for (BRecipe recipe : BRecipe.getAllRecipes()) {
-                if (recipe.getRecipeName().equalsIgnoreCase(name)) {
-                    currentRecipe = recipe;
-                    return true;
-                }
+            currentRecipe = BRecipe.get(name);
+            if (currentRecipe != null) {
+                return true;
             }
 
             if (quality > 0) {
@@ -430,15 +475,7 @@ public class Brew implements Cloneable {
      */
     @Contract(pure = true)
     public int calcQuality() {
-        // calculate quality from all of the factors
-        float quality = ingredients.getIngredientQuality(currentRecipe) + ingredients.getCookingQuality(currentRecipe, distillRuns > 0);
-        if (currentRecipe.needsToAge() || ageTime > 0.5) {
-            quality += ingredients.getWoodQuality(currentRecipe, wood) + ingredients.getAgeQuality(currentRecipe, ageTime);
-            quality /= 4;
-        } else {
-            quality /= 2;
-        }
-        return Math.round(quality);
+        return ingredients.getQuality(currentRecipe, distillRuns > 0, wood, ageTime);
     }
 
 
@@ -542,14 +579,16 @@ public class Brew implements Cloneable {
         wood = BarrelWoodType.NONE;
         touch();
 
-        BrewModifyEvent modifyEvent = new BrewModifyEvent(this, meta, BrewModifyEvent.Type.SEAL, player);
-        BreweryPlugin.getInstance().getServer().getPluginManager().callEvent(modifyEvent);
+        if (BrewModifyEvent.hasListeners()) {
+            BrewModifyEvent modifyEvent = new BrewModifyEvent(this, meta, BrewModifyEvent.Type.SEAL, player);
+            BreweryPlugin.getInstance().getServer().getPluginManager().callEvent(modifyEvent);
 
-        if (modifyEvent.isCancelled()) {
-            // As the brew and everything connected to it is only saved on the meta from now on,
-            // restoring the origMeta is enough in this case
-            potion.setItemMeta(origMeta);
-            return;
+            if (modifyEvent.isCancelled()) {
+                // As the brew and everything connected to it is only saved on the meta from now on,
+                // restoring the origMeta is enough in this case
+                potion.setItemMeta(origMeta);
+                return;
+            }
         }
         save(meta);
         potion.setItemMeta(meta);
@@ -661,12 +700,14 @@ public class Brew implements Cloneable {
         lore.updateAlc(true);
         lore.write();
         touch();
-        BrewModifyEvent modifyEvent = new BrewModifyEvent(this, potionMeta, BrewModifyEvent.Type.DISTILL);
-        BreweryPlugin.getInstance().getServer().getPluginManager().callEvent(modifyEvent);
-        if (modifyEvent.isCancelled()) {
-            // As the brew and everything connected to it is only saved on the meta from now on,
-            // not saving the brew into potionMeta is enough to not change anything in case of cancel
-            return;
+        if (BrewModifyEvent.hasListeners()) {
+            BrewModifyEvent modifyEvent = new BrewModifyEvent(this, potionMeta, BrewModifyEvent.Type.DISTILL);
+            BreweryPlugin.getInstance().getServer().getPluginManager().callEvent(modifyEvent);
+            if (modifyEvent.isCancelled()) {
+                // As the brew and everything connected to it is only saved on the meta from now on,
+                // not saving the brew into potionMeta is enough to not change anything in case of cancel
+                return;
+            }
         }
         save(potionMeta);
 
@@ -694,7 +735,31 @@ public class Brew implements Cloneable {
     public void age(ItemStack item, float time, BarrelWoodType woodType) {
         if (immutable) return;
         PotionMeta potionMeta = (PotionMeta) item.getItemMeta();
+        ageMeta(item, potionMeta, time, woodType);
+        if (BrewModifyEvent.hasListeners()) {
+            BrewModifyEvent modifyEvent = new BrewModifyEvent(this, potionMeta, BrewModifyEvent.Type.AGE);
+            BreweryPlugin.getInstance().getServer().getPluginManager().callEvent(modifyEvent);
+            if (modifyEvent.isCancelled()) {
+                // As the brew and everything connected to it is only saved on the meta from now on,
+                // not saving the brew into potionMeta is enough to not change anything in case of cancel
+                return;
+            }
+        }
+        save(potionMeta);
+        item.setItemMeta(potionMeta);
+    }
 
+    /**
+     * Age this Brew and update the lore, name and color on the given meta, without calling the BrewModifyEvent or saving.
+     * <p>Does not touch the world or call events, so this can run off the main thread on a copy of the item.
+     *
+     * @param item       The item of the meta, only used for the potion color on old versions
+     * @param potionMeta The meta to update
+     * @param time       The time to age for, in years
+     * @param woodType   The wood of the barrel it aged in
+     */
+    public void ageMeta(ItemStack item, PotionMeta potionMeta, float time, BarrelWoodType woodType) {
+        if (immutable) return;
         BrewLore lore = new BrewLore(this, potionMeta);
         ageTime += time;
 
@@ -752,15 +817,6 @@ public class Brew implements Cloneable {
         }
         lore.write();
         touch();
-        BrewModifyEvent modifyEvent = new BrewModifyEvent(this, potionMeta, BrewModifyEvent.Type.AGE);
-        BreweryPlugin.getInstance().getServer().getPluginManager().callEvent(modifyEvent);
-        if (modifyEvent.isCancelled()) {
-            // As the brew and everything connected to it is only saved on the meta from now on,
-            // not saving the brew into potionMeta is enough to not change anything in case of cancel
-            return;
-        }
-        save(potionMeta);
-        item.setItemMeta(potionMeta);
     }
 
     /**
@@ -880,7 +936,7 @@ public class Brew implements Cloneable {
         lore.addOrReplaceEffects(recipe.getEffects(), quality);
         lore.write();
         touch();
-        if (event) {
+        if (event && BrewModifyEvent.hasListeners()) {
             BrewModifyEvent modifyEvent = new BrewModifyEvent(this, potionMeta, BrewModifyEvent.Type.CREATE, player);
             BreweryPlugin.getInstance().getServer().getPluginManager().callEvent(modifyEvent);
             if (modifyEvent.isCancelled()) {
@@ -923,28 +979,33 @@ public class Brew implements Cloneable {
     }
 
     private static Brew load(ItemMeta meta) {
-        InputStream itemLoadStream = null;
+        byte[] data = null;
+        boolean fromLore = false;
+        int seedGeneration = -1;
         if (MinecraftVersion.isUseNBT()) {
             // Try loading the Item Data from PersistentDataContainer
-            NBTLoadStream nbtStream = new NBTLoadStream(meta);
-            if (nbtStream.hasData()) {
-                itemLoadStream = nbtStream;
+            data = NBTLoadStream.getNBTBytes(meta);
+            if (data.length == 0) {
+                data = null;
+            } else {
+                seedGeneration = NBTLoadStream.getSeedGeneration(meta);
             }
         }
-        if (itemLoadStream == null) {
+        if (data == null) {
             // If either NBT is not supported or no data was found in NBT, try loading from Lore
             try {
-                itemLoadStream = new Base91DecoderStream(new LoreLoadStream(meta, 0));
+                data = BrewCodec.decodeBase91(LoreLoadStream.loreToBytes(meta, 0));
+                fromLore = true;
             } catch (IllegalArgumentException ignored) {
                 // No Brew data found in Meta
                 return null;
             }
         }
 
-        XORUnscrambleStream unscrambler = new XORUnscrambleStream(itemLoadStream, saveSeed, prevSaveSeeds);
-        try (DataInputStream in = new DataInputStream(unscrambler)) {
+        BrewCodec.Reader in = new BrewCodec.Reader(data);
+        try {
             boolean parityFailed = false;
-            if (in.readByte() != 86) {
+            if (!in.checkParity()) {
                 Logging.errorLog("Parity check failed on Brew while loading, trying to load anyways!");
                 parityFailed = true;
             }
@@ -953,8 +1014,8 @@ public class Brew implements Cloneable {
             switch (ver) {
                 case 1:
 
-                    unscrambler.start();
-                    brew.loadFromStream(in, ver);
+                    in.unscramble(keyring, seedGeneration);
+                    brew.loadFromReader(in, ver);
 
                     break;
                 default:
@@ -966,7 +1027,7 @@ public class Brew implements Cloneable {
                     return null;
             }
 
-            XORUnscrambleStream.SuccessType successType = unscrambler.getSuccessType();
+            XORUnscrambleStream.SuccessType successType = in.getSuccessType();
             if (successType == XORUnscrambleStream.SuccessType.PREV_SEED) {
                 Logging.debugLog("Converting Brew from previous Seed");
                 brew.setNeedsSave(true);
@@ -974,12 +1035,13 @@ public class Brew implements Cloneable {
                 // We have either enabled encode and the data was not encoded or the other way round
                 Logging.debugLog("Converting Brew to new encode setting");
                 brew.setNeedsSave(true);
-            } else if (MinecraftVersion.isUseNBT() && itemLoadStream instanceof Base91DecoderStream) {
+            } else if (MinecraftVersion.isUseNBT() && fromLore) {
                 // We are on a version that supports nbt but the data is still in the lore of the item
                 // Just save it again so that it gets saved to nbt
                 Logging.debugLog("Converting Brew to NBT");
                 brew.setNeedsSave(true);
             }
+            DECODED.increment();
             return brew;
         } catch (IOException e) {
             Logging.errorLog("IO Error while loading Brew", e);
@@ -989,7 +1051,8 @@ public class Brew implements Cloneable {
         return null;
     }
 
-    private void loadFromStream(DataInputStream in, byte dataVersion) throws IOException {
+    // Reads the fields directly from the unscrambled array, only the ingredients go through a stream for the Item Loaders
+    private void loadFromReader(BrewCodec.Reader in, byte dataVersion) throws IOException {
         quality = in.readByte();
         int bools = in.readUnsignedByte();
         if ((bools & 64) != 0) {
@@ -1011,7 +1074,7 @@ public class Brew implements Cloneable {
         unlabeled = (bools & 16) != 0;
         immutable = (bools & 32) != 0;
         stripped = (bools & 128) != 0;
-        ingredients = BIngredients.load(in, dataVersion);
+        ingredients = BIngredients.load(in.remaining(), dataVersion);
         setRecipeFromString(recipe);
     }
 
@@ -1020,23 +1083,31 @@ public class Brew implements Cloneable {
      * <p>Should be called after any changes made to the brew
      */
     public void save(ItemMeta meta) {
-        OutputStream itemSaveStream;
-        if (MinecraftVersion.isUseNBT()) {
-            itemSaveStream = new NBTSaveStream(meta);
-        } else {
-            itemSaveStream = new Base91EncoderStream(new LoreSaveStream(meta, 0));
-        }
-        XORScrambleStream scrambler = new XORScrambleStream(itemSaveStream, saveSeed);
-        try (DataOutputStream out = new DataOutputStream(scrambler)) {
-            out.writeByte(86); // Parity/sanity
+        BrewCodec.Writer writer = new BrewCodec.Writer();
+        DataOutputStream out = writer.data();
+        try {
+            out.writeByte(BrewCodec.PARITY); // Parity/sanity
             out.writeByte(SAVE_VER); // Version
             // If Stripped of data, we can save everything unscrambled
-            if (config.isEnableEncode() && !isStripped()) {
-                scrambler.start();
+            boolean scrambled = config.isEnableEncode() && !isStripped();
+            if (scrambled) {
+                writer.startScrambled(saveSeed);
             } else {
-                scrambler.startUnscrambled();
+                writer.startUnscrambled();
             }
             saveToStream(out);
+            byte[] data = writer.finish();
+            if (MinecraftVersion.isUseNBT()) {
+                NBTSaveStream.setNBTBytes(meta, data);
+                NBTSaveStream.setFormatStamp(meta, formatStamp());
+                NBTSaveStream.setSeedGeneration(meta, scrambled ? keyring.generationOf(saveSeed) : -1);
+            } else {
+                try (LoreSaveStream loreStream = new LoreSaveStream(meta, 0)) {
+                    loreStream.write(BrewCodec.encodeBase91(data, data.length));
+                    loreStream.flush();
+                }
+            }
+            ENCODED.increment();
         } catch (IOException e) {
             Logging.errorLog("IO Error while saving Brew", e);
         }
@@ -1116,6 +1187,39 @@ public class Brew implements Cloneable {
         if (!prevSaveSeeds.contains(saveSeed)) {
             prevSaveSeeds.add(saveSeed);
         }
+        keyring = new BrewCodec.Keyring(saveSeed, prevSaveSeeds);
+        seedStamp = computeSeedStamp(saveSeed);
+    }
+
+    public static void loadReencodedSeeds(@Nullable List<Long> list) {
+        reencodedSeeds = list != null ? List.copyOf(list) : List.of();
+    }
+
+    /**
+     * If brews in barrels may still be encoded with a seed other than the current one.
+     * <p>False once a full pass of the BrewReencoder found no brews on any of the previous seeds
+     */
+    public static boolean hasPreviousSeeds() {
+        for (long seed : prevSaveSeeds) {
+            if (seed != saveSeed && !reencodedSeeds.contains(seed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * No brew in a barrel uses a previous seed anymore, the barrels don't have to be checked again until the seed changes.
+     * <p>The seeds are kept to decode brews outside of barrels
+     */
+    public static void markPreviousSeedsReencoded() {
+        List<Long> seeds = new ArrayList<>(prevSaveSeeds);
+        seeds.remove(Long.valueOf(saveSeed));
+        reencodedSeeds = List.copyOf(seeds);
+    }
+
+    public static List<Long> getReencodedSeeds() {
+        return reencodedSeeds;
     }
 
     public static List<Long> getPrevSeeds() {
@@ -0,0 +1,108 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery;
+
+import com.dre.brewery.configuration.ConfigManager;
+import com.dre.brewery.configuration.files.Config;
+import com.dre.brewery.utility.Logging;
+import com.dre.brewery.utility.perf.PerfMetrics;
+import com.github.Anon8281.universalScheduler.UniversalRunnable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Saves the brews in all barrels again that are still encoded with a previous seed, a few barrels per second.
+ * <p>Brews are otherwise only converted when a barrel is opened, so this lets old seeds eventually go out of use.
+ * The barrels are written to the database with the next save.
+ * <p>Once a pass finds no such brews, the previous seeds are marked as done and later starts skip the pass until the seed changes.
+ */
+public class BrewReencoder extends UniversalRunnable {
+
+    private static final Config config = ConfigManager.getConfig(Config.class);
+    private static final int BARRELS_PER_RUN = 8;
+    private static final PerfMetrics.Counter REENCODED = PerfMetrics.counter("brewery_brews_reencoded_total",
+        "Brews in barrels saved again because they used a previous seed or encode setting");
+    private static final AtomicBoolean running = new AtomicBoolean();
+
+    private final Deque<Barrel> queue;
+    private final int barrelCount;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger brews = new AtomicInteger();
+    private final AtomicInteger changedBarrels = new AtomicInteger();
+
+    private BrewReencoder() {
+        this.queue = new ArrayDeque<>(Barrel.getAllBarrels());
+        this.barrelCount = queue.size();
+    }
+
+    /**
+     * Start going through all barrels, if encoding is enabled and there are previous seeds.
+     * <p>Does nothing if already running.
+     */
+    public static void startIfNeeded() {
+        if (!config.isEnableEncode() || !Brew.hasPreviousSeeds()) {
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        Logging.debugLog("Re-encoding Brews from previous seeds in barrels");
+        new BrewReencoder().runTaskTimer(BreweryPlugin.getInstance(), 20, 20);
+    }
+
+    @Override
+    public void run() {
+        for (int i = 0; i < BARRELS_PER_RUN && !queue.isEmpty(); i++) {
+            Barrel barrel = queue.poll();
+            pending.incrementAndGet();
+            BreweryPlugin.getScheduler().runTask(barrel.getSpigot().getLocation(), () -> {
+                try {
+                    barrel.reencodeContents(this::barrelDone);
+                } catch (Exception e) {
+                    Logging.errorLog("Failed to re-encode Brews in Barrel " + barrel.getId(), e);
+                    barrelDone(0);
+                }
+            });
+        }
+        if (queue.isEmpty() && pending.get() == 0) {
+            cancel();
+            running.set(false);
+            if (brews.get() > 0) {
+                Logging.log("Saved " + brews.get() + " Brews in " + changedBarrels.get() + " of " + barrelCount + " barrels with the current seed");
+            } else {
+                Logging.debugLog("No Brews from previous seeds found in " + barrelCount + " barrels");
+                Brew.markPreviousSeedsReencoded();
+            }
+        }
+    }
+
+    private void barrelDone(int count) {
+        if (count > 0) {
+            brews.addAndGet(count);
+            changedBarrels.incrementAndGet();
+            REENCODED.add(count);
+        }
+        pending.decrementAndGet();
+    }
+}
@@ -26,6 +26,7 @@ import com.dre.brewery.configuration.ConfigManager;
 import com.dre.brewery.configuration.configurer.TranslationManager;
 import com.dre.brewery.configuration.files.Config;
 import com.dre.brewery.configuration.files.Lang;
+import com.dre.brewery.integration.BarrelAccessCache;
 import com.dre.brewery.integration.BlockLockerHook;
 import com.dre.brewery.integration.Hook;
 import com.dre.brewery.integration.LandsHook;
@@ -33,10 +34,12 @@ import com.dre.brewery.integration.PlaceholderAPIHook;
 import com.dre.brewery.integration.barrel.BlockLockerBarrel;
 import com.dre.brewery.integration.bstats.BreweryStats;
 import com.dre.brewery.integration.bstats.BreweryXStats;
+import com.dre.brewery.integration.listeners.AccessCacheListener;
 import com.dre.brewery.integration.listeners.ChestShopListener;
 import com.dre.brewery.integration.listeners.IntegrationListener;
 import com.dre.brewery.integration.listeners.ShopKeepersListener;
 import com.dre.brewery.integration.listeners.SlimefunListener;
+import com.dre.brewery.integration.listeners.movecraft.CraftBarrels;
 import com.dre.brewery.integration.listeners.movecraft.CraftDetectListener;
 import com.dre.brewery.integration.listeners.movecraft.RotationListener;
 import com.dre.brewery.integration.listeners.movecraft.SinkListener;
@@ -56,6 +59,8 @@ import com.dre.brewery.storage.DataManager;
 import com.dre.brewery.storage.StorageInitException;
 import com.dre.brewery.utility.Logging;
 import com.dre.brewery.utility.MinecraftVersion;
+import com.dre.brewery.utility.perf.PerfExporter;
+import com.dre.brewery.utility.perf.PerfMetrics;
 import com.dre.brewery.utility.releases.ReleaseChecker;
 import com.github.Anon8281.universalScheduler.UniversalScheduler;
 import com.github.Anon8281.universalScheduler.scheduling.schedulers.TaskScheduler;
@@ -189,6 +194,7 @@ public final class BreweryPlugin extends JavaPlugin {
                 BPlayer::getUuid,
                 Function.identity()
             )));
+        BPlayer.updateAllStumbling();
         Wakeup.getWakeups().addAll(dataManager.getAllWakeups()
             .stream()
             .filter(Objects::nonNull)
@@ -223,6 +229,11 @@ public final class BreweryPlugin extends JavaPlugin {
         pluginManager.registerEvents(new EntityListener(), this);
         pluginManager.registerEvents(new InventoryListener(), this);
         pluginManager.registerEvents(new IntegrationListener(), this);
+        pluginManager.registerEvents(new AccessCacheListener(), this);
+        if (Hook.GRIEFPREVENTION.isEnabled())
+            pluginManager.registerEvents(new AccessCacheListener.GriefPrevention(), this);
+        if (Hook.TOWNY.isEnabled())
+            pluginManager.registerEvents(new AccessCacheListener.Towny(), this);
         if (getMCVersion().isOrLater(MinecraftVersion.V1_9))
             pluginManager.registerEvents(new CauldronListener(), this);
         if (Hook.CHESTSHOP.isEnabled() && getMCVersion().isOrLater(MinecraftVersion.V1_13))
@@ -232,6 +243,7 @@ public final class BreweryPlugin extends JavaPlugin {
         if (Hook.SLIMEFUN.isEnabled() && getMCVersion().isOrLater(MinecraftVersion.V1_14))
             pluginManager.registerEvents(new SlimefunListener(), this);
         if (Hook.MOVECRAFT.isEnabled()) {
+            pluginManager.registerEvents(new CraftBarrels(), this);
             pluginManager.registerEvents(new CraftDetectListener(), this);
             pluginManager.registerEvents(new TranslationListener(), this);
             pluginManager.registerEvents(new RotationListener(), this);
@@ -243,6 +255,10 @@ public final class BreweryPlugin extends JavaPlugin {
         BreweryPlugin.getScheduler().runTaskTimer(new DrunkRunnable(), 120, 120);
         if (getMCVersion().isOrLater(MinecraftVersion.V1_9))
             BreweryPlugin.getScheduler().runTaskTimer(new CauldronParticles(), 1, 1);
+        registerMetrics();
+        BreweryPlugin.getScheduler().runTaskTimerAsynchronously(new PerfExporter(getDataFolder()), 200, 100);
+        // Barrels are registered async, give them some time
+        BreweryPlugin.getScheduler().runTaskLater(BrewReencoder::startIfNeeded, 1200);
 
 
         // Register PlaceholderAPI Placeholders
@@ -322,19 +338,34 @@ public final class BreweryPlugin extends JavaPlugin {
         }
     }
 
+    private void registerMetrics() {
+        PerfMetrics.gauge("brewery_barrels", "Loaded barrels", Barrel::countBarrels);
+        PerfMetrics.gauge("brewery_cauldrons", "Boiling cauldrons", () -> BCauldron.bcauldrons.size());
+        PerfMetrics.gauge("brewery_drunk_players", "Drunk players", BPlayer::numDrunkPlayers);
+        PerfMetrics.gauge("brewery_wakeups", "Wakeup points", () -> Wakeup.wakeups.size());
+        PerfMetrics.gauge("brewery_distillers_active", "Brewing stands currently distilling", BDistiller::getActiveDistillers);
+    }
+
     public static class BreweryRunnable implements Runnable {
+        private static final PerfMetrics.Timer HEARTBEAT = PerfMetrics.timer("brewery_heartbeat_seconds",
+            "Duration of the minutely heartbeat on the main thread");
+
         @Override
         public void run() {
             long start = System.currentTimeMillis();
+            long startNanos = System.nanoTime();
 
             // runs every min to update cooking time
 
-            for (BCauldron bCauldron : BCauldron.bcauldrons.values()) {
-                BreweryPlugin.getScheduler().runTask(bCauldron.getBlock().getLocation(), () -> {
+            if (MinecraftVersion.isFolia()) {
+                // One task per region for its cauldrons and barrels
+                ShardedHeartbeat.run();
+            } else {
+                for (BCauldron bCauldron : BCauldron.bcauldrons.values()) {
                     if (!bCauldron.onUpdate()) {
                         BCauldron.bcauldrons.remove(bCauldron.getBlock());
                     }
-                });
+                }
             }
 
 
@@ -342,6 +373,7 @@ public final class BreweryPlugin extends JavaPlugin {
 
             if (getMCVersion().isOrLater(MinecraftVersion.V1_14)) MCBarrel.onUpdate();
             if (BlockLockerHook.BLOCKLOCKER.isEnabled()) BlockLockerBarrel.clearBarrelSign();
+            BarrelAccessCache.onUpdate();
 
             BPlayer.onUpdate();// updates players drunkenness
 
@@ -349,6 +381,8 @@ public final class BreweryPlugin extends JavaPlugin {
             //DataSave.autoSave();
             dataManager.tryAutoSave();
 
+            HEARTBEAT.recordSince(startNanos);
+            PerfMetrics.tick();
             Logging.debugLog("BreweryRunnable: " + (System.currentTimeMillis() - start) + "ms");
         }
 
@@ -43,12 +43,13 @@ public class DistortChat {
     private static final Config config = ConfigManager.getConfig(Config.class);
     private static final Lang lang = ConfigManager.getConfig(Lang.class);
 
-    public static final List<DistortChat> words = new ArrayList<>();
+    // Swapped as a whole on reload, see apply(Settings)
+    public static volatile List<DistortChat> words = new ArrayList<>();
     @Getter
-    public static final List<String> commands = new ArrayList<>();
+    public static volatile List<String> commands = new ArrayList<>();
     private static final List<String> playerParameterCommands = Arrays.asList("/msg", "/tell", "/whisper", "/w"); // e.g. '/msg PLAYER ...' -> don't distort the player name here
     @Getter
-    public static final List<String[]> ignoreText = new ArrayList<>();
+    public static volatile List<String[]> ignoreText = new ArrayList<>();
     private static final Map<String, Long> waitPlayers = new HashMap<>();
 
     private String from;
@@ -95,6 +96,10 @@ public class DistortChat {
     }
 
     public DistortChat(ConfigDistortWord configDistortWord) {
+        this(configDistortWord, true);
+    }
+
+    private DistortChat(ConfigDistortWord configDistortWord, boolean register) {
         this.from = configDistortWord.getReplace();
         this.to = configDistortWord.getTo();
 
@@ -108,11 +113,49 @@ public class DistortChat {
         this.alcohol = configDistortWord.getAlcohol() != null ? configDistortWord.getAlcohol() : 1;
         this.percentage = configDistortWord.getPercentage() != null ? configDistortWord.getPercentage() : 100;
 
-        if (this.from != null && this.to != null) {
+        if (register && isValid()) {
             words.add(this);
         }
     }
 
+    private boolean isValid() {
+        return this.from != null && this.to != null;
+    }
+
+    /**
+     * The words, commands and bypass text of a config, parsed without replacing the active ones.
+     */
+    public record Settings(List<DistortChat> words, List<String> commands, List<String[]> ignoreText) {
+    }
+
+    public static Settings load(Config config) {
+        List<DistortChat> words = new ArrayList<>();
+        List<String> commands = new ArrayList<>();
+        List<String[]> ignoreText = new ArrayList<>();
+        if (config.isEnableChatDistortion()) {
+            for (ConfigDistortWord distortWord : config.getWords()) {
+                DistortChat word = new DistortChat(distortWord, false);
+                if (word.isValid()) {
+                    words.add(word);
+                }
+            }
+            for (String bypass : config.getDistortBypass()) {
+                ignoreText.add(bypass.split(","));
+            }
+            commands.addAll(config.getDistortCommands());
+        }
+        return new Settings(words, commands, ignoreText);
+    }
+
+    /**
+     * Replace the active words, commands and bypass text at once.
+     */
+    public static void apply(Settings settings) {
+        words = settings.words();
+        commands = settings.commands();
+        ignoreText = settings.ignoreText();
+    }
+
     // Distort players words when he uses a command
     public static void playerCommand(PlayerCommandPreprocessEvent event) {
         BPlayer bPlayer = BPlayer.get(event.getPlayer());
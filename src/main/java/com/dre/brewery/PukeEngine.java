@@ -0,0 +1,180 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery;
+
+import com.dre.brewery.configuration.ConfigManager;
+import com.dre.brewery.configuration.files.Config;
+import com.dre.brewery.utility.BUtil;
+import com.dre.brewery.utility.MinecraftVersion;
+import com.github.Anon8281.universalScheduler.scheduling.tasks.MyScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.Particle;
+import org.bukkit.entity.Item;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.metadata.FixedMetadataValue;
+import org.bukkit.util.Vector;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Makes players puke, one item per tick.
+ * <p>All puking players share one task. Items only drop while less than the configured limit of puke items exist,
+ * above that and in particle mode only item particles are shown, which don't create any entities.
+ */
+public final class PukeEngine {
+
+    public enum Mode {
+        /**
+         * Drop items that can't be picked up and despawn after the pukeDespawntime
+         */
+        ITEM,
+        /**
+         * Only show item particles
+         */
+        PARTICLE
+    }
+
+    private static final MinecraftVersion VERSION = BreweryPlugin.getMCVersion();
+    private static final Config config = ConfigManager.getConfig(Config.class);
+
+    private static final Map<UUID, Integer> pukers = new ConcurrentHashMap<>();// Player uuid and items left to puke
+    private static final PriorityBlockingQueue<Long> itemExpiry = new PriorityBlockingQueue<>();// When the dropped items despawn, in millis
+    private static MyScheduledTask task;
+
+    private PukeEngine() {
+    }
+
+    /**
+     * Make the player puke this many items, replacing what is left of a previous puke.
+     */
+    public static synchronized void add(Player player, int count) {
+        pukers.put(player.getUniqueId(), count);
+        if (task == null) {
+            task = BreweryPlugin.getScheduler().runTaskTimer(PukeEngine::tick, 1L, 1L);
+        }
+    }
+
+    /**
+     * Amount of puke items that currently may exist in the worlds.
+     */
+    public static int countItems() {
+        return itemExpiry.size();
+    }
+
+    private static void tick() {
+        long now = System.currentTimeMillis();
+        Long expiry;
+        while ((expiry = itemExpiry.peek()) != null && expiry <= now) {
+            itemExpiry.poll();
+        }
+
+        boolean sharded = MinecraftVersion.isFolia();
+        for (Iterator<Map.Entry<UUID, Integer>> iter = pukers.entrySet().iterator(); iter.hasNext(); ) {
+            Map.Entry<UUID, Integer> entry = iter.next();
+            Player player = Bukkit.getPlayer(entry.getKey());
+            if (player == null || !player.isValid() || !player.isOnline()) {
+                iter.remove();
+                continue;
+            }
+            if (sharded) {
+                // The player might be in any region, spawn on its thread
+                BreweryPlugin.getScheduler().runTask(player, () -> puke(player));
+            } else {
+                puke(player);
+            }
+            int count = entry.getValue();
+            if (count <= 1) {
+                iter.remove();
+            } else {
+                entry.setValue(count - 1);
+            }
+        }
+
+        synchronized (PukeEngine.class) {
+            if (pukers.isEmpty() && task != null) {
+                task.cancel();
+                task = null;
+            }
+        }
+    }
+
+    /**
+     * Throw one puke item from the players mouth.
+     * <p>Has to run on the thread owning the player
+     */
+    public static void puke(Player player) {
+        List<Material> items = config.getPukeItem();
+        if (items == null || items.isEmpty()) {
+            config.setPukeItem(List.of(Material.SOUL_SAND));
+            items = config.getPukeItem();
+        }
+        ThreadLocalRandom rand = ThreadLocalRandom.current();
+        Location loc = player.getLocation();
+        loc.setY(loc.getY() + 1.1);
+        loc.setPitch(loc.getPitch() - 10 + rand.nextInt(20));
+        loc.setYaw(loc.getYaw() - 10 + rand.nextInt(20));
+        Vector direction = loc.getDirection();
+        direction.multiply(0.5);
+        loc.add(direction);
+        ItemStack stack = new ItemStack(items.get(rand.nextInt(items.size())));
+
+        int limit = config.getPukeItemLimit();
+        if (config.getPukeMode() == Mode.PARTICLE || (limit > 0 && itemExpiry.size() >= limit)) {
+            // With a count of 0 the offset is the direction of the particle
+            player.getWorld().spawnParticle(Particle.ITEM_CRACK, loc, 0, direction.getX(), direction.getY(), direction.getZ(), 1, stack);
+            return;
+        }
+
+        Item item = player.getWorld().dropItem(loc, stack);
+        item.setVelocity(direction);
+        item.setPickupDelay(32767); // Item can never be picked up when pickup delay is 32767
+        item.setMetadata("brewery_puke", new FixedMetadataValue(BreweryPlugin.getInstance(), true));
+        if (VERSION.isOrLater(MinecraftVersion.V1_14)) item.setPersistent(false); // No need to save Puke items
+
+        int pukeDespawntime = config.getPukeDespawntime();
+        int despawnRate = BUtil.getItemDespawnRate(player.getWorld());
+        int ticksLived = 0;
+        if (pukeDespawntime < (despawnRate - 200)) {
+            // Setting the age determines when an item is despawned. At age 6000 it is removed.
+            if (pukeDespawntime <= 0) {
+                // Just show the item for a few ticks
+                ticksLived = despawnRate - 4;
+            } else if (pukeDespawntime <= 120) {
+                // it should despawn in less than 6 sec. Add up to half of that randomly
+                ticksLived = despawnRate - pukeDespawntime + rand.nextInt((int) (pukeDespawntime / 2F));
+            } else {
+                // Add up to 5 sec randomly
+                ticksLived = despawnRate - pukeDespawntime + rand.nextInt(100);
+            }
+            item.setTicksLived(ticksLived);
+        }
+        itemExpiry.add(System.currentTimeMillis() + (despawnRate - ticksLived) * 50L);
+    }
+}
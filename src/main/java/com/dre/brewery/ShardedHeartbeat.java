@@ -0,0 +1,137 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery;
+
+import com.dre.brewery.utility.Logging;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The minutely cauldron and barrel work of the heartbeat on Folia, batched per region.
+ * <p>Cauldrons and barrels are grouped by Folia region section and each group is processed in a single task
+ * on the region owning it, instead of one cross-region task per cauldron and per checked barrel.
+ */
+public final class ShardedHeartbeat {
+
+    // Block coordinates to Folia's default region section of 16x16 chunks. Everything in one section is owned by the same region
+    private static final int SECTION_SHIFT = 8;
+    // Unchecked barrels checked per shard and minute, spreads the checks after a restart over multiple minutes
+    private static final int MAX_CHECKS_PER_SHARD = 16;
+
+    private static volatile Map<ShardKey, ShardTiming> lastTimings = Map.of();
+
+    private record ShardKey(UUID world, int x, int z) {
+    }
+
+    /**
+     * How long the last run of one shard took.
+     *
+     * @param worldName The name of the world of this shard
+     * @param x         The x coordinate of the shard, in region sections
+     * @param z         The z coordinate of the shard, in region sections
+     * @param cauldrons The amount of cauldrons processed
+     * @param barrels   The amount of barrels processed
+     * @param nanos     The time it took on the region thread
+     */
+    public record ShardTiming(String worldName, int x, int z, int cauldrons, int barrels, long nanos) {
+    }
+
+    private static final class Shard {
+        private final Location location;
+        private final List<BCauldron> cauldrons = new ArrayList<>();
+        private final List<Barrel> barrels = new ArrayList<>();
+
+        private Shard(Location location) {
+            this.location = location;
+        }
+    }
+
+    private ShardedHeartbeat() {
+    }
+
+    /**
+     * Schedule one task per region shard to update its cauldrons and barrels.
+     * <p>Called every minute from the global heartbeat
+     */
+    public static void run() {
+        Map<ShardKey, Shard> shards = new HashMap<>();
+        for (BCauldron cauldron : BCauldron.bcauldrons.values()) {
+            shardOf(shards, cauldron.getBlock()).cauldrons.add(cauldron);
+        }
+        for (Barrel barrel : Barrel.getAllBarrels()) {
+            shardOf(shards, barrel.getSpigot()).barrels.add(barrel);
+        }
+
+        Map<ShardKey, ShardTiming> timings = new ConcurrentHashMap<>();
+        lastTimings = timings;
+        for (Map.Entry<ShardKey, Shard> entry : shards.entrySet()) {
+            ShardKey key = entry.getKey();
+            Shard shard = entry.getValue();
+            BreweryPlugin.getScheduler().runTask(shard.location, () -> {
+                long start = System.nanoTime();
+                process(shard);
+                World world = shard.location.getWorld();
+                timings.put(key, new ShardTiming(world != null ? world.getName() : key.world.toString(), key.x, key.z,
+                    shard.cauldrons.size(), shard.barrels.size(), System.nanoTime() - start));
+            });
+        }
+        Logging.debugLog("ShardedHeartbeat: scheduled " + shards.size() + " region shards");
+    }
+
+    private static Shard shardOf(Map<ShardKey, Shard> shards, Block block) {
+        ShardKey key = new ShardKey(block.getWorld().getUID(), block.getX() >> SECTION_SHIFT, block.getZ() >> SECTION_SHIFT);
+        return shards.computeIfAbsent(key, k -> new Shard(block.getLocation()));
+    }
+
+    private static void process(Shard shard) {
+        for (BCauldron cauldron : shard.cauldrons) {
+            if (!cauldron.onUpdate()) {
+                BCauldron.bcauldrons.remove(cauldron.getBlock());
+            }
+        }
+        int checks = 0;
+        for (Barrel barrel : shard.barrels) {
+            barrel.ageMinute();
+            if (!barrel.isChecked() && checks < MAX_CHECKS_PER_SHARD) {
+                checks++;
+                barrel.checkStructure();
+            }
+        }
+    }
+
+    /**
+     * The timings of all shards in the last run, slowest first.
+     */
+    public static List<ShardTiming> getLastTimings() {
+        List<ShardTiming> list = new ArrayList<>(lastTimings.values());
+        list.sort(Comparator.comparingLong(ShardTiming::nanos).reversed());
+        return list;
+    }
+}
@@ -25,6 +25,7 @@ import com.dre.brewery.configuration.files.Lang;
 import com.dre.brewery.utility.BUtil;
 import com.dre.brewery.utility.Logging;
 import io.papermc.lib.PaperLib;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -33,10 +34,12 @@ import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 @Getter
 public class Wakeup {
@@ -48,10 +51,22 @@ public class Wakeup {
     public static BreweryPlugin breweryPlugin = BreweryPlugin.getInstance();
     public static int checkId = -1;
     public static Player checkPlayer = null;
+    private static volatile Index index = Index.EMPTY;
 
     private final Location loc;
     private final UUID id;
     private boolean active = true;
+    private int number = -1; // Position in wakeups, used as id in the commands
+    @Getter(AccessLevel.NONE)
+    private volatile CompletableFuture<?> chunkLoad; // Shared by all checks while the chunk is loading
+
+    /**
+     * Active Wakeups by World.
+     * <p>Rebuilt when the amount of wakeups changed or on {@link #invalidateIndex()}
+     */
+    private record Index(int size, Map<UUID, List<Wakeup>> worlds) {
+        private static final Index EMPTY = new Index(-1, Map.of());
+    }
 
     public Wakeup(Location loc) {
         this.loc = loc;
@@ -65,55 +80,66 @@ public class Wakeup {
     }
 
 
-    // get the nearest of two random Wakeup-Locations
-    public static Location getRandom(Location playerLoc) {
-        if (wakeups.isEmpty()) {
-            return null;
+    private static Index index() {
+        Index current = index;
+        if (current.size() == wakeups.size()) {
+            return current;
         }
-
-        List<Wakeup> worldWakes = wakeups.stream()
-            .filter(w -> w.active)
-            .filter(w -> w.loc.getWorld().equals(playerLoc.getWorld()))
-            .collect(Collectors.toList());
-
-        if (worldWakes.isEmpty()) {
-            return null;
+        Map<UUID, List<Wakeup>> worlds = new HashMap<>();
+        for (int i = 0; i < wakeups.size(); i++) {
+            Wakeup wakeup = wakeups.get(i);
+            wakeup.number = i;
+            if (!wakeup.active || wakeup.loc.getWorld() == null) continue;
+            UUID world = wakeup.loc.getWorld().getUID();
+            worlds.computeIfAbsent(world, k -> new ArrayList<>()).add(wakeup);
         }
+        current = new Index(wakeups.size(), worlds);
+        index = current;
+        return current;
+    }
 
-        Wakeup w1 = calcRandom(worldWakes);
-        worldWakes.remove(w1);
-        if (w1 == null) return null;
+    public static void invalidateIndex() {
+        index = Index.EMPTY;
+    }
 
-        while (!w1.check()) {
-            Logging.errorLog("Please Check Wakeup-Location with id: &6" + wakeups.indexOf(w1));
+    /**
+     * Get the nearest of two random Wakeup-Locations in the World of the player.
+     * <p>The chunks of the Wakeups are loaded async to check them, completes with null if there is no safe Wakeup
+     */
+    public static CompletableFuture<Location> getRandom(Location playerLoc) {
+        List<Wakeup> worldWakes = index().worlds().get(playerLoc.getWorld().getUID());
+        if (worldWakes == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        List<Wakeup> candidates = new ArrayList<>(worldWakes);
 
-            w1 = calcRandom(worldWakes);
+        return pickSafe(candidates).thenCompose(w1 -> {
             if (w1 == null) {
-                return null;
+                return CompletableFuture.completedFuture(null);
             }
-            worldWakes.remove(w1);
-        }
-
-        Wakeup w2 = calcRandom(worldWakes);
-        if (w2 != null) {
-            worldWakes.remove(w2);
-
-            while (!w2.check()) {
-                Logging.errorLog("Please Check Wakeup-Location with id: &6" + wakeups.indexOf(w2));
-
-                w2 = calcRandom(worldWakes);
-                if (w2 == null) {
-                    return w1.loc;
+            return pickSafe(candidates).thenApply(w2 -> {
+                if (w2 != null && w1.loc.distanceSquared(playerLoc) > w2.loc.distanceSquared(playerLoc)) {
+                    return w2.loc;
                 }
-                worldWakes.remove(w2);
-            }
-
+                return w1.loc;
+            });
+        });
+    }
 
-            if (w1.loc.distanceSquared(playerLoc) > w2.loc.distanceSquared(playerLoc)) {
-                return w2.loc;
-            }
+    // Take random Wakeups out of the candidates until one of them is safe
+    private static CompletableFuture<Wakeup> pickSafe(List<Wakeup> candidates) {
+        Wakeup wakeup = calcRandom(candidates);
+        if (wakeup == null) {
+            return CompletableFuture.completedFuture(null);
         }
-        return w1.loc;
+        candidates.remove(wakeup);
+        return wakeup.checkAsync().thenCompose(safe -> {
+            if (safe) {
+                return CompletableFuture.completedFuture(wakeup);
+            }
+            Logging.errorLog("Please Check Wakeup-Location with id: &6" + wakeup.number);
+            return pickSafe(candidates);
+        });
     }
 
     public static Wakeup calcRandom(List<Wakeup> worldWakes) {
@@ -145,6 +171,7 @@ public class Wakeup {
 
         if (wakeup.active) {
             wakeup.active = false;
+            invalidateIndex();
             lang.sendEntry(sender, "Player_WakeDeleted", "" + id);
 
         } else {
@@ -220,8 +247,24 @@ public class Wakeup {
         }
     }
 
+    /**
+     * Check if a player can stand here, the chunk has to be loaded.
+     */
     public boolean check() {
-        return (!loc.getBlock().getType().isSolid() && !loc.getBlock().getRelative(0, 1, 0).getType().isSolid());
+        return !loc.getBlock().getType().isSolid() && !loc.getBlock().getRelative(0, 1, 0).getType().isSolid();
+    }
+
+    /**
+     * Check if a player can stand here once the chunk is loaded async.
+     * <p>Checks running at the same time share the chunk load, the blocks are always checked again
+     */
+    public CompletableFuture<Boolean> checkAsync() {
+        CompletableFuture<?> load = chunkLoad;
+        if (load == null || load.isDone()) {
+            load = PaperLib.getChunkAtAsync(loc);
+            chunkLoad = load;
+        }
+        return load.thenApply(chunk -> check());
     }
 
     public static void tpNext() {
@@ -304,11 +347,13 @@ public class Wakeup {
 
     public static void onUnload(World world) {
         wakeups.removeIf(wakeup -> wakeup.loc.getWorld().equals(world));
+        invalidateIndex();
     }
 
     public static void unloadWorlds() {
         List<World> worlds = BreweryPlugin.getInstance().getServer().getWorlds();
         wakeups.removeIf(wakeup -> !worlds.contains(wakeup.loc.getWorld()));
+        invalidateIndex();
     }
 
 }
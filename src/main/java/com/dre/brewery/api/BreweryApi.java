@@ -384,6 +384,7 @@ public class BreweryApi {
             throw new UnsupportedOperationException("SaveForever is not implemented yet");
         }
         BRecipe.getAddedRecipes().add(recipe);
+        BRecipe.invalidateIndex();
         recipe.updateAcceptedLists();
     }
 
@@ -404,6 +405,7 @@ public class BreweryApi {
                     // We removed one of the Config Recipes
                     BRecipe.numConfigRecipes--;
                 }
+                BRecipe.invalidateIndex();
                 return remove;
             }
         }
@@ -451,6 +453,7 @@ public class BreweryApi {
             throw new UnsupportedOperationException();
         }
         BCauldronRecipe.getAddedRecipes().add(recipe);
+        BCauldronRecipe.invalidateIndex();
         recipe.updateAcceptedLists();
     }
 
@@ -472,6 +475,7 @@ public class BreweryApi {
                     // We removed one of the Config Recipes
                     BCauldronRecipe.numConfigRecipes--;
                 }
+                BCauldronRecipe.invalidateIndex();
                 return remove;
             }
         }
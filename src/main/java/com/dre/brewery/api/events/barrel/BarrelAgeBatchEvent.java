@@ -0,0 +1,138 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.api.events.barrel;
+
+import com.dre.brewery.Barrel;
+import com.dre.brewery.Brew;
+import com.dre.brewery.lore.BrewLore;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.HandlerList;
+import org.bukkit.inventory.meta.PotionMeta;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The Brews in a Barrel have been aged and are about to be written back into its inventory.
+ * <p>Called once per Barrel instead of once per Brew, before the {@link com.dre.brewery.api.events.brew.BrewModifyEvent BrewModifyEvent}
+ * of type AGE for each Brew, which is still called if anything listens to it.
+ * <p>Modifications to the Brews or their PotionMeta can be done now.
+ * <p>Cancelling a single Entry keeps that Brew as it was before aging, cancelling the event keeps all of them.
+ */
+public class BarrelAgeBatchEvent extends BarrelEvent implements Cancellable {
+    private static final HandlerList handlers = new HandlerList();
+    private final List<Entry> entries;
+    private boolean isCancelled;
+
+    public BarrelAgeBatchEvent(Barrel barrel, List<Entry> entries) {
+        super(barrel);
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * All aged Brews of this Barrel, in inventory order.
+     */
+    @NotNull
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return isCancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancelled) {
+        isCancelled = cancelled;
+    }
+
+    @NotNull
+    @Override
+    public HandlerList getHandlers() {
+        return handlers;
+    }
+
+    // Required by Bukkit
+    public static HandlerList getHandlerList() {
+        return handlers;
+    }
+
+    /**
+     * @return true if any plugin listens to this event
+     */
+    public static boolean hasListeners() {
+        return handlers.getRegisteredListeners().length > 0;
+    }
+
+    /**
+     * One aged Brew and the slot it is written back to.
+     */
+    public static class Entry {
+        private final int slot;
+        private final Brew brew;
+        private final PotionMeta meta;
+        private boolean cancelled;
+
+        public Entry(int slot, @NotNull Brew brew, @NotNull PotionMeta meta) {
+            this.slot = slot;
+            this.brew = brew;
+            this.meta = meta;
+        }
+
+        /**
+         * The inventory slot of the Brew in the Barrel
+         */
+        public int getSlot() {
+            return slot;
+        }
+
+        @NotNull
+        public Brew getBrew() {
+            return brew;
+        }
+
+        /**
+         * Gets the Meta of the aged Item this Brew is attached to
+         */
+        @NotNull
+        public PotionMeta getItemMeta() {
+            return meta;
+        }
+
+        /**
+         * Get the BrewLore to modify lore on the Brew
+         */
+        @NotNull
+        public BrewLore getLore() {
+            return new BrewLore(brew, meta);
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public void setCancelled(boolean cancelled) {
+            this.cancelled = cancelled;
+        }
+    }
+}
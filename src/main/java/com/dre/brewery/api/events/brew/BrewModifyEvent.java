@@ -88,6 +88,13 @@ public class BrewModifyEvent extends BrewEvent implements Cancellable {
         return handlers;
     }
 
+    /**
+     * @return true if any plugin listens to this event, otherwise it doesn't need to be created at all
+     */
+    public static boolean hasListeners() {
+        return handlers.getRegisteredListeners().length > 0;
+    }
+
     /**
      * The Type of Modification being applied to the Brew.
      */
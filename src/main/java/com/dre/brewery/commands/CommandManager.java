@@ -32,6 +32,7 @@ import com.dre.brewery.commands.subcommands.DrinkCommand;
 import com.dre.brewery.commands.subcommands.HelpCommand;
 import com.dre.brewery.commands.subcommands.InfoCommand;
 import com.dre.brewery.commands.subcommands.ItemName;
+import com.dre.brewery.commands.subcommands.PerfCommand;
 import com.dre.brewery.commands.subcommands.PukeCommand;
 import com.dre.brewery.commands.subcommands.ReloadAddonsCommand;
 import com.dre.brewery.commands.subcommands.ReloadCommand;
@@ -79,6 +80,7 @@ public class CommandManager implements TabExecutor {
         addSubCommand("unLabel", new UnLabelCommand());
         addSubCommand("debuginfo", new DebugInfoCommand());
         addSubCommand("showstats", new ShowStatsCommand());
+        addSubCommand("perf", new PerfCommand());
         addSubCommand("puke", new PukeCommand());
         addSubCommand("drink", new DrinkCommand());
         addSubCommand("reloadaddons", new ReloadAddonsCommand());
@@ -21,16 +21,19 @@
 package com.dre.brewery.commands.subcommands;
 
 import com.dre.brewery.BreweryPlugin;
-import com.dre.brewery.commands.CommandManager;
 import com.dre.brewery.commands.SubCommand;
 import com.dre.brewery.configuration.ConfigManager;
 import com.dre.brewery.configuration.files.Config;
 import com.dre.brewery.configuration.files.Lang;
 import com.dre.brewery.storage.DataManager;
+import com.dre.brewery.storage.DataManagerType;
+import com.dre.brewery.storage.DataMigration;
 import com.dre.brewery.storage.StorageInitException;
+import com.dre.brewery.utility.BUtil;
 import com.dre.brewery.utility.Logging;
 import org.bukkit.command.CommandSender;
 
+import java.util.Arrays;
 import java.util.List;
 
 public class DataManagerCommand implements SubCommand {
@@ -43,26 +46,47 @@ public class DataManagerCommand implements SubCommand {
 
 
         switch (args[1].toLowerCase()) {
-            case "reload" -> BreweryPlugin.getDataManager().exit(true, true, () -> {
-                CommandManager.execute(ReloadCommand.class, sender, label, args);
-                try {
-                    BreweryPlugin.setDataManager(DataManager.createDataManager(ConfigManager.getConfig(Config.class).getStorage()));
-                    Logging.msg(sender, "Reloaded the DataManager!");
-                } catch (StorageInitException e) {
-                    Logging.errorLog("Failed to initialize the DataManager! WARNING: This will cause issues and Brewery will NOT be able to save. Check your config and reload.", e);
-                }
-            });
+            case "reload" -> BreweryPlugin.getDataManager().exit(true, true, () ->
+                // Connect once the configs are reloaded, async again as connecting may block
+                ReloadCommand.reload(breweryPlugin, sender, () -> BreweryPlugin.getScheduler().runTaskAsynchronously(() -> {
+                    try {
+                        BreweryPlugin.setDataManager(DataManager.createDataManager(ConfigManager.getConfig(Config.class).getStorage()));
+                        Logging.msg(sender, "Reloaded the DataManager!");
+                    } catch (StorageInitException e) {
+                        Logging.errorLog("Failed to initialize the DataManager! WARNING: This will cause issues and Brewery will NOT be able to save. Check your config and reload.", e);
+                    }
+                })));
 
             case "save" ->
                 BreweryPlugin.getDataManager().saveAll(true, () -> Logging.msg(sender, "Saved all Brewery data!"));
 
+            case "migrate" -> {
+                if (args.length < 4) {
+                    Logging.msg(sender, "Usage: /" + label + " data migrate <from> <to> [fresh]");
+                    return;
+                }
+                DataManagerType from = BUtil.getEnumByName(DataManagerType.class, args[2]);
+                DataManagerType to = BUtil.getEnumByName(DataManagerType.class, args[3]);
+                if (from == null || to == null) {
+                    Logging.msg(sender, "Unknown storage type, available types: " + Arrays.toString(DataManagerType.values()));
+                    return;
+                }
+                DataMigration.start(sender, from, to, args.length > 4 && args[4].equalsIgnoreCase("fresh"));
+            }
+
             default -> lang.sendEntry(sender, "Error_UnknownCommand");
         }
     }
 
     @Override
     public List<String> tabComplete(BreweryPlugin breweryPlugin, CommandSender sender, String label, String[] args) {
-        return List.of("reload", "save");
+        return switch (args.length) {
+            case 2 -> List.of("reload", "save", "migrate");
+            case 3, 4 -> args[1].equalsIgnoreCase("migrate")
+                ? Arrays.stream(DataManagerType.values()).map(type -> type.name().toLowerCase()).toList() : null;
+            case 5 -> args[1].equalsIgnoreCase("migrate") ? List.of("fresh") : null;
+            default -> null;
+        };
     }
 
     @Override
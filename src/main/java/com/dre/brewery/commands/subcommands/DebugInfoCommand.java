@@ -23,6 +23,7 @@ package com.dre.brewery.commands.subcommands;
 import com.dre.brewery.BIngredients;
 import com.dre.brewery.Brew;
 import com.dre.brewery.BreweryPlugin;
+import com.dre.brewery.ShardedHeartbeat;
 import com.dre.brewery.commands.SubCommand;
 import com.dre.brewery.configuration.files.Lang;
 import com.dre.brewery.recipe.BRecipe;
@@ -44,9 +45,34 @@ public class DebugInfoCommand implements SubCommand {
 
     @Override
     public void execute(BreweryPlugin breweryPlugin, Lang lang, CommandSender sender, String label, String[] args) {
+        if (args.length > 1 && args[1].equalsIgnoreCase("heartbeat")) {
+            heartbeatInfo(sender);
+            return;
+        }
         debugInfo(sender, args.length > 1 ? args[1] : null);
     }
 
+    /**
+     * Timings of the region shards in the last minutely heartbeat, only used on Folia.
+     */
+    public void heartbeatInfo(CommandSender sender) {
+        if (!sender.isOp()) return;
+        List<ShardedHeartbeat.ShardTiming> timings = ShardedHeartbeat.getLastTimings();
+        if (timings.isEmpty()) {
+            Logging.msg(sender, "No region shards were run yet (only used on Folia)");
+            return;
+        }
+        long total = 0;
+        for (ShardedHeartbeat.ShardTiming timing : timings) {
+            total += timing.nanos();
+        }
+        Logging.msg(sender, String.format("Heartbeat: %d region shards, %.3fms total", timings.size(), total / 1_000_000.0));
+        for (ShardedHeartbeat.ShardTiming timing : timings.subList(0, Math.min(10, timings.size()))) {
+            Logging.msg(sender, String.format("%s [%d, %d]: %d cauldrons, %d barrels, %.3fms", timing.worldName(), timing.x(), timing.z(),
+                timing.cauldrons(), timing.barrels(), timing.nanos() / 1_000_000.0));
+        }
+    }
+
     @Override
     public List<String> tabComplete(BreweryPlugin breweryPlugin, CommandSender sender, String label, String[] args) {
         return null;
@@ -74,7 +100,7 @@ public class DebugInfoCommand implements SubCommand {
             BIngredients ingredients = brew.getIngredients();
             if (recipeName == null) {
                 Logging.log("&lIngredients:");
-                for (Ingredient ing : ingredients.getIngredientList()) {
+                for (Ingredient ing : ingredients.getIngredientView()) {
                     Logging.log(ing.toString());
                 }
                 Logging.log("&lTesting Recipes");
@@ -96,7 +122,7 @@ public class DebugInfoCommand implements SubCommand {
                     Logging.log(ri.toString());
                 }
                 Logging.log("&lIngredients in Brew:");
-                for (Ingredient ingredient : ingredients.getIngredientList()) {
+                for (Ingredient ingredient : ingredients.getIngredientView()) {
                     int amountInRecipe = recipe.amountOf(ingredient);
                     Logging.log(ingredient.toString() + ": " + amountInRecipe + " of this are in the Recipe");
                 }
@@ -0,0 +1,87 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.commands.subcommands;
+
+import com.dre.brewery.BreweryPlugin;
+import com.dre.brewery.commands.SubCommand;
+import com.dre.brewery.configuration.files.Lang;
+import com.dre.brewery.utility.Logging;
+import com.dre.brewery.utility.perf.PerfExporter;
+import com.dre.brewery.utility.perf.PerfMetrics;
+import org.bukkit.command.CommandSender;
+
+import java.io.IOException;
+import java.util.List;
+
+public class PerfCommand implements SubCommand {
+
+    @Override
+    public void execute(BreweryPlugin breweryPlugin, Lang lang, CommandSender sender, String label, String[] args) {
+        if (args.length > 1 && args[1].equalsIgnoreCase("export")) {
+            BreweryPlugin.getScheduler().runTaskAsynchronously(() -> {
+                try {
+                    new PerfExporter(breweryPlugin.getDataFolder()).export();
+                    Logging.msg(sender, "Metrics written to metrics/" + PerfExporter.FILE_NAME);
+                } catch (IOException e) {
+                    Logging.errorLog("Could not write the metrics", e);
+                }
+            });
+            return;
+        }
+        String filter = args.length > 1 ? args[1].toLowerCase() : null;
+
+        for (PerfMetrics.Metric metric : PerfMetrics.getMetrics()) {
+            String name = metric.getName() + metric.getLabelString();
+            if (filter != null && !name.contains(filter)) {
+                continue;
+            }
+            if (metric instanceof PerfMetrics.Counter counter) {
+                Logging.msg(sender, String.format("%s: &a%d &7(+%d last minute)", name, counter.get(), counter.getPerMinute()));
+            } else if (metric instanceof PerfMetrics.Timer timer) {
+                if (timer.getCount() == 0) {
+                    continue;
+                }
+                Logging.msg(sender, String.format("%s: &a%d &7times, last %.3fms, avg %.3fms, p95 %.3fms, max %.3fms", name,
+                    timer.getCount(), timer.getLastMillis(), timer.getAverageMillis(), timer.getPercentileMillis(0.95), timer.getMaxMillis()));
+            } else if (metric instanceof PerfMetrics.Gauge gauge) {
+                Logging.msg(sender, String.format("%s: &a%.0f", name, gauge.get()));
+            }
+        }
+    }
+
+    @Override
+    public List<String> tabComplete(BreweryPlugin breweryPlugin, CommandSender sender, String label, String[] args) {
+        if (args.length == 2) {
+            return List.of("export");
+        }
+        return null;
+    }
+
+    @Override
+    public String permission() {
+        return "brewery.cmd.perf";
+    }
+
+    @Override
+    public boolean playerOnly() {
+        return false;
+    }
+}
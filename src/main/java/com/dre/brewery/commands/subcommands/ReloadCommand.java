@@ -23,53 +23,90 @@ package com.dre.brewery.commands.subcommands;
 import com.dre.brewery.BCauldron;
 import com.dre.brewery.BSealer;
 import com.dre.brewery.Brew;
+import com.dre.brewery.BrewReencoder;
 import com.dre.brewery.BreweryPlugin;
 import com.dre.brewery.commands.CommandUtil;
 import com.dre.brewery.commands.SubCommand;
+import com.dre.brewery.configuration.AbstractOkaeriConfigFile;
 import com.dre.brewery.configuration.ConfigManager;
-import com.dre.brewery.configuration.configurer.TranslationManager;
+import com.dre.brewery.configuration.StagedReload;
 import com.dre.brewery.configuration.files.Lang;
+import com.dre.brewery.integration.BarrelAccessCache;
 import com.dre.brewery.utility.Logging;
 import com.dre.brewery.utility.releases.ReleaseChecker;
 import lombok.Getter;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.ConsoleCommandSender;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ReloadCommand implements SubCommand {
 
     @Getter
     private static CommandSender reloader;
+    private static final AtomicBoolean reloading = new AtomicBoolean();
 
     @Override
     public void execute(BreweryPlugin breweryPlugin, Lang lang, CommandSender sender, String label, String[] args) {
+        reload(breweryPlugin, sender, null);
+    }
+
+    /**
+     * Reload all config files and recipes.
+     * <p>The files are read and parsed async, then everything is swapped in at once on the main thread.
+     *
+     * @param callback Run on the main thread once the reload is done, even if it failed or another reload was running
+     */
+    public static void reload(BreweryPlugin breweryPlugin, CommandSender sender, @Nullable Runnable callback) {
+        if (!reloading.compareAndSet(false, true)) {
+            Logging.msg(sender, "Brewery is already reloading, please wait.");
+            if (callback != null) {
+                callback.run();
+            }
+            return;
+        }
         if (!sender.equals(Bukkit.getConsoleSender())) {
             reloader = sender;
         }
 
-
-        try {
-            // Reload translation manager
-            TranslationManager.newInstance(breweryPlugin.getDataFolder());
-            TranslationManager.getInstance().updateTranslationFiles();
-
-            // Reload each config
-            for (var file : ConfigManager.LOADED_CONFIGS.values()) {
+        // Collected here, LOADED_CONFIGS is only changed on the main thread
+        List<Class<? extends AbstractOkaeriConfigFile>> configClasses = List.copyOf(ConfigManager.LOADED_CONFIGS.keySet());
+        BreweryPlugin.getScheduler().runTaskAsynchronously(() -> {
+            StagedReload staged = null;
+            try {
+                staged = StagedReload.prepare(breweryPlugin.getDataFolder(), configClasses);
+            } catch (Throwable e) {
+                Logging.errorLog("Something went wrong trying to reload Brewery!", e);
+            }
+            StagedReload prepared = staged;
+            BreweryPlugin.getScheduler().runTask(() -> {
                 try {
-                    file.reload();
-                } catch (Throwable e) {
-                    Logging.errorLog("Something went wrong trying to load " + file.getBindFile().getFileName() + "!", e);
+                    if (prepared != null) {
+                        apply(prepared, sender);
+                    }
+                } finally {
+                    // Make sure this reloader is set to null after
+                    reloader = null;
+                    reloading.set(false);
+                    if (callback != null) {
+                        callback.run();
+                    }
                 }
-            }
+            });
+        });
+    }
+
+    private static void apply(StagedReload staged, CommandSender sender) {
+        try {
+            staged.apply();
+            Lang lang = ConfigManager.getConfig(Lang.class);
 
-            // Reload Cauldron Ingredients
-            ConfigManager.loadCauldronIngredients();
-            // Reload Recipes
-            ConfigManager.loadRecipes();
             // Reload Seed
             ConfigManager.loadSeed();
+            BrewReencoder.startIfNeeded();
 
             // Reload Cauldron Particle Recipes
             BCauldron.reload();
@@ -80,6 +117,9 @@ public class ReloadCommand implements SubCommand {
             // Sealing table recipe
             BSealer.registerRecipe();
 
+            // Protection settings may have changed
+            BarrelAccessCache.invalidateAll();
+
             // Let addons know this command was executed
             BreweryPlugin.getAddonManager().reloadAddons();
 
@@ -108,8 +148,6 @@ public class ReloadCommand implements SubCommand {
         } catch (Throwable e) {
             Logging.errorLog("Something went wrong trying to reload Brewery!", e);
         }
-        // Make sure this reloader is set to null after
-        reloader = null;
     }
 
     @Override
@@ -27,6 +27,7 @@ import com.dre.brewery.BreweryPlugin;
 import com.dre.brewery.Wakeup;
 import com.dre.brewery.commands.SubCommand;
 import com.dre.brewery.configuration.files.Lang;
+import com.dre.brewery.integration.BarrelAccessCache;
 import com.dre.brewery.recipe.BRecipe;
 import com.dre.brewery.utility.Logging;
 import org.bukkit.command.CommandSender;
@@ -44,6 +45,14 @@ public class ShowStatsCommand implements SubCommand {
         Logging.msg(sender, "Cauldrons boiling: " + BCauldron.bcauldrons.size());
         Logging.msg(sender, "Number of Recipes: " + BRecipe.getAllRecipes().size());
         Logging.msg(sender, "Wakeups: " + Wakeup.wakeups.size());
+        for (var entry : BarrelAccessCache.getTimings().entrySet()) {
+            BarrelAccessCache.Timing timing = entry.getValue();
+            if (timing.getCalls() == 0 && timing.getCached() == 0) {
+                continue;
+            }
+            Logging.msg(sender, String.format("Barrel access %s: %d checks (avg %.3fms, max %.3fms), %d cached",
+                entry.getKey(), timing.getCalls(), timing.getAverageMillis(), timing.getMaxMillis(), timing.getCached()));
+        }
     }
 
     @Override
@@ -31,6 +31,7 @@ import com.dre.brewery.configuration.files.Lang;
 import com.dre.brewery.recipe.BCauldronRecipe;
 import com.dre.brewery.recipe.BRecipe;
 import com.dre.brewery.recipe.RecipeItem;
+import com.dre.brewery.recipe.SimulationMatrix;
 import com.dre.brewery.utility.BUtil;
 import com.dre.brewery.utility.Logging;
 import lombok.AllArgsConstructor;
@@ -44,18 +45,26 @@ import org.bukkit.inventory.meta.PotionMeta;
 import org.bukkit.util.StringUtil;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
 public class SimulateCommand implements SubCommand {
 
+    private static final AtomicBoolean matrixRunning = new AtomicBoolean(false);
+
     @Override
     public void execute(BreweryPlugin breweryPlugin, Lang lang, CommandSender sender, String label, String[] args) {
         List<String> arguments = BUtil.splitStringKeepingQuotes(String.join(" ", args));
+        if (arguments.size() > 1 && arguments.get(1).equalsIgnoreCase("matrix")) {
+            simulateMatrix(breweryPlugin, lang, sender, arguments);
+            return;
+        }
 
         SimulationParser parser = new SimulationParser();
         for (int i = 1; i <= arguments.size(); i++) {
@@ -91,6 +100,90 @@ public class SimulateCommand implements SubCommand {
         lang.sendEntry(sender, "Help_Simulate_Age");
         lang.sendEntry(sender, "Help_Simulate_Brewer");
         lang.sendEntry(sender, "Help_Simulate_Player");
+        lang.sendEntry(sender, "Help_Simulate_Matrix");
+    }
+
+    /**
+     * /brew simulate matrix &lt;Recipe|all&gt; [Ingredient Deviation]
+     * <p>Sweeps a grid around the recipes on its own thread pool and writes the results into the simulations folder
+     */
+    private static void simulateMatrix(BreweryPlugin plugin, Lang lang, CommandSender sender, List<String> arguments) {
+        if (arguments.size() < 3) {
+            lang.sendEntry(sender, "Etc_Usage");
+            lang.sendEntry(sender, "Help_Simulate_Matrix");
+            return;
+        }
+        List<BRecipe> targets;
+        String target = arguments.get(2);
+        if (target.equalsIgnoreCase("all")) {
+            targets = List.copyOf(BRecipe.getAllRecipes());
+        } else {
+            BRecipe recipe = BRecipe.getMatching(target);
+            if (recipe == null) {
+                lang.sendEntry(sender, "Error_NoBrewName", target);
+                return;
+            }
+            targets = List.of(recipe);
+        }
+        SimulationMatrix.Grid grid = SimulationMatrix.Grid.DEFAULT;
+        if (arguments.size() > 3) {
+            int deviation = BUtil.parseInt(arguments.get(3)).orElse(-1);
+            if (deviation < 0 || deviation > SimulationMatrix.MAX_INGREDIENT_DEVIATION) {
+                lang.sendEntry(sender, "CMD_Invalid_Option", arguments.get(3));
+                return;
+            }
+            grid = new SimulationMatrix.Grid(deviation, grid.cookSteps(), grid.ageSteps());
+        }
+
+        File folder = new File(plugin.getDataFolder(), "simulations");
+        String name = (targets.size() == 1 ? targets.get(0).getRecipeName() : "all").replaceAll("[^A-Za-z0-9_-]", "_");
+        File output = new File(folder, name + "-" + System.currentTimeMillis() + ".csv");
+        SimulationMatrix matrix;
+        try {
+            matrix = new SimulationMatrix(targets, grid, output);
+        } catch (ArithmeticException e) {
+            Logging.errorLog("Simulation grid is too large", e);
+            lang.sendEntry(sender, "CMD_Simulate_Matrix_Failed");
+            return;
+        }
+        if (matrix.getTotalCombinations() > SimulationMatrix.MAX_COMBINATIONS) {
+            lang.sendEntry(sender, "CMD_Simulate_Matrix_TooLarge", matrix.getTotalCombinations(), SimulationMatrix.MAX_COMBINATIONS);
+            return;
+        }
+
+        if (!matrixRunning.compareAndSet(false, true)) {
+            lang.sendEntry(sender, "CMD_Simulate_Matrix_Running");
+            return;
+        }
+        if (!folder.exists() && !folder.mkdirs()) {
+            matrixRunning.set(false);
+            lang.sendEntry(sender, "CMD_Simulate_Matrix_Failed");
+            return;
+        }
+        lang.sendEntry(sender, "CMD_Simulate_Matrix_Started", matrix.getTotalCombinations(), targets.size(), output.getName());
+        long start = System.currentTimeMillis();
+        matrix.run(percent -> sendFromWorker(plugin, lang, sender, "CMD_Simulate_Matrix_Progress", percent))
+            .whenComplete((collisions, throwable) -> {
+                matrixRunning.set(false);
+                if (throwable != null) {
+                    Logging.errorLog("Recipe simulation failed", throwable);
+                    sendFromWorker(plugin, lang, sender, "CMD_Simulate_Matrix_Failed");
+                } else {
+                    sendFromWorker(plugin, lang, sender, "CMD_Simulate_Matrix_Finished", (System.currentTimeMillis() - start) / 1000, collisions);
+                }
+            });
+    }
+
+    // The simulation reports from its own threads, messages are sent from the players or the main thread
+    private static void sendFromWorker(BreweryPlugin plugin, Lang lang, CommandSender sender, String key, Object... args) {
+        if (!plugin.isEnabled()) {
+            return;
+        }
+        if (sender instanceof Player player) {
+            BreweryPlugin.getScheduler().runTask(player, () -> lang.sendEntry(player, key, args));
+        } else {
+            BreweryPlugin.getScheduler().runTask(() -> lang.sendEntry(sender, key, args));
+        }
     }
 
     private static void simulate(Lang lang, CommandSender sender, SimulationParameters simulation) {
@@ -161,6 +254,22 @@ public class SimulateCommand implements SubCommand {
     @Override
     public List<String> tabComplete(BreweryPlugin breweryPlugin, CommandSender sender, String label, String[] args) {
         List<String> arguments = BUtil.splitStringKeepingQuotes(String.join(" ", args));
+        if (args.length == 2) {
+            List<String> completions = new ArrayList<>(List.of("matrix"));
+            List<String> parserCompletions = tabComplete(new SimulationParser(), args[1]);
+            if (parserCompletions != null) {
+                completions.addAll(parserCompletions);
+            }
+            return StringUtil.copyPartialMatches(args[1], completions, new ArrayList<>());
+        }
+        if (args[1].equalsIgnoreCase("matrix")) {
+            if (args.length == 3) {
+                List<String> recipes = new ArrayList<>(List.of("all"));
+                recipes.addAll(getRecipeCompletions());
+                return StringUtil.copyPartialMatches(args[2], recipes, new ArrayList<>());
+            }
+            return List.of();
+        }
 
         SimulationParser parser = new SimulationParser();
         for (int i = 1; i <= arguments.size(); i++) {
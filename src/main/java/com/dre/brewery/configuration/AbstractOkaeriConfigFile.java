@@ -54,6 +54,16 @@ public abstract class AbstractOkaeriConfigFile extends OkaeriConfig {
         this.load(update);
     }
 
+    /**
+     * Copy all values of another instance of this config into this one, keeping this instance registered.
+     *
+     * @param staged A detached instance of the same config class, loaded from the current file
+     */
+    public void applyFrom(AbstractOkaeriConfigFile staged) {
+        this.setBindFile(staged.getBindFile());
+        this.load(staged);
+    }
+
     public boolean bindFileExists(boolean createIfNotExist) throws IOException {
         if (this.blankInstance) { // Don't create if this is a placeholder instance
             return false;
@@ -170,6 +170,28 @@ public class ConfigHead {
      * @return The new config instance
      */
     public <T extends AbstractOkaeriConfigFile> T createConfig(Class<T> configClass, Path file, Configurer configurer, OkaeriSerdesPack serdesPack, boolean update, boolean removeOrphans) {
+        T instance = loadInstance(configClass, file, configurer, serdesPack, update, removeOrphans);
+        LOADED_CONFIGS.put(configClass, instance);
+        return instance;
+    }
+
+    /**
+     * Load a new config instance using a config class' annotation without putting it in the LOADED_CONFIGS map.
+     * <p>Used to parse config files off the main thread, the loaded values can then be copied
+     * into the registered instance with {@link AbstractOkaeriConfigFile#applyFrom}
+     *
+     * @param configClass The class of the config to load
+     * @param <T>         The type of the config
+     * @return The new, unregistered config instance
+     */
+    public <T extends AbstractOkaeriConfigFile> T loadDetached(Class<T> configClass) {
+        OkaeriConfigFileOptions options = getOkaeriConfigFileOptions(configClass);
+        Configurer configurer = this.getConfigurer(options.configurer());
+
+        return loadInstance(configClass, getFilePath(configClass), configurer, new StandardSerdes(), options.update(), options.removeOrphans());
+    }
+
+    private <T extends AbstractOkaeriConfigFile> T loadInstance(Class<T> configClass, Path file, Configurer configurer, OkaeriSerdesPack serdesPack, boolean update, boolean removeOrphans) {
         boolean firstCreation = !Files.exists(file);
 
         T instance = eu.okaeri.configs.ConfigManager.create(configClass, (it) -> {
@@ -182,7 +204,6 @@ public class ConfigHead {
 
         instance.setUpdate(update);
         instance.setFirstCreation(firstCreation);
-        LOADED_CONFIGS.put(configClass, instance);
         return instance;
     }
 
@@ -25,8 +25,8 @@ import com.dre.brewery.DistortChat;
 import com.dre.brewery.configuration.annotation.OkaeriConfigFileOptions;
 import com.dre.brewery.configuration.files.CauldronFile;
 import com.dre.brewery.configuration.files.Config;
+import com.dre.brewery.configuration.files.CustomItemsFile;
 import com.dre.brewery.configuration.files.RecipesFile;
-import com.dre.brewery.configuration.sector.capsule.ConfigDistortWord;
 import com.dre.brewery.integration.Hook;
 import com.dre.brewery.integration.item.BreweryPluginItem;
 import com.dre.brewery.integration.item.ItemsAdderPluginItem;
@@ -37,12 +37,14 @@ import com.dre.brewery.integration.item.SlimefunPluginItem;
 import com.dre.brewery.recipe.BCauldronRecipe;
 import com.dre.brewery.recipe.BRecipe;
 import com.dre.brewery.recipe.PluginItem;
+import com.dre.brewery.recipe.RecipeItem;
 import com.dre.brewery.utility.Logging;
 import eu.okaeri.configs.configurer.Configurer;
 import eu.okaeri.configs.serdes.OkaeriSerdesPack;
 import org.jetbrains.annotations.Nullable;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -86,6 +88,18 @@ public class ConfigManager {
     }
 
 
+    /**
+     * Load a new config instance without putting it in the LOADED_CONFIGS map
+     *
+     * @param configClass The class of the config to load
+     * @param <T>         The type of the config
+     * @return The new, unregistered config instance
+     */
+    public static <T extends AbstractOkaeriConfigFile> T loadDetached(Class<T> configClass) {
+        return INSTANCE.loadDetached(configClass);
+    }
+
+
     /**
      * Create a new config instance with a custom file name, configurer, serdes pack, and puts it in the LOADED_CONFIGS map
      *
@@ -133,38 +147,49 @@ public class ConfigManager {
 
     public static void loadRecipes() {
         // loading recipes
-        List<BRecipe> configRecipes = BRecipe.getConfigRecipes();
-        configRecipes.clear();
+        BRecipe.swapConfigRecipes(parseRecipes(getConfig(RecipesFile.class), BRecipe.loadCustomItems(getConfig(CustomItemsFile.class))));
+    }
 
-        for (var recipeEntry : getConfig(RecipesFile.class).getRecipes().entrySet()) {
-            BRecipe recipe = BRecipe.fromConfig(recipeEntry.getKey(), recipeEntry.getValue());
+    /**
+     * Parse all recipes of the recipes file, without touching the loaded recipes
+     */
+    public static List<BRecipe> parseRecipes(RecipesFile recipesFile, List<RecipeItem> customItems) {
+        List<BRecipe> configRecipes = new ArrayList<>();
+        for (var recipeEntry : recipesFile.getRecipes().entrySet()) {
+            BRecipe recipe = BRecipe.fromConfig(recipeEntry.getKey(), recipeEntry.getValue(), customItems);
             if (recipe != null && recipe.isValid()) {
                 configRecipes.add(recipe);
             } else {
                 Logging.errorLog("Loading the Recipe with id: '" + recipeEntry.getKey() + "' failed!");
             }
-
-            BRecipe.setNumConfigRecipes(configRecipes.size());
         }
+        return configRecipes;
     }
 
 
     public static void loadCauldronIngredients() {
         // Loading Cauldron Recipes
+        BCauldronRecipe.swapConfigRecipes(parseCauldronRecipes(getConfig(CauldronFile.class), BRecipe.loadCustomItems(getConfig(CustomItemsFile.class))));
+        updateAddedAcceptedLists();
+    }
 
-        List<BCauldronRecipe> configRecipes = BCauldronRecipe.getConfigRecipes();
-        configRecipes.clear();
-
-        for (var cauldronEntry : getConfig(CauldronFile.class).getCauldronIngredients().entrySet()) {
-            BCauldronRecipe recipe = BCauldronRecipe.fromConfig(cauldronEntry.getKey(), cauldronEntry.getValue());
+    /**
+     * Parse all Cauldron-Recipes of the cauldron file, without touching the loaded Cauldron-Recipes
+     */
+    public static List<BCauldronRecipe> parseCauldronRecipes(CauldronFile cauldronFile, List<RecipeItem> customItems) {
+        List<BCauldronRecipe> configRecipes = new ArrayList<>();
+        for (var cauldronEntry : cauldronFile.getCauldronIngredients().entrySet()) {
+            BCauldronRecipe recipe = BCauldronRecipe.fromConfig(cauldronEntry.getKey(), cauldronEntry.getValue(), customItems);
             if (recipe != null) {
                 configRecipes.add(recipe);
             } else {
                 Logging.errorLog("Loading the Cauldron-Recipe with id: '" + cauldronEntry.getKey() + "' failed!");
             }
         }
-        BCauldronRecipe.setNumConfigRecipes(configRecipes.size());
+        return configRecipes;
+    }
 
+    public static void updateAddedAcceptedLists() {
         // Recalculating Cauldron-Accepted Items for non-config recipes
         for (BRecipe recipe : BRecipe.getAddedRecipes()) {
             recipe.updateAcceptedLists();
@@ -176,17 +201,7 @@ public class ConfigManager {
 
     public static void loadDistortWords() {
         // Loading Words
-        Config config = getConfig(Config.class);
-
-        if (config.isEnableChatDistortion()) {
-            for (ConfigDistortWord distortWord : config.getWords()) {
-                new DistortChat(distortWord);
-            }
-            for (String bypass : config.getDistortBypass()) {
-                DistortChat.getIgnoreText().add(bypass.split(","));
-            }
-            DistortChat.getCommands().addAll(config.getDistortCommands());
-        }
+        DistortChat.apply(DistortChat.load(getConfig(Config.class)));
     }
 
     public static void loadSeed() {
@@ -0,0 +1,120 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.configuration;
+
+import com.dre.brewery.DistortChat;
+import com.dre.brewery.configuration.configurer.TranslationManager;
+import com.dre.brewery.configuration.files.CauldronFile;
+import com.dre.brewery.configuration.files.Config;
+import com.dre.brewery.configuration.files.CustomItemsFile;
+import com.dre.brewery.configuration.files.RecipesFile;
+import com.dre.brewery.recipe.BCauldronRecipe;
+import com.dre.brewery.recipe.BRecipe;
+import com.dre.brewery.recipe.RecipeItem;
+import com.dre.brewery.utility.Logging;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reloads the config files in two stages.
+ * <p>{@link #prepare} reads and parses all files into detached instances, a new TranslationManager and new recipe lists,
+ * and can run off the main thread.
+ * <br>{@link #apply} then swaps everything in at once on the main thread,
+ * so nothing ever sees a half filled list of recipes.
+ */
+public final class StagedReload {
+
+    private final TranslationManager translations;
+    private final Map<Class<? extends AbstractOkaeriConfigFile>, AbstractOkaeriConfigFile> configs;
+    private final List<BRecipe> recipes;
+    private final List<BCauldronRecipe> cauldronRecipes;
+    private final DistortChat.Settings distortSettings;
+
+    private StagedReload(TranslationManager translations, Map<Class<? extends AbstractOkaeriConfigFile>, AbstractOkaeriConfigFile> configs) {
+        this.translations = translations;
+        this.configs = configs;
+        List<RecipeItem> customItems = BRecipe.loadCustomItems(staged(CustomItemsFile.class));
+        this.cauldronRecipes = ConfigManager.parseCauldronRecipes(staged(CauldronFile.class), customItems);
+        this.recipes = ConfigManager.parseRecipes(staged(RecipesFile.class), customItems);
+        this.distortSettings = DistortChat.load(staged(Config.class));
+    }
+
+    /**
+     * Load all given config files and parse the recipes from them, without changing anything that is currently loaded.
+     * <p>A file that fails to load is logged and keeps its current values.
+     *
+     * @param dataFolder    The data folder of the plugin
+     * @param configClasses The config classes to reload, collected on the main thread
+     */
+    public static StagedReload prepare(File dataFolder, Collection<Class<? extends AbstractOkaeriConfigFile>> configClasses) {
+        // New translation manager, only used by this thread until it is installed
+        TranslationManager translations = TranslationManager.createDetached(dataFolder);
+        return TranslationManager.withStaged(translations, () -> {
+            translations.updateTranslationFiles();
+
+            Map<Class<? extends AbstractOkaeriConfigFile>, AbstractOkaeriConfigFile> configs = new HashMap<>();
+            for (Class<? extends AbstractOkaeriConfigFile> configClass : configClasses) {
+                try {
+                    configs.put(configClass, ConfigManager.loadDetached(configClass));
+                } catch (Throwable e) {
+                    Logging.errorLog("Something went wrong trying to load " + ConfigManager.getFilePath(configClass).getFileName() + "!", e);
+                }
+            }
+            return new StagedReload(translations, configs);
+        });
+    }
+
+    private <T extends AbstractOkaeriConfigFile> T staged(Class<T> configClass) {
+        AbstractOkaeriConfigFile staged = configs.get(configClass);
+        return staged != null ? configClass.cast(staged) : ConfigManager.getConfig(configClass);
+    }
+
+    /**
+     * Install the new translations, copy the loaded values into the registered config instances
+     * and swap in the new recipes along with their accepted items.
+     * <p>Has to be called on the main thread.
+     */
+    public void apply() {
+        TranslationManager.install(translations);
+        for (var entry : configs.entrySet()) {
+            AbstractOkaeriConfigFile live = ConfigManager.LOADED_CONFIGS.get(entry.getKey());
+            if (live == null || live.isBlankInstance()) {
+                // Nothing is holding on to a placeholder, just replace it
+                ConfigManager.LOADED_CONFIGS.put(entry.getKey(), entry.getValue());
+            } else {
+                try {
+                    live.applyFrom(entry.getValue());
+                } catch (Throwable e) {
+                    Logging.errorLog("Something went wrong trying to apply " + live.getBindFile().getFileName() + "!", e);
+                }
+            }
+        }
+
+        BCauldronRecipe.swapConfigRecipes(cauldronRecipes);
+        BRecipe.swapConfigRecipes(recipes);
+        ConfigManager.updateAddedAcceptedLists();
+        DistortChat.apply(distortSettings);
+    }
+}
@@ -36,13 +36,16 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @Getter
 public class TranslationManager {
 
     @Getter
     private static final Translation fallbackTranslation = Translation.EN;
-    private static TranslationManager singleton;
+    private static volatile TranslationManager singleton;
+    // Instance of a staged reload, only seen by the thread preparing it until it is installed
+    private static final ThreadLocal<TranslationManager> staged = new ThreadLocal<>();
 
 
     private Translation activeTranslation;
@@ -173,7 +176,43 @@ public class TranslationManager {
         singleton = new TranslationManager(dataFolder);
     }
 
+    /**
+     * A new instance for the current config, without replacing the one in use.
+     */
+    public static TranslationManager createDetached(File dataFolder) {
+        return new TranslationManager(dataFolder);
+    }
+
+    /**
+     * Run the action with getInstance() returning the given instance on this thread only.
+     * <p>Used to load configs for a staged reload with the new translations, until they are installed.
+     */
+    public static <T> T withStaged(TranslationManager manager, Supplier<T> action) {
+        TranslationManager previous = staged.get();
+        staged.set(manager);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                staged.set(previous);
+            } else {
+                staged.remove();
+            }
+        }
+    }
+
+    /**
+     * Replace the instance in use, i.e. with the one of a staged reload.
+     */
+    public static void install(TranslationManager manager) {
+        singleton = manager;
+    }
+
     public static TranslationManager getInstance() {
+        TranslationManager stagedManager = staged.get();
+        if (stagedManager != null) {
+            return stagedManager;
+        }
         if (singleton == null) {
             singleton = new TranslationManager(BreweryPlugin.getInstance().getDataFolder());
         }
@@ -20,6 +20,7 @@
 
 package com.dre.brewery.configuration.files;
 
+import com.dre.brewery.PukeEngine;
 import com.dre.brewery.configuration.AbstractOkaeriConfigFile;
 import com.dre.brewery.configuration.annotation.DefaultCommentSpace;
 import com.dre.brewery.configuration.annotation.Footer;
@@ -77,6 +78,9 @@ public class Config extends AbstractOkaeriConfigFile {
     @LocalizedComment("config.debug")
     private boolean debug = false;
 
+    @LocalizedComment("config.metricsExportInterval")
+    private int metricsExportInterval = 0;
+
 
     @LocalizedComment("config.storage.header")
     private ConfiguredDataManager storage = ConfiguredDataManager.builder()
@@ -117,6 +121,12 @@ public class Config extends AbstractOkaeriConfigFile {
     @LocalizedComment("config.pukeDespawntime")
     private int pukeDespawntime = 60;
 
+    @LocalizedComment("config.pukeMode")
+    private PukeEngine.Mode pukeMode = PukeEngine.Mode.ITEM;
+
+    @LocalizedComment("config.pukeItemLimit")
+    private int pukeItemLimit = 200;
+
     @LocalizedComment("config.stumblePercent")
     private int stumblePercent = 100;
 
@@ -188,6 +198,9 @@ public class Config extends AbstractOkaeriConfigFile {
     private boolean useBlockLocker = true;
     private boolean useGMInventories = true;
 
+    @LocalizedComment("config.barrelAccessCacheMillis")
+    private long barrelAccessCacheMillis = 3000;
+
     @LocalizedComment("config.useVirtualChestPerms")
     private boolean useVirtualChestPerms = false;
 
@@ -72,6 +72,12 @@ public class Lang extends AbstractOkaeriConfigFile {
         this.mapStrings();
     }
 
+    @Override
+    public void applyFrom(AbstractOkaeriConfigFile staged) {
+        super.applyFrom(staged);
+        this.mapStrings();
+    }
+
     public void updateMissingValuesFrom(@Nullable Lang other) {
         if (other == null) {
             return;
@@ -289,6 +295,18 @@ public class Lang extends AbstractOkaeriConfigFile {
     private String cmdDistillRuined;
     @CustomKey("CMD_Age_Ruined")
     private String cmdAgeRuined;
+    @CustomKey("CMD_Simulate_Matrix_Started")
+    private String cmdSimulateMatrixStarted;
+    @CustomKey("CMD_Simulate_Matrix_Progress")
+    private String cmdSimulateMatrixProgress;
+    @CustomKey("CMD_Simulate_Matrix_Finished")
+    private String cmdSimulateMatrixFinished;
+    @CustomKey("CMD_Simulate_Matrix_Running")
+    private String cmdSimulateMatrixRunning;
+    @CustomKey("CMD_Simulate_Matrix_Failed")
+    private String cmdSimulateMatrixFailed;
+    @CustomKey("CMD_Simulate_Matrix_TooLarge")
+    private String cmdSimulateMatrixTooLarge;
 
 
     @Comment("Brew Defects")
@@ -337,6 +355,8 @@ public class Lang extends AbstractOkaeriConfigFile {
     private String errorAlreadyUnlabeled;
     @CustomKey("Error_NoBarrelAccess")
     private String errorNoBarrelAccess;
+    @CustomKey("Error_BarrelItemsUnreadable")
+    private String errorBarrelItemsUnreadable;
     @CustomKey("Error_NoBrewName")
     private String errorNoBrewName;
     @CustomKey("Error_NoPermissions")
@@ -401,6 +421,8 @@ public class Lang extends AbstractOkaeriConfigFile {
     private String helpSimulateBrewer;
     @CustomKey("Help_Simulate_Player")
     private String helpSimulatePlayer;
+    @CustomKey("Help_Simulate_Matrix")
+    private String helpSimulateMatrix;
     @CustomKey("Help_Distill")
     private String helpDistill;
     @CustomKey("Help_Age")
@@ -0,0 +1,182 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.integration;
+
+import com.dre.brewery.Barrel;
+import com.dre.brewery.utility.perf.PerfMetrics;
+import org.bukkit.GameMode;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Short lived cache of the Barrel access decisions of the protection plugin hooks.
+ * <p>Players spam-clicking barrels would otherwise query every protection plugin on each click.
+ * Also keeps latency counters per hook, shown in /brew showstats
+ */
+public final class BarrelAccessCache {
+
+    public enum Check {
+        WORLDGUARD, GAMEMODEINVENTORIES, GRIEFPREVENTION, LWC, TOWNY, LANDS, BLOCKLOCKER
+    }
+
+    // Hooks like BlockLocker, LWC and GriefPrevention decide by the clicked block, not the whole barrel
+    private record Key(UUID player, UUID barrel, int x, int y, int z, GameMode gameMode, Check check) {
+    }
+
+    private record Decision(boolean allowed, long expires) {
+    }
+
+    private static final Map<Key, Decision> decisions = new ConcurrentHashMap<>();
+    private static final Map<Check, Timing> timings = new EnumMap<>(Check.class);
+
+    static {
+        for (Check check : Check.values()) {
+            Timing timing = new Timing();
+            timings.put(check, timing);
+            String hook = check.name().toLowerCase(Locale.ROOT);
+            PerfMetrics.counter("brewery_barrel_access_checks_total", "Barrel access checks per protection hook, cached or asked",
+                timing::getCached, "hook", hook, "result", "cached");
+            PerfMetrics.counter("brewery_barrel_access_checks_total", "Barrel access checks per protection hook, cached or asked",
+                timing::getCalls, "hook", hook, "result", "asked");
+        }
+    }
+
+    private BarrelAccessCache() {
+    }
+
+    /**
+     * Get the cached decision of this hook, or ask the hook and cache its answer.
+     * <p>If the hook throws, nothing is cached
+     *
+     * @param check     The hook that is checked
+     * @param player    The Player opening the Barrel
+     * @param barrel    The Barrel that is opened
+     * @param clicked   The Block of the Barrel that was clicked, null for the spigot
+     * @param ttlMillis How long the decision is cached, 0 to not cache
+     * @param hook      Asks the hook if the player may open the barrel
+     * @return true if the player may open the barrel
+     */
+    public static boolean check(Check check, Player player, Barrel barrel, @Nullable Block clicked, long ttlMillis, BooleanSupplier hook) {
+        Timing timing = timings.get(check);
+        Key key = null;
+        long now = System.currentTimeMillis();
+        if (ttlMillis > 0) {
+            Block block = clicked != null ? clicked : barrel.getSpigot();
+            key = new Key(player.getUniqueId(), barrel.getId(), block.getX(), block.getY(), block.getZ(), player.getGameMode(), check);
+            Decision decision = decisions.get(key);
+            if (decision != null && decision.expires > now) {
+                timing.cached.increment();
+                return decision.allowed;
+            }
+        }
+
+        long start = System.nanoTime();
+        boolean allowed = hook.getAsBoolean();
+        timing.record(System.nanoTime() - start);
+
+        if (key != null) {
+            decisions.put(key, new Decision(allowed, now + ttlMillis));
+        }
+        return allowed;
+    }
+
+    /**
+     * Forget all decisions for this Player, i.e. when changing world or leaving.
+     */
+    public static void invalidatePlayer(UUID player) {
+        decisions.keySet().removeIf(key -> key.player.equals(player));
+    }
+
+    /**
+     * Forget all decisions for this Barrel.
+     */
+    public static void invalidateBarrel(UUID barrel) {
+        decisions.keySet().removeIf(key -> key.barrel.equals(barrel));
+    }
+
+    /**
+     * Forget all decisions, i.e. when claims or regions have changed.
+     */
+    public static void invalidateAll() {
+        decisions.clear();
+    }
+
+    /**
+     * Remove expired decisions, called every minute.
+     */
+    public static void onUpdate() {
+        long now = System.currentTimeMillis();
+        decisions.values().removeIf(decision -> decision.expires <= now);
+    }
+
+    public static Map<Check, Timing> getTimings() {
+        return timings;
+    }
+
+    /**
+     * Latency counters of one hook.
+     */
+    public static final class Timing {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder cached = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private void record(long nanos) {
+            calls.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        /**
+         * @return How often the hook was actually asked
+         */
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        /**
+         * @return How often a cached decision was used instead
+         */
+        public long getCached() {
+            return cached.sum();
+        }
+
+        public double getAverageMillis() {
+            long c = calls.sum();
+            return c == 0 ? 0 : totalNanos.sum() / (c * 1_000_000.0);
+        }
+
+        public double getMaxMillis() {
+            return maxNanos.get() / 1_000_000.0;
+        }
+    }
+}
@@ -28,19 +28,34 @@ import org.bukkit.inventory.ItemStack;
 public class ItemsAdderPluginItem extends PluginItem {
     @Override
     public boolean matches(ItemStack itemStack) {
+        String id = resolveItemId(itemStack);
+        return id != null && matchesItemId(id);
+    }
+
+    @Override
+    public boolean canResolveItemId() {
+        return true;
+    }
+
+    @Override
+    public String resolveItemId(ItemStack itemStack) {
         if (!Hook.ITEMSADDER.isEnabled()) {
-            return false;
+            return null;
         }
 
         CustomStack cs = CustomStack.byItemStack(itemStack);
         if (cs == null) {
-            return false;
+            return null;
         }
+        return cs.getNamespacedID();
+    }
 
+    @Override
+    public boolean matchesItemId(String namespacedId) {
         if (!this.getItemId().contains(":")) {
-            return cs.getId().equalsIgnoreCase(this.getItemId());
+            return namespacedId.substring(namespacedId.indexOf(':') + 1).equalsIgnoreCase(this.getItemId());
         } else {
-            return cs.getNamespacedID().equalsIgnoreCase(this.getItemId());
+            return namespacedId.equalsIgnoreCase(this.getItemId());
         }
     }
 }
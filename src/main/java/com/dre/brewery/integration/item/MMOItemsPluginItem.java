@@ -34,15 +34,25 @@ public class MMOItemsPluginItem extends PluginItem {
 
     @Override
     public boolean matches(ItemStack item) {
-        if (!Hook.MMOITEMS.isEnabled()) return false;
+        String id = resolveItemId(item);
+        return id != null && matchesItemId(id);
+    }
 
+    @Override
+    public boolean canResolveItemId() {
+        return true;
+    }
+
+    @Override
+    public String resolveItemId(ItemStack item) {
+        if (!Hook.MMOITEMS.isEnabled()) return null;
         try {
             NBTItem nbtItem = NBTItem.get(item);
-            return nbtItem.hasType() && nbtItem.getString("MMOITEMS_ITEM_ID").equalsIgnoreCase(getItemId());
+            return nbtItem.hasType() ? nbtItem.getString("MMOITEMS_ITEM_ID") : null;
         } catch (Throwable e) {
             Logging.errorLog("Could not check MMOItems for Item ID", e);
             Hook.MMOITEMS.setEnabled(false);
-            return false;
+            return null;
         }
     }
 }
@@ -34,19 +34,24 @@ public class NexoPluginItem extends PluginItem {
 
     @Override
     public boolean matches(ItemStack itemStack) {
+        String id = resolveItemId(itemStack);
+        return id != null && matchesItemId(id);
+    }
+
+    @Override
+    public boolean canResolveItemId() {
+        return true;
+    }
+
+    @Override
+    public String resolveItemId(ItemStack itemStack) {
         if (!Hook.NEXO.isEnabled()) {
-            return false;
+            return null;
         }
-
         if (itemStack == null || itemStack.getItemMeta() == null) {
-            return false;
-        }
-
-        String itemId = itemStack.getItemMeta().getPersistentDataContainer().get(ITEM_ID, PersistentDataType.STRING);
-        if (itemId == null) {
-            return false;
+            return null;
         }
-        return itemId.equalsIgnoreCase(this.getItemId());
+        return itemStack.getItemMeta().getPersistentDataContainer().get(ITEM_ID, PersistentDataType.STRING);
     }
 
     // Nexo's internal API code for getting an item's ID:
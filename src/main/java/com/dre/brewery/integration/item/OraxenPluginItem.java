@@ -28,14 +28,20 @@ import org.bukkit.inventory.ItemStack;
 public class OraxenPluginItem extends PluginItem {
     @Override
     public boolean matches(ItemStack itemStack) {
-        if (!Hook.ORAXEN.isEnabled()) {
-            return false;
-        }
+        String id = resolveItemId(itemStack);
+        return id != null && matchesItemId(id);
+    }
+
+    @Override
+    public boolean canResolveItemId() {
+        return true;
+    }
 
-        String itemId = OraxenItems.getIdByItem(itemStack);
-        if (itemId == null) {
-            return false;
+    @Override
+    public String resolveItemId(ItemStack itemStack) {
+        if (!Hook.ORAXEN.isEnabled()) {
+            return null;
         }
-        return itemId.equalsIgnoreCase(this.getItemId());
+        return OraxenItems.getIdByItem(itemStack);
     }
 }
\ No newline at end of file
@@ -35,17 +35,27 @@ public class SlimefunPluginItem extends PluginItem {
 
     @Override
     public boolean matches(ItemStack item) {
-        if (!Hook.SLIMEFUN.isEnabled()) return false;
+        String id = resolveItemId(item);
+        return id != null && matchesItemId(id);
+    }
 
+    @Override
+    public boolean canResolveItemId() {
+        return true;
+    }
+
+    @Override
+    public String resolveItemId(ItemStack item) {
+        if (!Hook.SLIMEFUN.isEnabled()) return null;
         try {
             SlimefunItem sfItem = SlimefunItem.getByItem(item);
             if (sfItem != null) {
-                return sfItem.getId().equalsIgnoreCase(getItemId());
+                return sfItem.getId();
             }
         } catch (Exception | LinkageError e) {
             Logging.errorLog("Could not check Slimefun for Item ID", e);
             Hook.SLIMEFUN.setEnabled(false);
         }
-        return false;
+        return null;
     }
 }
@@ -0,0 +1,103 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.integration.listeners;
+
+import com.dre.brewery.integration.BarrelAccessCache;
+import com.palmergames.bukkit.towny.event.TownAddResidentEvent;
+import com.palmergames.bukkit.towny.event.TownBlockSettingsChangedEvent;
+import com.palmergames.bukkit.towny.event.TownClaimEvent;
+import com.palmergames.bukkit.towny.event.TownRemoveResidentEvent;
+import com.palmergames.bukkit.towny.event.town.TownUnclaimEvent;
+import me.ryanhamshire.GriefPrevention.events.ClaimCreatedEvent;
+import me.ryanhamshire.GriefPrevention.events.ClaimDeletedEvent;
+import me.ryanhamshire.GriefPrevention.events.ClaimTransferEvent;
+import me.ryanhamshire.GriefPrevention.events.TrustChangedEvent;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Invalidates the BarrelAccessCache when access could have changed.
+ * <p>The protection plugin listeners are separate classes, so they are only loaded if that plugin is installed
+ */
+public class AccessCacheListener implements Listener {
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        BarrelAccessCache.invalidatePlayer(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        BarrelAccessCache.invalidatePlayer(event.getPlayer().getUniqueId());
+    }
+
+    public static class GriefPrevention implements Listener {
+        @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+        public void onClaimCreated(ClaimCreatedEvent event) {
+            BarrelAccessCache.invalidateAll();
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onClaimDeleted(ClaimDeletedEvent event) {
+            BarrelAccessCache.invalidateAll();
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+        public void onClaimTransfer(ClaimTransferEvent event) {
+            BarrelAccessCache.invalidateAll();
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+        public void onTrustChanged(TrustChangedEvent event) {
+            BarrelAccessCache.invalidateAll();
+        }
+    }
+
+    public static class Towny implements Listener {
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onTownClaim(TownClaimEvent event) {
+            BarrelAccessCache.invalidateAll();
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onTownUnclaim(TownUnclaimEvent event) {
+            BarrelAccessCache.invalidateAll();
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onResidentAdded(TownAddResidentEvent event) {
+            BarrelAccessCache.invalidateAll();
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onResidentRemoved(TownRemoveResidentEvent event) {
+            BarrelAccessCache.invalidateAll();
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onTownBlockSettings(TownBlockSettingsChangedEvent event) {
+            BarrelAccessCache.invalidateAll();
+        }
+    }
+}
@@ -29,6 +29,8 @@ import com.dre.brewery.api.events.barrel.BarrelRemoveEvent;
 import com.dre.brewery.configuration.ConfigManager;
 import com.dre.brewery.configuration.files.Config;
 import com.dre.brewery.configuration.files.Lang;
+import com.dre.brewery.integration.BarrelAccessCache;
+import com.dre.brewery.integration.BarrelAccessCache.Check;
 import com.dre.brewery.integration.BlockLockerHook;
 import com.dre.brewery.integration.Hook;
 import com.dre.brewery.integration.WorldGuarkHook;
@@ -40,7 +42,6 @@ import com.dre.brewery.integration.barrel.LogBlockBarrel;
 import com.dre.brewery.integration.barrel.TownyBarrel;
 import com.dre.brewery.integration.item.MMOItemsPluginItem;
 import com.dre.brewery.listeners.PlayerListener;
-import com.dre.brewery.recipe.BCauldronRecipe;
 import com.dre.brewery.recipe.RecipeItem;
 import com.dre.brewery.utility.Logging;
 import com.dre.brewery.utility.MaterialUtil;
@@ -62,6 +63,8 @@ import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.plugin.Plugin;
 
+import java.util.function.BooleanSupplier;
+
 public class IntegrationListener implements Listener {
 
     private final Config config = ConfigManager.getConfig(Config.class);
@@ -74,7 +77,7 @@ public class IntegrationListener implements Listener {
             Plugin plugin = hook.getPlugin();
             if (plugin != null) {
                 try {
-                    if (!hook.getWgBarrel().checkAccess(event.getPlayer(), event.getSpigot(), plugin)) {
+                    if (!cachedCheck(Check.WORLDGUARD, event, () -> hook.getWgBarrel().checkAccess(event.getPlayer(), event.getSpigot(), plugin))) {
                         event.setCancelled(true);
                         lang.sendEntry(event.getPlayer(), "Error_NoBarrelAccess");
                     }
@@ -102,17 +105,15 @@ public class IntegrationListener implements Listener {
             Plugin pl = hook.getPlugin();
             if (pl != null && pl.isEnabled()) {
                 try {
-                    if (pl.getConfig().getBoolean("restrict_creative")) {
-                        Player player = event.getPlayer();
-                        if (player.getGameMode() == GameMode.CREATIVE) {
-                            if (!pl.getConfig().getBoolean("bypass.inventories") || (!player.hasPermission("gamemodeinventories.bypass") && !player.isOp())) {
-                                event.setCancelled(true);
-                                if (!pl.getConfig().getBoolean("dont_spam_chat")) {
-                                    lang.sendEntry(event.getPlayer(), "Error_NoBarrelAccess");
-                                }
-                                return;
-                            }
+                    Player player = event.getPlayer();
+                    if (player.getGameMode() == GameMode.CREATIVE && !cachedCheck(Check.GAMEMODEINVENTORIES, event, () ->
+                        !pl.getConfig().getBoolean("restrict_creative")
+                            || pl.getConfig().getBoolean("bypass.inventories") && (player.hasPermission("gamemodeinventories.bypass") || player.isOp()))) {
+                        event.setCancelled(true);
+                        if (!pl.getConfig().getBoolean("dont_spam_chat")) {
+                            lang.sendEntry(event.getPlayer(), "Error_NoBarrelAccess");
                         }
+                        return;
                     }
                 } catch (Throwable e) {
                     Logging.errorLog("Failed to Check GameModeInventories for Barrel Open Permissions!", e);
@@ -125,7 +126,7 @@ public class IntegrationListener implements Listener {
         }
         if (Hook.GRIEFPREVENTION.isEnabled()) {
             try {
-                if (!GriefPreventionBarrel.checkAccess(event)) {
+                if (!cachedCheck(Check.GRIEFPREVENTION, event, () -> GriefPreventionBarrel.checkAccess(event))) {
                     lang.sendEntry(event.getPlayer(), "Error_NoBarrelAccess");
                     event.setCancelled(true);
                     return;
@@ -154,7 +155,7 @@ public class IntegrationListener implements Listener {
                 if (!sign.equals(event.getClickedBlock())) {
                     Player player = event.getPlayer();
                     try {
-                        if (!LWCBarrel.checkAccess(player, sign, Hook.LWC.getPlugin())) {
+                        if (!cachedCheck(Check.LWC, event, () -> LWCBarrel.checkAccess(player, sign, Hook.LWC.getPlugin()))) {
                             lang.sendEntry(event.getPlayer(), "Error_NoBarrelAccess");
                             event.setCancelled(true);
                             return;
@@ -178,7 +179,7 @@ public class IntegrationListener implements Listener {
 
         if (Hook.TOWNY.isEnabled()) {
             try {
-                if (!TownyBarrel.checkAccess(event)) {
+                if (!cachedCheck(Check.TOWNY, event, () -> TownyBarrel.checkAccess(event))) {
                     lang.sendEntry(event.getPlayer(), "Error_NoBarrelAccess");
                     event.setCancelled(true);
                     return;
@@ -200,7 +201,7 @@ public class IntegrationListener implements Listener {
         }
 
         if (Hook.LANDS.isEnabled()) {
-            if (!LandsBarrel.checkAccess(event)) {
+            if (!cachedCheck(Check.LANDS, event, () -> LandsBarrel.checkAccess(event))) {
                 lang.sendEntry(event.getPlayer(), "Error_NoBarrelAccess");
                 event.setCancelled(true);
                 return;
@@ -209,7 +210,7 @@ public class IntegrationListener implements Listener {
 
         if (BlockLockerHook.BLOCKLOCKER.isEnabled()) {
             try {
-                if (!BlockLockerBarrel.checkAccess(event)) {
+                if (!cachedCheck(Check.BLOCKLOCKER, event, () -> BlockLockerBarrel.checkAccess(event))) {
                     lang.sendEntry(event.getPlayer(), "Error_NoBarrelAccess");
                     event.setCancelled(true);
                     return;
@@ -312,8 +313,13 @@ public class IntegrationListener implements Listener {
         }
     }
 
+    private boolean cachedCheck(Check check, BarrelAccessEvent event, BooleanSupplier hook) {
+        return BarrelAccessCache.check(check, event.getPlayer(), event.getBarrel(), event.getClickedBlock(), config.getBarrelAccessCacheMillis(), hook);
+    }
+
     @EventHandler
     public void onBarrelRemove(BarrelRemoveEvent event) {
+        BarrelAccessCache.invalidateBarrel(event.getBarrel().getId());
         if (!Hook.LWC.isEnabled()) return;
 
         try {
@@ -349,15 +355,13 @@ public class IntegrationListener implements Listener {
                 if (event.getClickedBlock() != null && MaterialUtil.isWaterCauldron(event.getClickedBlock().getType())) {
                     NBTItem item = NBTItem.get(event.getItem());
                     if (item.hasType()) {
-                        for (RecipeItem rItem : BCauldronRecipe.acceptedCustom) {
-                            if (rItem instanceof MMOItemsPluginItem mmo) {
-                                if (mmo.matches(event.getItem())) {
-                                    event.setCancelled(true);
-                                    PlayerListener.handlePlayerInteract(event);
-                                    return;
-                                }
+                        // The cauldron looks up the same item again, resolve its id only once
+                        RecipeItem.withResolvedIds(() -> {
+                            if (RecipeItem.isAcceptedPluginItem(MMOItemsPluginItem.class, event.getItem())) {
+                                event.setCancelled(true);
+                                PlayerListener.handlePlayerInteract(event);
                             }
-                        }
+                        });
                     }
                 }
             }
@@ -0,0 +1,104 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.integration.listeners.movecraft;
+
+import com.dre.brewery.Barrel;
+import com.dre.brewery.api.events.barrel.BarrelCreateEvent;
+import com.dre.brewery.api.events.barrel.BarrelRemoveEvent;
+import net.countercraft.movecraft.MovecraftLocation;
+import net.countercraft.movecraft.craft.Craft;
+import net.countercraft.movecraft.events.CraftDetectEvent;
+import net.countercraft.movecraft.events.CraftReleaseEvent;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the Barrels on each piloted Craft, so moving a Craft doesn't have to search all Barrels of its World again.
+ * <p>The Barrels are looked up once when the Craft is detected and then move with it.
+ * Barrels that are built on the Craft in the meantime are added, removed ones are dropped from their Craft.
+ */
+public class CraftBarrels implements Listener {
+
+    private static final Map<Craft, Set<Barrel>> crafts = new ConcurrentHashMap<>();
+
+    /**
+     * The Barrels on this Craft, looked up from its HitBox if the Craft is not tracked yet.
+     */
+    public static Set<Barrel> get(Craft craft) {
+        return crafts.computeIfAbsent(craft, CraftBarrels::lookup);
+    }
+
+    /**
+     * Look up the Barrels on this Craft again and track them, i.e. on detection.
+     */
+    public static Set<Barrel> track(Craft craft) {
+        Set<Barrel> barrels = lookup(craft);
+        crafts.put(craft, barrels);
+        return barrels;
+    }
+
+    public static void release(Craft craft) {
+        crafts.remove(craft);
+    }
+
+    private static Set<Barrel> lookup(Craft craft) {
+        Set<Barrel> barrels = ConcurrentHashMap.newKeySet();
+        barrels.addAll(MovecraftUtil.barrelsOnCraft(craft.getHitBox(), craft.getWorld()));
+        return barrels;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onCraftDetect(CraftDetectEvent event) {
+        if (event.isCancelled()) {
+            release(event.getCraft());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onCraftRelease(CraftReleaseEvent event) {
+        release(event.getCraft());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBarrelCreate(BarrelCreateEvent event) {
+        Barrel barrel = event.getBarrel();
+        Block spigot = barrel.getSpigot();
+        MovecraftLocation location = new MovecraftLocation(spigot.getX(), spigot.getY(), spigot.getZ());
+        crafts.forEach((craft, barrels) -> {
+            if (craft.getWorld().equals(spigot.getWorld()) && craft.getHitBox().contains(location)) {
+                barrels.add(barrel);
+            }
+        });
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onBarrelRemove(BarrelRemoveEvent event) {
+        for (Set<Barrel> barrels : crafts.values()) {
+            barrels.remove(event.getBarrel());
+        }
+    }
+}
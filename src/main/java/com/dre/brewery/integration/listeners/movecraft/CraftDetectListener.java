@@ -40,13 +40,13 @@ public class CraftDetectListener implements Listener {
     public void onCraftDetect(CraftDetectEvent event) {
         Craft craft = event.getCraft();
         CraftType type = craft.getType();
+        Set<Barrel> barrels = CraftBarrels.track(craft);
 
         boolean allAllowed = type.getBoolProperty(BreweryProperties.ALL_BARRELS_ALLOWED);
         if (allAllowed) {
             return;
         }
 
-        Set<Barrel> barrels = MovecraftUtil.barrelsOnCraft(craft.getHitBox(), craft.getWorld());
         Set<?> maxBarrels = MovecraftUtil.getBarrelsProperty(type);
         if (maxBarrels.isEmpty() && !barrels.isEmpty()) {
             event.setCancelled(true);
@@ -25,30 +25,36 @@ import com.dre.brewery.integration.listeners.movecraft.properties.BreweryPropert
 import com.dre.brewery.integration.listeners.movecraft.properties.MaxBarrelEntry;
 import net.countercraft.movecraft.MovecraftLocation;
 import net.countercraft.movecraft.craft.type.CraftType;
-import net.countercraft.movecraft.util.MathUtils;
 import net.countercraft.movecraft.util.hitboxes.HitBox;
-import org.bukkit.Location;
 import org.bukkit.World;
+import org.bukkit.block.Block;
 
 import java.util.HashSet;
-import java.util.Objects;
 import java.util.Set;
 
 public class MovecraftUtil {
 
+    /**
+     * Search the Barrels of the World for those with their spigot in the HitBox.
+     * <p>Only Barrels within the bounds of the HitBox are tested against it.
+     * For piloted Crafts {@link CraftBarrels#get} should be used instead.
+     */
     public static Set<Barrel> barrelsOnCraft(HitBox hitBox, World craftWorld) {
         Set<Barrel> output = new HashSet<>();
+        if (hitBox.isEmpty()) {
+            return output;
+        }
+        int minX = hitBox.getMinX(), minY = hitBox.getMinY(), minZ = hitBox.getMinZ();
+        int maxX = hitBox.getMaxX(), maxY = hitBox.getMaxY(), maxZ = hitBox.getMaxZ();
 
         for (Barrel barrel : Barrel.getBarrels(craftWorld.getUID())) {
-            Location location = barrel.getSpigot().getLocation();
-
-            if (!Objects.equals(location.getWorld(), craftWorld)) {
+            Block spigot = barrel.getSpigot();
+            int x = spigot.getX(), y = spigot.getY(), z = spigot.getZ();
+            if (x < minX || x > maxX || y < minY || y > maxY || z < minZ || z > maxZ) {
                 continue;
             }
 
-            MovecraftLocation mvLocation = MathUtils.bukkit2MovecraftLoc(location);
-
-            if (hitBox.contains(mvLocation)) {
+            if (hitBox.contains(new MovecraftLocation(x, y, z))) {
                 output.add(barrel);
             }
         }
@@ -27,7 +27,6 @@ import net.countercraft.movecraft.MovecraftRotation;
 import net.countercraft.movecraft.craft.Craft;
 import net.countercraft.movecraft.events.CraftRotateEvent;
 import net.countercraft.movecraft.util.MathUtils;
-import net.countercraft.movecraft.util.hitboxes.HitBox;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.event.EventHandler;
@@ -41,8 +40,7 @@ public class RotationListener implements Listener {
         MovecraftRotation rotation = event.getRotation();
         MovecraftLocation originPoint = event.getOriginPoint();
 
-        HitBox hitBox = craft.getHitBox();
-        for (Barrel barrel : MovecraftUtil.barrelsOnCraft(hitBox, craft.getWorld())) {
+        for (Barrel barrel : CraftBarrels.get(craft)) {
             rotate(barrel, rotation, originPoint);
         }
     }
@@ -55,6 +53,7 @@ public class RotationListener implements Listener {
         MovecraftLocation mvSpigot = MathUtils.bukkit2MovecraftLoc(spigot);
         MovecraftLocation rtSpigot = rotateCentered(rotation, mvSpigot, origin);
         barrel.setSpigot( rtSpigot.toBukkit(world).getBlock() );
+        barrel.invalidateShape();
 
         BoundingBox.BlockPos min = box.getMin();
         MovecraftLocation mvMin = new MovecraftLocation(min.x(), min.y(), min.z());
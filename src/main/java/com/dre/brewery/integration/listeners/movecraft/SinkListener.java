@@ -21,11 +21,7 @@
 package com.dre.brewery.integration.listeners.movecraft;
 
 import com.dre.brewery.Barrel;
-import net.countercraft.movecraft.MovecraftLocation;
 import net.countercraft.movecraft.events.CraftSinkEvent;
-import net.countercraft.movecraft.util.MathUtils;
-import net.countercraft.movecraft.util.hitboxes.HitBox;
-import org.bukkit.Location;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 
@@ -34,16 +30,11 @@ import java.util.ArrayList;
 public class SinkListener implements Listener {
     @EventHandler
     public void onSink(CraftSinkEvent event) {
-        HitBox hitBox = event.getCraft().getHitBox();
-        ArrayList<Barrel> list = new ArrayList<>(Barrel.getBarrels(event.getCraft().getWorld().getUID()));
+        // Copy, removing a barrel also drops it from the tracked craft
+        ArrayList<Barrel> list = new ArrayList<>(CraftBarrels.get(event.getCraft()));
 
         for (Barrel barrel : list) {
-            Location location = barrel.getSpigot().getLocation().clone();
-            MovecraftLocation mvLocation = MathUtils.bukkit2MovecraftLoc(location);
-
-            if (hitBox.contains(mvLocation)) {
-                barrel.remove(null, null, true);
-            }
+            barrel.remove(null, null, true);
         }
     }
 }
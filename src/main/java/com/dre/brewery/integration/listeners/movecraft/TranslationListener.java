@@ -23,9 +23,7 @@ package com.dre.brewery.integration.listeners.movecraft;
 import com.dre.brewery.Barrel;
 import com.dre.brewery.utility.BoundingBox;
 import net.countercraft.movecraft.MovecraftLocation;
-import net.countercraft.movecraft.craft.Craft;
 import net.countercraft.movecraft.events.CraftTranslateEvent;
-import net.countercraft.movecraft.util.hitboxes.HitBox;
 import org.bukkit.Location;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -42,9 +40,7 @@ public class TranslationListener implements Listener {
         if (delta == null)
             return;
 
-        Craft craft = event.getCraft();
-        HitBox hitBox = craft.getHitBox();
-        for (Barrel barrel : MovecraftUtil.barrelsOnCraft(hitBox, craft.getWorld())) {
+        for (Barrel barrel : CraftBarrels.get(event.getCraft())) {
             Location location = barrel.getSpigot().getLocation();
 
             BoundingBox box = barrel.getBounds();
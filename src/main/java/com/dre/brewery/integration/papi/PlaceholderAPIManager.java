@@ -30,14 +30,21 @@ import com.dre.brewery.utility.BUtil;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import org.bukkit.OfflinePlayer;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PlaceholderAPIManager extends PlaceholderExpansion {
 
     private static final BreweryPlugin plugin = BreweryPlugin.getInstance();
     private static final Map<String, Placeholder> placeholders = new HashMap<>();
+    private static final int MAX_PARSED = 512;
+    private static final Map<String, Request> parsed = new ConcurrentHashMap<>();
+    // Stands in for all players without drink data, never registered
+    private static final BPlayer SOBER = new BPlayer(new UUID(0, 0));
 
     public PlaceholderAPIManager() {
         placeholders.put("drunkenness", new DrunkennessPlaceholder());
@@ -68,15 +75,30 @@ public class PlaceholderAPIManager extends PlaceholderExpansion {
 
     @Override
     public String onRequest(OfflinePlayer player, @NotNull String params) {
+        Request request = parse(params);
+        if (request.placeholder() == null) {
+            return null;
+        }
+
         BPlayer bPlayer = BPlayer.get(player);
-        if (bPlayer == null) bPlayer = new BPlayer(player.getUniqueId());
+        if (bPlayer == null) bPlayer = SOBER;
 
-        String[] args = params.split("_");
+        return request.placeholder().onReceivedRequest(plugin, player, bPlayer, request.args());
+    }
 
-        Placeholder placeholder = placeholders.get(args[0].toLowerCase());
-        if (placeholder != null) {
-            return placeholder.onReceivedRequest(plugin, player, bPlayer, args);
+    // The same few params are requested over and over by scoreboards and tablists
+    private static Request parse(String params) {
+        Request request = parsed.get(params);
+        if (request == null) {
+            String[] args = params.split("_");
+            request = new Request(placeholders.get(args[0].toLowerCase()), args);
+            if (parsed.size() < MAX_PARSED) {
+                parsed.put(params, request);
+            }
         }
-        return null;
+        return request;
+    }
+
+    private record Request(@Nullable Placeholder placeholder, String[] args) {
     }
 }
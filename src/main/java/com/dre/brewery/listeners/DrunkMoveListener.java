@@ -0,0 +1,73 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.listeners;
+
+import com.dre.brewery.BPlayer;
+import com.dre.brewery.BreweryPlugin;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+
+/**
+ * Pushes drunk players around when they move.
+ * <p>Only registered while at least one player is drunk enough to stumble,
+ * so the move event of sober servers never reaches BreweryX.
+ */
+public class DrunkMoveListener implements Listener {
+
+    private static final DrunkMoveListener instance = new DrunkMoveListener();
+    private static boolean registered = false;
+
+    private DrunkMoveListener() {
+    }
+
+    /**
+     * Register or unregister the listener.
+     *
+     * @param active If any player can currently stumble
+     */
+    public static synchronized void setActive(boolean active) {
+        if (active == registered) {
+            return;
+        }
+        BreweryPlugin plugin = BreweryPlugin.getInstance();
+        if (active) {
+            if (!plugin.isEnabled()) {
+                return;
+            }
+            plugin.getServer().getPluginManager().registerEvents(instance, plugin);
+        } else {
+            HandlerList.unregisterAll(instance);
+        }
+        registered = active;
+    }
+
+    // player walks while drunk, push him around!
+    @EventHandler(priority = EventPriority.LOW)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        BPlayer bPlayer = BPlayer.getStumbling(event.getPlayer().getUniqueId());
+        if (bPlayer != null) {
+            bPlayer.move(event);
+        }
+    }
+}
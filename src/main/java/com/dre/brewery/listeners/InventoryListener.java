@@ -159,6 +159,10 @@ public class InventoryListener implements Listener {
             if (item.hasItemMeta()) {
                 PotionMeta potion = ((PotionMeta) item.getItemMeta());
                 assert potion != null;
+                if (Brew.isCurrentFormat(potion) || !Brew.mayBeBrew(potion)) {
+                    // Saved by this version or a normal potion, nothing to convert
+                    return;
+                }
                 if (VERSION.isOrLater(MinecraftVersion.V1_11)) {
                     // Convert potions from 1.10 to 1.11 for new color
                     if (potion.getColor() == null) {
@@ -184,12 +188,25 @@ public class InventoryListener implements Listener {
         }
     }
 
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        if (isAgingBarrel(event.getInventory())) {
+            // Brews are still being aged and will be replaced shortly
+            event.setResult(Event.Result.DENY);
+        }
+    }
+
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onInventoryClick(InventoryClickEvent event) {
         InventoryHolder holder = PaperLib.getHolder(event.getInventory(), true).getHolder();
         if (!(holder instanceof Barrel) && !(VERSION.isOrLater(MinecraftVersion.V1_14) && holder instanceof org.bukkit.block.Barrel)) {
             return;
         }
+        if (holder instanceof Barrel barrel && barrel.isAging()) {
+            // Brews are still being aged and will be replaced shortly
+            event.setResult(Event.Result.DENY);
+            return;
+        }
         InventoryAction action = event.getAction();
         if (action == InventoryAction.NOTHING) {
             return;
@@ -296,8 +313,10 @@ public class InventoryListener implements Listener {
             return;
         }
         for (ItemStack item : event.getInventory().getContents()) {
-            if (item != null && item.getType() == Material.POTION) {
-                int uid = Brew.getUID(item);
+            if (item != null && item.getType() == Material.POTION && item.hasItemMeta()) {
+                PotionMeta meta = (PotionMeta) item.getItemMeta();
+                if (Brew.isCurrentFormat(meta)) continue;
+                int uid = Brew.getUID(meta);
                 // Check if the uid exists first, otherwise it will log that it can't find the id
                 if (uid < 0 && Brew.legacyPotions.containsKey(uid)) {
                     // This will convert the Brew
@@ -339,6 +358,10 @@ public class InventoryListener implements Listener {
     // Convert Color Lore from MC Barrels back into normal color on taking out
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGH)
     public void onHopperMove(InventoryMoveItemEvent event) {
+        if (isAgingBarrel(event.getSource()) || isAgingBarrel(event.getDestination())) {
+            event.setCancelled(true);
+            return;
+        }
         if (event.getSource() instanceof BrewerInventory inv && PaperLib.getHolder(inv, true).getHolder() instanceof BrewingStand holder) {
             if (BDistiller.isTrackingDistiller(holder.getBlock())) {
                 event.setCancelled(true);
@@ -399,4 +422,10 @@ public class InventoryListener implements Listener {
             new MCBarrel(inv).close();
         }
     }
+
+    // Brewery barrels use chest inventories, the holder is looked up without a block state snapshot for hoppers
+    private static boolean isAgingBarrel(Inventory inventory) {
+        return inventory.getType() == InventoryType.CHEST
+            && PaperLib.getHolder(inventory, false).getHolder() instanceof Barrel barrel && barrel.isAging();
+    }
 }
@@ -32,10 +32,12 @@ import com.dre.brewery.Wakeup;
 import com.dre.brewery.configuration.ConfigManager;
 import com.dre.brewery.configuration.files.Config;
 import com.dre.brewery.configuration.files.Lang;
+import com.dre.brewery.recipe.RecipeItem;
 import com.dre.brewery.utility.BUtil;
 import com.dre.brewery.utility.MaterialUtil;
 import com.dre.brewery.utility.MinecraftVersion;
 import com.dre.brewery.utility.PermissionUtil;
+import com.dre.brewery.utility.perf.PerfMetrics;
 import com.dre.brewery.utility.releases.ReleaseChecker;
 import org.bukkit.GameMode;
 import org.bukkit.Material;
@@ -54,7 +56,6 @@ import org.bukkit.event.player.PlayerItemConsumeEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerKickEvent;
 import org.bukkit.event.player.PlayerLoginEvent;
-import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerRespawnEvent;
 import org.bukkit.inventory.EquipmentSlot;
@@ -67,10 +68,12 @@ public class PlayerListener implements Listener {
     private static final MinecraftVersion VERSION = BreweryPlugin.getMCVersion();
     private static final Config config = ConfigManager.getConfig(Config.class);
     private static final Lang lang = ConfigManager.getConfig(Lang.class);
+    private static final PerfMetrics.Timer BARREL_OPEN = PerfMetrics.timer("brewery_barrel_open_seconds",
+        "Time from clicking a barrel to its inventory being opened, including the protection checks");
 
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onPlayerInteract(PlayerInteractEvent event) {
-        handlePlayerInteract(event);
+        RecipeItem.withResolvedIds(() -> handlePlayerInteract(event));
     }
 
     public static void handlePlayerInteract(PlayerInteractEvent event) {
@@ -148,6 +151,7 @@ public class PlayerListener implements Listener {
         }
 
         // -- Access a Barrel --
+        long openStart = System.nanoTime();
         Barrel barrel = null;
         if (BarrelAsset.isBarrelAsset(BarrelAsset.PLANKS, type)) {
             if (config.isOpenLargeBarrelEverywhere()) {
@@ -172,6 +176,7 @@ public class PlayerListener implements Listener {
             }
 
             barrel.open(player);
+            BARREL_OPEN.recordSince(openStart);
 
             if (VERSION.isOrLater(MinecraftVersion.V1_14)) {
 
@@ -269,14 +274,6 @@ public class PlayerListener implements Listener {
         }
     }
 
-    // player walks while drunk, push him around!
-    @EventHandler(priority = EventPriority.LOW)
-    public void onPlayerMove(PlayerMoveEvent event) {
-        if (BPlayer.hasPlayer(event.getPlayer())) {
-            BPlayer.playerMove(event);
-        }
-    }
-
     // player talks while drunk, but he cant speak very well
     @EventHandler(priority = EventPriority.LOWEST)
     public void onPlayerChat(AsyncPlayerChatEvent event) {
@@ -0,0 +1,391 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.lore;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.security.InvalidKeyException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Array based codec for the scrambled Brew data.
+ * <p>Reads and writes exactly the same bytes as the stream chain of
+ * XORScrambleStream/XORUnscrambleStream over NBT or Base91 lore,
+ * but works on a single byte array that is xored in place.
+ * <p>Layout: parity (86) | version | id (2 bytes, 0 if unscrambled) | [xored: parity/sanity byte] | body
+ * <p>The id is fully random. Which seed the data was scrambled with is stored next to it as the seed's
+ * generation, see {@link Keyring#generationOf}. Data without it is read by trying all seeds.
+ */
+public final class BrewCodec {
+
+    public static final byte PARITY = 86;
+
+    // From java.util.Random, same keystream as SeedInputStream
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private static final int ID_OFFSET = 2;
+    private static final int SCRAMBLED_BODY_OFFSET = 5;
+    private static final int UNSCRAMBLED_BODY_OFFSET = 4;
+
+    private BrewCodec() {
+    }
+
+    /**
+     * XOR the given range of the array in place with the keystream generated from the seed.
+     * <p>Equivalent to reading len bytes from a new SeedInputStream(seed) and xoring them in.
+     *
+     * @param data The array to xor in place
+     * @param off  Offset to start at, this byte is xored with the first keystream byte
+     * @param len  Amount of bytes to xor
+     * @param seed The seed for the keystream, already combined with the id
+     */
+    public static void xor(byte[] data, int off, int len, long seed) {
+        long s = (seed ^ MULTIPLIER) & MASK;
+        int end = off + len;
+        int i = off;
+        while (end - i >= 4) {
+            s = (s * MULTIPLIER + ADDEND) & MASK;
+            int next = (int) (s >>> 16);
+            data[i] ^= (byte) (next >> 24);
+            data[i + 1] ^= (byte) (next >> 16);
+            data[i + 2] ^= (byte) (next >> 8);
+            data[i + 3] ^= (byte) next;
+            i += 4;
+        }
+        if (i < end) {
+            s = (s * MULTIPLIER + ADDEND) & MASK;
+            int next = (int) (s >>> 16);
+            for (int shift = 24; i < end; shift -= 8) {
+                data[i++] ^= (byte) (next >> shift);
+            }
+        }
+    }
+
+    /**
+     * First byte of the keystream for this seed, used for the parity/sanity check.
+     */
+    private static byte firstKeyByte(long seed) {
+        long s = (seed ^ MULTIPLIER) & MASK;
+        s = (s * MULTIPLIER + ADDEND) & MASK;
+        return (byte) ((int) (s >>> 16) >> 24);
+    }
+
+    /**
+     * Decode Base91 encoded data in one go.
+     *
+     * @param encoded The Base91 characters as bytes
+     * @return The decoded bytes
+     */
+    public static byte[] decodeBase91(byte[] encoded) {
+        basE91 decoder = new basE91();
+        byte[] out = new byte[encoded.length + 1];
+        int len = decoder.decode(encoded, encoded.length, out);
+        byte[] last = new byte[1];
+        if (decoder.decEnd(last) > 0) {
+            out[len++] = last[0];
+        }
+        return Arrays.copyOf(out, len);
+    }
+
+    /**
+     * Encode data to Base91 in one go.
+     *
+     * @param data The data to encode
+     * @param len  The amount of bytes of data to encode
+     * @return The Base91 characters as bytes
+     */
+    public static byte[] encodeBase91(byte[] data, int len) {
+        basE91 encoder = new basE91();
+        byte[] out = new byte[(len * 16 + 12) / 13 + 2];
+        int c = encoder.encode(data, len, out);
+        byte[] end = new byte[2];
+        int e = encoder.encEnd(end);
+        System.arraycopy(end, 0, out, c, e);
+        return Arrays.copyOf(out, c + e);
+    }
+
+    /**
+     * The current seed and all previous seeds.
+     * <p>Immutable, build a new one when the seeds change.
+     */
+    public static final class Keyring {
+        private final long seed;
+        private final long[] seeds; // Current seed first, then previous seeds from newest to oldest
+        private final long[] generations; // All seeds in the order they were first used
+
+        /**
+         * @param seed      The current seed
+         * @param prevSeeds List of previously used seeds, oldest first, may be null
+         */
+        public Keyring(long seed, @Nullable List<Long> prevSeeds) {
+            this.seed = seed;
+            LinkedHashSet<Long> ordered = new LinkedHashSet<>();
+            ordered.add(seed);
+            if (prevSeeds != null) {
+                for (int i = prevSeeds.size() - 1; i >= 0; i--) {
+                    ordered.add(prevSeeds.get(i));
+                }
+            }
+            this.seeds = ordered.stream().mapToLong(Long::longValue).toArray();
+            this.generations = prevSeeds != null ? prevSeeds.stream().mapToLong(Long::longValue).toArray() : new long[] { seed };
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        /**
+         * Generation of the seed, its index in the list of previous seeds.
+         * <p>Stored with scrambled data so the seed can be picked directly when reading.
+         * It doesn't reveal anything about the seed itself.
+         *
+         * @return The generation, -1 if the seed is unknown
+         */
+        public int generationOf(long seed) {
+            for (int i = 0; i < generations.length; i++) {
+                if (generations[i] == seed) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Reads Brew data from a byte array, unscrambling it in place.
+     */
+    public static final class Reader {
+        private final byte[] data;
+        private int pos;
+        private XORUnscrambleStream.SuccessType successType = XORUnscrambleStream.SuccessType.NONE;
+
+        public Reader(byte[] data) {
+            this.data = data;
+        }
+
+        /**
+         * @return True if the parity byte at the start of the data is correct
+         */
+        public boolean checkParity() throws EOFException {
+            return readByte() == PARITY;
+        }
+
+        /**
+         * Unscramble the rest of the data in place.
+         * <p>Has to be called directly after reading parity and version.
+         * <p>Tries the main seed and then all previous seeds in reverse order, like XORUnscrambleStream.
+         *
+         * @param seed      The seed used for unscrambling
+         * @param prevSeeds List of previously used seeds, may be null
+         * @throws InvalidKeyException If the scrambled data could not be read with any seed
+         */
+        public void unscramble(long seed, List<Long> prevSeeds) throws EOFException, InvalidKeyException {
+            unscramble(new Keyring(seed, prevSeeds), -1);
+        }
+
+        /**
+         * Unscramble the rest of the data in place.
+         * <p>Has to be called directly after reading parity and version.
+         * <p>The seed of the given generation is tried first. Then the current seed,
+         * then all previous seeds from newest to oldest like XORUnscrambleStream.
+         *
+         * @param keyring    The current and previous seeds
+         * @param generation Generation of the seed the data was written with, -1 if not known
+         * @throws InvalidKeyException If the scrambled data could not be read with any seed
+         */
+        public void unscramble(Keyring keyring, int generation) throws EOFException, InvalidKeyException {
+            if (pos != ID_OFFSET) throw new IllegalStateException("Unscramble has to start directly after the version");
+            require(2);
+            short id = (short) ((data[ID_OFFSET] & 0xFF) << 8 | (data[ID_OFFSET + 1] & 0xFF));
+            if (id == 0) {
+                pos = UNSCRAMBLED_BODY_OFFSET;
+                successType = XORUnscrambleStream.SuccessType.UNSCRAMBLED;
+                return;
+            }
+            require(3);
+            byte parity = data[SCRAMBLED_BODY_OFFSET - 1];
+            long key = 0;
+            boolean success = false;
+            if (generation >= 0 && generation < keyring.generations.length) {
+                key = keyring.generations[generation];
+                success = parityMatches(parity, key, id);
+            }
+            if (!success) {
+                // The current seed first, then data without generation from older versions
+                for (long candidate : keyring.seeds) {
+                    if (parityMatches(parity, candidate, id)) {
+                        key = candidate;
+                        success = true;
+                        break;
+                    }
+                }
+            }
+            if (!success) {
+                throw new InvalidKeyException("Could not read scrambled data, is the seed wrong?");
+            }
+            successType = key == keyring.seed ? XORUnscrambleStream.SuccessType.MAIN_SEED : XORUnscrambleStream.SuccessType.PREV_SEED;
+            int start = SCRAMBLED_BODY_OFFSET - 1;
+            xor(data, start, data.length - start, key ^ id);
+            pos = SCRAMBLED_BODY_OFFSET;
+        }
+
+        private static boolean parityMatches(byte parity, long seed, short id) {
+            return ((parity ^ firstKeyByte(seed ^ id)) & 0xFF) == ((int) (seed >> 48) & 0xFF);
+        }
+
+        private void require(int n) throws EOFException {
+            if (pos + n > data.length) throw new EOFException();
+        }
+
+        public XORUnscrambleStream.SuccessType getSuccessType() {
+            return successType;
+        }
+
+        public byte readByte() throws EOFException {
+            require(1);
+            return data[pos++];
+        }
+
+        public int readUnsignedByte() throws EOFException {
+            return readByte() & 0xFF;
+        }
+
+        public short readShort() throws EOFException {
+            require(2);
+            short s = (short) ((data[pos] & 0xFF) << 8 | (data[pos + 1] & 0xFF));
+            pos += 2;
+            return s;
+        }
+
+        public int readInt() throws EOFException {
+            require(4);
+            int i = (data[pos] & 0xFF) << 24 | (data[pos + 1] & 0xFF) << 16 | (data[pos + 2] & 0xFF) << 8 | (data[pos + 3] & 0xFF);
+            pos += 4;
+            return i;
+        }
+
+        public float readFloat() throws EOFException {
+            return Float.intBitsToFloat(readInt());
+        }
+
+        /**
+         * Reads a String written by DataOutputStream.writeUTF.
+         * <p>Plain ascii is read directly from the array, anything else falls back to DataInputStream for modified UTF-8.
+         */
+        public String readUTF() throws IOException {
+            require(2);
+            int len = (data[pos] & 0xFF) << 8 | (data[pos + 1] & 0xFF);
+            require(2 + len);
+            int start = pos + 2;
+            for (int i = start; i < start + len; i++) {
+                if (data[i] <= 0) {
+                    String s = new DataInputStream(new ByteArrayInputStream(data, pos, len + 2)).readUTF();
+                    pos = start + len;
+                    return s;
+                }
+            }
+            char[] chars = new char[len];
+            for (int i = 0; i < len; i++) {
+                chars[i] = (char) data[start + i];
+            }
+            pos = start + len;
+            return new String(chars);
+        }
+
+        /**
+         * A DataInputStream over the remaining, already unscrambled bytes without copying them.
+         * <p>Used for the Ingredient Loaders, which read from a DataInputStream.
+         */
+        public DataInputStream remaining() {
+            return new DataInputStream(new ByteArrayInputStream(data, pos, data.length - pos));
+        }
+    }
+
+    /**
+     * Writes Brew data into a growing byte array and scrambles it in place when finished.
+     */
+    public static final class Writer extends ByteArrayOutputStream {
+        private final DataOutputStream out = new DataOutputStream(this);
+        private int scrambleStart = -1;
+        private long key;
+
+        public Writer() {
+            super(128);
+        }
+
+        /**
+         * The DataOutputStream writing into this array.
+         */
+        public DataOutputStream data() {
+            return out;
+        }
+
+        /**
+         * Write the header and start scrambling everything after it when finishing.
+         *
+         * @param seed The seed used for scrambling
+         */
+        public void startScrambled(long seed) {
+            short id = 0;
+            while (id == 0) {
+                id = (short) ThreadLocalRandom.current().nextInt();
+            }
+            key = seed ^ id;
+            write((byte) (id >> 8));
+            write((byte) id);
+            scrambleStart = count;
+            write((int) (seed >> 48) & 0xFF); // parity/sanity
+        }
+
+        /**
+         * Write the header marking the data as unscrambled.
+         */
+        public void startUnscrambled() {
+            if (scrambleStart >= 0) throw new IllegalStateException("The Writer was started in scrambling mode before");
+            write(0);
+            write(0);
+        }
+
+        /**
+         * Scramble the written data in place and return it.
+         *
+         * @return The finished data
+         */
+        public byte[] finish() {
+            if (scrambleStart >= 0) {
+                xor(buf, scrambleStart, count - scrambleStart, key);
+                scrambleStart = -1;
+            }
+            return Arrays.copyOf(buf, count);
+        }
+    }
+}
@@ -37,7 +37,15 @@ public class LoreLoadStream extends ByteArrayInputStream {
         super(loreToBytes(meta, line));
     }
 
-    private static byte[] loreToBytes(ItemMeta meta, int lineNum) throws IllegalArgumentException {
+    /**
+     * Get the still Base91 encoded data from the lore of the meta.
+     *
+     * @param meta    The meta to read the lore of
+     * @param lineNum The line to look at first, -1 to search all lines
+     * @return The encoded data
+     * @throws IllegalArgumentException If the meta has no data in lore
+     */
+    public static byte[] loreToBytes(ItemMeta meta, int lineNum) throws IllegalArgumentException {
         if (meta.hasLore()) {
             List<String> lore = meta.getLore();
             if (lineNum >= 0) {
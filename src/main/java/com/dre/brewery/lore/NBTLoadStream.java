@@ -24,6 +24,7 @@ import com.dre.brewery.BreweryPlugin;
 import com.dre.brewery.utility.NBTUtil;
 import org.bukkit.NamespacedKey;
 import org.bukkit.inventory.meta.ItemMeta;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.ByteArrayInputStream;
 
@@ -36,7 +37,12 @@ public class NBTLoadStream extends ByteArrayInputStream {
         super(getNBTBytes(meta));
     }
 
-    private static byte[] getNBTBytes(ItemMeta meta) {
+    /**
+     * Read the raw Brew data from the PersistentDataContainer of the meta.
+     *
+     * @return The data, or an empty array if there is none
+     */
+    public static byte[] getNBTBytes(ItemMeta meta) {
         byte[] bytes = NBTUtil.readBytesItem(meta, KEY);
         if (bytes == null) {
             bytes = NBTUtil.readBytesItem(meta, LEGACY_KEY);
@@ -51,6 +57,22 @@ public class NBTLoadStream extends ByteArrayInputStream {
         return count > 0;
     }
 
+    /**
+     * The stamp of the format the Brew data in this meta was written in, null for data from before stamps.
+     */
+    @Nullable
+    public static Integer getFormatStamp(ItemMeta meta) {
+        return NBTUtil.readIntItem(meta, NBTSaveStream.FORMAT_KEY);
+    }
+
+    /**
+     * The generation of the seed the Brew data in this meta was scrambled with, -1 if not known.
+     */
+    public static int getSeedGeneration(ItemMeta meta) {
+        Integer generation = NBTUtil.readIntItem(meta, NBTSaveStream.SEED_KEY);
+        return generation != null ? generation : -1;
+    }
+
     public static boolean hasDataInMeta(ItemMeta meta) {
         return NBTUtil.hasBytesItem(meta, KEY) || NBTUtil.hasBytesItem(meta, LEGACY_KEY);
     }
@@ -31,6 +31,8 @@ import java.io.IOException;
 public class NBTSaveStream extends ByteArrayOutputStream {
     private static final String TAG = "brewdata";
     private static final NamespacedKey KEY = new NamespacedKey(BreweryPlugin.getInstance(), TAG);
+    static final NamespacedKey FORMAT_KEY = new NamespacedKey(BreweryPlugin.getInstance(), "brewformat");
+    static final NamespacedKey SEED_KEY = new NamespacedKey(BreweryPlugin.getInstance(), "brewseed");
 
     private final ItemMeta meta;
 
@@ -45,4 +47,25 @@ public class NBTSaveStream extends ByteArrayOutputStream {
         if (size() <= 0) return;
         NBTUtil.writeBytesItem(toByteArray(), meta, KEY);
     }
+
+    /**
+     * Write the raw Brew data into the PersistentDataContainer of the meta.
+     */
+    public static void setNBTBytes(ItemMeta meta, byte[] bytes) {
+        NBTUtil.writeBytesItem(bytes, meta, KEY);
+    }
+
+    /**
+     * Mark the Brew data in the meta as written in the format with this stamp.
+     */
+    public static void setFormatStamp(ItemMeta meta, int stamp) {
+        NBTUtil.writeIntItem(stamp, meta, FORMAT_KEY);
+    }
+
+    /**
+     * Store the generation of the seed the Brew data was scrambled with, -1 if it is not scrambled.
+     */
+    public static void setSeedGeneration(ItemMeta meta, int generation) {
+        NBTUtil.writeIntItem(generation, meta, SEED_KEY);
+    }
 }
@@ -0,0 +1,254 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.recipe;
+
+import com.dre.brewery.utility.perf.PerfMetrics;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Index over BCauldronRecipe.acceptedCustom, so matching an item to an accepted custom item is a hash lookup.
+ * <p>PluginItems that can resolve ids are indexed by (class, item id), CustomItems by their Material.
+ * Everything else is checked one by one, like before.
+ * <p>Dropped when recipes are reloaded or changed through the recipe index hooks, and rebuilt if items were added to the accepted list
+ */
+final class AcceptedItemIndex {
+
+    private static volatile AcceptedItemIndex current;
+    // The resolve scope open on this thread, see RecipeItem.withResolvedIds
+    private static final ThreadLocal<Scope> scope = new ThreadLocal<>();
+    private static final String NO_ID = "";
+    private static final PerfMetrics.Counter RESOLVE_HITS = PerfMetrics.counter("brewery_plugin_item_resolves_total",
+        "Lookups of plugin item ids, reused from the last item or resolved again", "result", "reused");
+    private static final PerfMetrics.Counter RESOLVE_MISSES = PerfMetrics.counter("brewery_plugin_item_resolves_total",
+        "Lookups of plugin item ids, reused from the last item or resolved again", "result", "resolved");
+
+    private record Entry(int position, PluginItem item) {
+    }
+
+    private final List<RecipeItem> source;
+    private final int size;
+    private final Map<Class<? extends PluginItem>, Map<String, List<Entry>>> pluginItemsById = new HashMap<>();
+    private final List<Entry> otherPluginItems = new ArrayList<>();
+    private final Map<Material, List<RecipeItem>> customByMaterial = new EnumMap<>(Material.class);
+    private final List<RecipeItem> otherCustom = new ArrayList<>();
+
+    private AcceptedItemIndex(List<RecipeItem> source) {
+        this.source = source;
+        this.size = source.size();
+        for (int i = 0; i < size; i++) {
+            RecipeItem ri = source.get(i);
+            if (ri instanceof PluginItem pi) {
+                if (pi.canResolveItemId() && pi.getItemId() != null) {
+                    pluginItemsById.computeIfAbsent(pi.getClass(), k -> new HashMap<>())
+                        .computeIfAbsent(pi.getItemId().toLowerCase(Locale.ROOT), k -> new ArrayList<>(1))
+                        .add(new Entry(i, pi));
+                } else {
+                    otherPluginItems.add(new Entry(i, pi));
+                }
+            } else if (ri.getClass() == CustomItem.class && ri.hasMaterials()) {
+                customByMaterial.computeIfAbsent(((CustomItem) ri).getMaterial(), k -> new ArrayList<>(1)).add(ri);
+            } else {
+                otherCustom.add(ri);
+            }
+        }
+    }
+
+    static AcceptedItemIndex get() {
+        List<RecipeItem> accepted = BCauldronRecipe.acceptedCustom;
+        AcceptedItemIndex index = current;
+        if (index == null || index.source != accepted || index.size != accepted.size()) {
+            index = new AcceptedItemIndex(accepted);
+            current = index;
+        }
+        return index;
+    }
+
+    /**
+     * Drop the index, it is rebuilt on the next lookup.
+     * <p>Called with the recipe index hooks, as items in the accepted list may have been replaced.
+     */
+    static void invalidate() {
+        current = null;
+    }
+
+    /**
+     * Run the action in a scope in which the ids resolved for an item are reused for similar items.
+     * <p>Scopes can be nested, the resolved ids are dropped when the outermost one ends.
+     */
+    static void runScoped(Runnable action) {
+        Scope open = scope.get();
+        if (open == null) {
+            open = new Scope();
+            scope.set(open);
+        }
+        open.depth++;
+        try {
+            action.run();
+        } finally {
+            if (--open.depth == 0) {
+                scope.remove();
+            }
+        }
+    }
+
+    /**
+     * The first accepted PluginItem, in order of the accepted list, that matches the item.
+     * <p>Each resolvable plugin is asked for the item id at most once
+     */
+    @Nullable
+    PluginItem matchPluginItem(ItemStack item) {
+        Entry best = null;
+        if (!pluginItemsById.isEmpty()) {
+            Map<Class<?>, String> ids = resolvedIds(item);
+            for (Map.Entry<Class<? extends PluginItem>, Map<String, List<Entry>>> plugin : pluginItemsById.entrySet()) {
+                Entry match = matchById(plugin.getKey(), plugin.getValue(), item, ids);
+                if (match != null && (best == null || match.position < best.position)) {
+                    best = match;
+                }
+            }
+        }
+        for (Entry other : otherPluginItems) {
+            if (best != null && other.position >= best.position) {
+                break;
+            }
+            if (other.item.matches(item)) {
+                return other.item;
+            }
+        }
+        return best != null ? best.item : null;
+    }
+
+    /**
+     * Is there an accepted PluginItem of this class that matches the item.
+     */
+    boolean hasPluginItem(Class<? extends PluginItem> type, ItemStack item) {
+        Map<String, List<Entry>> byId = pluginItemsById.get(type);
+        if (byId != null) {
+            return matchById(type, byId, item, resolvedIds(item)) != null;
+        }
+        for (Entry other : otherPluginItems) {
+            if (other.item.getClass() == type && other.item.matches(item)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Nullable
+    private static Entry matchById(Class<?> type, Map<String, List<Entry>> byId, ItemStack item, Map<Class<?>, String> ids) {
+        String id = ids.get(type);
+        if (id == null) {
+            PluginItem resolver = byId.values().iterator().next().get(0).item;
+            id = resolver.resolveItemId(item);
+            if (id == null) {
+                id = NO_ID;
+            }
+            ids.put(type, id);
+        }
+        if (id.isEmpty()) {
+            return null;
+        }
+        Entry best = null;
+        String key = id.toLowerCase(Locale.ROOT);
+        while (true) {
+            List<Entry> candidates = byId.get(key);
+            if (candidates != null) {
+                for (Entry candidate : candidates) {
+                    if ((best == null || candidate.position < best.position) && candidate.item.matchesItemId(id)) {
+                        best = candidate;
+                    }
+                }
+            }
+            // Ids may be namespaced, while the config may only use the part after the namespace
+            int colon = key.indexOf(':');
+            if (colon < 0) {
+                return best;
+            }
+            key = key.substring(colon + 1);
+        }
+    }
+
+    /**
+     * Match the item against the accepted custom items that are not PluginItems.
+     *
+     * @return The only matching item, a new CustomItem with all item info if several match, or null if none match
+     */
+    @Nullable
+    RecipeItem matchCustom(ItemStack item) {
+        RecipeItem match = null;
+        List<RecipeItem> byMaterial = customByMaterial.get(item.getType());
+        if (byMaterial != null) {
+            for (RecipeItem ri : byMaterial) {
+                if (ri.matches(item)) {
+                    if (match != null) {
+                        return new CustomItem(item);
+                    }
+                    match = ri;
+                }
+            }
+        }
+        for (RecipeItem ri : otherCustom) {
+            if (ri.matches(item)) {
+                if (match != null) {
+                    return new CustomItem(item);
+                }
+                match = ri;
+            }
+        }
+        return match;
+    }
+
+    private static Map<Class<?>, String> resolvedIds(ItemStack item) {
+        Scope open = scope.get();
+        if (open == null) {
+            RESOLVE_MISSES.increment();
+            return new IdentityHashMap<>();
+        }
+        ResolvedItem last = open.last;
+        if (last != null && last.item.isSimilar(item)) {
+            RESOLVE_HITS.increment();
+            return last.ids;
+        }
+        RESOLVE_MISSES.increment();
+        ResolvedItem resolved = new ResolvedItem(item.clone(), new IdentityHashMap<>());
+        open.last = resolved;
+        return resolved.ids;
+    }
+
+    private record ResolvedItem(ItemStack item, Map<Class<?>, String> ids) {
+    }
+
+    // The last item looked up in the scope and the ids resolved for it
+    private static final class Scope {
+        private int depth;
+        private ResolvedItem last;
+    }
+}
@@ -33,9 +33,10 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 /**
@@ -45,14 +46,16 @@ import java.util.stream.Collectors;
 @Setter
 public class BCauldronRecipe {
     @Getter
-    public static List<BCauldronRecipe> recipes = new ArrayList<>();
+    public static volatile List<BCauldronRecipe> recipes = new ArrayList<>();
     @Getter @Setter
     public static int numConfigRecipes;
-    public static List<RecipeItem> acceptedCustom = new ArrayList<>(); // All accepted custom and other items
+    private static volatile RecipeIndex<BCauldronRecipe> index;
+    // Concurrent, as recipes are parsed off the main thread when reloading
+    public static List<RecipeItem> acceptedCustom = new CopyOnWriteArrayList<>(); // All accepted custom and other items
     @Getter
-    public static Set<Material> acceptedSimple = new HashSet<>(); // All accepted simple items
+    public static Set<Material> acceptedSimple = ConcurrentHashMap.newKeySet(); // All accepted simple items
     @Getter
-    public static Set<Material> acceptedMaterials = new HashSet<>(); // Fast cache for all accepted Materials
+    public static Set<Material> acceptedMaterials = ConcurrentHashMap.newKeySet(); // Fast cache for all accepted Materials
 
     private final String id;
     private String name;
@@ -79,6 +82,14 @@ public class BCauldronRecipe {
 
     @Nullable
     public static BCauldronRecipe fromConfig(String id, ConfigCauldronIngredient cfgCauldronIngredient) {
+        return fromConfig(id, cfgCauldronIngredient, BRecipe.loadCustomItems());
+    }
+
+    /**
+     * Parse a Cauldron Recipe from config, looking up custom items in the given list instead of the loaded custom items file.
+     */
+    @Nullable
+    public static BCauldronRecipe fromConfig(String id, ConfigCauldronIngredient cfgCauldronIngredient, List<RecipeItem> customItems) {
 
         String name = cfgCauldronIngredient.getName();
         if (name != null) {
@@ -90,7 +101,7 @@ public class BCauldronRecipe {
 
         BCauldronRecipe recipe = new BCauldronRecipe(id, name);
 
-        recipe.ingredients = BRecipe.loadIngredients(BUtil.getListSafely(cfgCauldronIngredient.getIngredients()), id);
+        recipe.ingredients = BRecipe.loadIngredients(BUtil.getListSafely(cfgCauldronIngredient.getIngredients()), id, customItems);
         if (recipe.ingredients == null || recipe.ingredients.isEmpty()) {
             Logging.errorLog("No ingredients for Cauldron-Recipe: " + recipe.name);
             return null;
@@ -227,12 +238,27 @@ public class BCauldronRecipe {
 
     @Nullable
     public static BCauldronRecipe get(String name) {
-        for (BCauldronRecipe recipe : recipes) {
-            if (recipe.name.equalsIgnoreCase(name)) {
-                return recipe;
-            }
+        List<BCauldronRecipe> all = recipes;
+        RecipeIndex<BCauldronRecipe> current = index;
+        if (current == null || !current.isCurrent(all)) {
+            current = new RecipeIndex<>(all, recipe -> new String[] { recipe.name });
+            index = current;
         }
-        return null;
+        return current.get(0, name);
+    }
+
+    /**
+     * Drop the name index of the CauldronRecipes.
+     * <p>Adding or removing recipes is detected, but this has to be called when replacing recipes in the List.
+     */
+    public static void invalidateIndex() {
+        index = null;
+        AcceptedItemIndex.invalidate();
+    }
+
+    public void setName(String name) {
+        this.name = name;
+        invalidateIndex();
     }
 
 
@@ -263,6 +289,26 @@ public class BCauldronRecipe {
         return recipes;
     }
 
+    /**
+     * Replaces all config CauldronRecipes at once, keeping the ones added by plugins.
+     * <p>The main List is swapped for a new one instead of being changed in place,
+     * and the ingredients are added to the accepted lists.
+     *
+     * @param configRecipes The new config CauldronRecipes
+     */
+    public static void swapConfigRecipes(List<BCauldronRecipe> configRecipes) {
+        for (BCauldronRecipe recipe : configRecipes) {
+            recipe.updateAcceptedLists();
+        }
+        List<BCauldronRecipe> added = getAddedRecipes();
+        List<BCauldronRecipe> all = new ArrayList<>(configRecipes.size() + added.size());
+        all.addAll(configRecipes);
+        all.addAll(added);
+        recipes = all;
+        numConfigRecipes = configRecipes.size();
+        AcceptedItemIndex.invalidate();
+    }
+
 
     public static class Builder {
         private final String id;
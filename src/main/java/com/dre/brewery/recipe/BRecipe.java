@@ -63,9 +63,13 @@ import java.util.Objects;
 public class BRecipe implements Cloneable {
 
     @Getter
-    private static final List<BRecipe> recipes = new ArrayList<>();
+    private static volatile List<BRecipe> recipes = new ArrayList<>();
     @Getter @Setter
     public static int numConfigRecipes; // The number of recipes in the list that are from config
+    private static volatile RecipeIndex<BRecipe> index;
+    private static final int INDEX_NAME = 0;
+    private static final int INDEX_QUALITY_NAME = 1;
+    private static final int INDEX_ID = 2;
 
     // info
     private String[] name;
@@ -124,6 +128,15 @@ public class BRecipe implements Cloneable {
 
     @Nullable
     public static BRecipe fromConfig(String recipeId, ConfigRecipe configRecipe) {
+        return fromConfig(recipeId, configRecipe, loadCustomItems());
+    }
+
+    /**
+     * Parse a recipe from config, looking up custom items in the given list instead of the loaded custom items file.
+     * <p>Doesn't touch the list of recipes, so this can be used off the main thread while reloading
+     */
+    @Nullable
+    public static BRecipe fromConfig(String recipeId, ConfigRecipe configRecipe, List<RecipeItem> customItems) {
         BRecipe recipe = new BRecipe();
         recipe.id = recipeId;
         String nameList = configRecipe.getName();
@@ -144,7 +157,7 @@ public class BRecipe implements Cloneable {
             return null;
         }
 
-        recipe.ingredients = loadIngredients(configRecipe.getIngredients(), recipeId);
+        recipe.ingredients = loadIngredients(configRecipe.getIngredients(), recipeId, customItems);
         if (recipe.ingredients == null || recipe.ingredients.isEmpty()) {
             Logging.errorLog("No ingredients for: " + recipe.getRecipeName());
             return null;
@@ -215,12 +228,16 @@ public class BRecipe implements Cloneable {
     }
 
     public static List<RecipeItem> loadIngredients(List<String> stringList, String recipeId) {
+        return loadIngredients(stringList, recipeId, loadCustomItems());
+    }
+
+    public static List<RecipeItem> loadIngredients(List<String> stringList, String recipeId, List<RecipeItem> customItems) {
         if (stringList == null) {
             stringList = Collections.emptyList();
         }
         List<RecipeItem> ingredients = new ArrayList<>();
         for (String s : stringList) {
-            IngredientResult result = loadIngredientVerbose(s);
+            IngredientResult result = loadIngredientVerbose(s, customItems);
             if (result instanceof IngredientResult.Success success) {
                 ingredients.add(success.ingredient);
             } else {
@@ -235,6 +252,10 @@ public class BRecipe implements Cloneable {
     }
 
     public static IngredientResult loadIngredientVerbose(String item) {
+        return loadIngredientVerbose(item, loadCustomItems());
+    }
+
+    public static IngredientResult loadIngredientVerbose(String item, List<RecipeItem> customItems) {
         String[] ingredParts = item.split("/");
         int amount = 1;
         if (ingredParts.length == 2) {
@@ -264,7 +285,6 @@ public class BRecipe implements Cloneable {
             if (custom != null) {
                 custom.setAmount(amount);
                 custom.makeImmutable();
-                BCauldronRecipe.acceptedCustom.add(custom);
                 return new IngredientResult.Success(custom);
             } else {
                 // TODO Maybe load later ie on first use of recipe?
@@ -273,18 +293,11 @@ public class BRecipe implements Cloneable {
         }
 
         // Try to find this Ingredient as Custom Item
-        for (RecipeItem custom : ConfigManager.getConfig(CustomItemsFile.class).getRecipeItems().stream().filter(Objects::nonNull).toList()) {
+        for (RecipeItem custom : customItems) {
             if (custom.getConfigId().equalsIgnoreCase(matParts[0])) {
                 custom = custom.getMutableCopy();
                 custom.setAmount(amount);
                 custom.makeImmutable();
-                if (custom.hasMaterials()) {
-                    BCauldronRecipe.acceptedMaterials.addAll(custom.getMaterials());
-                }
-                // Add it as acceptedCustom
-                if (!BCauldronRecipe.acceptedCustom.contains(custom)) {
-                    BCauldronRecipe.acceptedCustom.add(custom);
-                }
                 return new IngredientResult.Success(custom);
             }
         }
@@ -321,14 +334,23 @@ public class BRecipe implements Cloneable {
             }
             rItem.setAmount(amount);
             rItem.makeImmutable();
-            BCauldronRecipe.acceptedMaterials.add(mat);
-            BCauldronRecipe.acceptedSimple.add(mat);
             return new IngredientResult.Success(rItem);
         } else {
             return new IngredientResult.Error(IngredientError.INVALID_MATERIAL, ingredParts[0]);
         }
     }
 
+    /**
+     * All valid custom items of the given custom items file, parsed again on each call.
+     */
+    public static List<RecipeItem> loadCustomItems(CustomItemsFile customItemsFile) {
+        return customItemsFile.getRecipeItems().stream().filter(Objects::nonNull).toList();
+    }
+
+    static List<RecipeItem> loadCustomItems() {
+        return loadCustomItems(ConfigManager.getConfig(CustomItemsFile.class));
+    }
+
     public sealed interface IngredientResult {
         record Success(RecipeItem ingredient) implements IngredientResult {}
         record Error(IngredientError error, String invalidPart) implements IngredientResult {}
@@ -507,19 +529,20 @@ public class BRecipe implements Cloneable {
     public List<RecipeItem> getMissingIngredients(List<Ingredient> list) {
         List<RecipeItem> missing = new ArrayList<>();
         for (RecipeItem rItem : ingredients) {
-            boolean matches = false;
-            for (Ingredient used : list) {
-                if (rItem.matches(used)) {
-                    matches = true;
-                    break;
-                }
-            }
-            if (!matches) {
+            if (!matchesAny(rItem, list)) {
                 missing.add(rItem);
             }
         }
         return missing;
     }
+    private static boolean matchesAny(RecipeItem rItem, List<Ingredient> list) {
+        for (Ingredient used : list) {
+            if (rItem.matches(used)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
     public void applyDrinkFeatures(Player player, int quality) {
         List<String> playerCmdsForQuality = getPlayercmdsForQuality(quality);
@@ -673,6 +696,16 @@ public class BRecipe implements Cloneable {
         return getName(5);
     }
 
+    public void setName(String[] name) {
+        this.name = name;
+        invalidateIndex();
+    }
+
+    public void setId(String id) {
+        this.id = id;
+        invalidateIndex();
+    }
+
     /**
      * name that fits the quality
      */
@@ -811,39 +844,82 @@ public class BRecipe implements Cloneable {
         return recipes;
     }
 
+    /**
+     * Replaces all config recipes at once, keeping the recipes added by plugins.
+     * <p>The main List is swapped for a new one instead of being changed in place,
+     * so anyone still iterating the old List, like a Brew being decoded async, sees a complete set of recipes.
+     * <p>The ingredients are added to the accepted lists of the Cauldron here, parsing the recipes doesn't touch them.
+     *
+     * @param configRecipes The new config recipes
+     */
+    public static void swapConfigRecipes(List<BRecipe> configRecipes) {
+        for (BRecipe recipe : configRecipes) {
+            recipe.updateAcceptedLists();
+        }
+        List<BRecipe> added = getAddedRecipes();
+        List<BRecipe> all = new ArrayList<>(configRecipes.size() + added.size());
+        all.addAll(configRecipes);
+        all.addAll(added);
+        recipes = all;
+        numConfigRecipes = configRecipes.size();
+        AcceptedItemIndex.invalidate();
+    }
+
+
+    /**
+     * The name and id index for the current List of all recipes, rebuilt if that List changed.
+     */
+    private static RecipeIndex<BRecipe> index() {
+        List<BRecipe> all = recipes;
+        RecipeIndex<BRecipe> current = index;
+        if (current == null || !current.isCurrent(all)) {
+            current = new RecipeIndex<>(all,
+                recipe -> new String[] { recipe.getRecipeName() },
+                recipe -> new String[] { recipe.getName(1), recipe.getName(10) },
+                recipe -> new String[] { recipe.getId() });
+            index = current;
+        }
+        return current;
+    }
+
+    /**
+     * Drop the name and id index of the recipes.
+     * <p>Adding or removing recipes is detected, but this has to be called when replacing recipes in the List.
+     */
+    public static void invalidateIndex() {
+        index = null;
+        AcceptedItemIndex.invalidate();
+    }
 
     /**
      * Get the BRecipe that has the given name as one of its quality names.
      */
     @Nullable
     public static BRecipe getMatching(String name) {
-        BRecipe mainNameRecipe = get(name);
-        if (mainNameRecipe != null) {
-            return mainNameRecipe;
-        }
-        for (BRecipe recipe : recipes) {
-            if (recipe.getName(1).equalsIgnoreCase(name)) {
-                return recipe;
-            } else if (recipe.getName(10).equalsIgnoreCase(name)) {
-                return recipe;
-            }
+        RecipeIndex<BRecipe> index = index();
+        BRecipe recipe = index.get(INDEX_NAME, name);
+        if (recipe == null) {
+            recipe = index.get(INDEX_QUALITY_NAME, name);
         }
-        for (BRecipe recipe : recipes) {
-            if (name.equalsIgnoreCase(recipe.getId())) {
-                return recipe;
-            }
+        if (recipe == null) {
+            recipe = index.get(INDEX_ID, name);
         }
-        return null;
+        return recipe;
     }
 
     @Nullable
     public static BRecipe getById(String id) {
-        for (BRecipe recipe : recipes) {
-            if (id.equals(recipe.getId())) {
-                return recipe;
+        BRecipe recipe = index().get(INDEX_ID, id);
+        if (recipe != null && !id.equals(recipe.getId())) {
+            // Only differs in case, ids are matched exactly here
+            for (BRecipe r : recipes) {
+                if (id.equals(r.getId())) {
+                    return r;
+                }
             }
+            return null;
         }
-        return null;
+        return recipe;
     }
 
 
@@ -852,12 +928,7 @@ public class BRecipe implements Cloneable {
      */
     @Nullable
     public static BRecipe get(String name) {
-        for (BRecipe recipe : recipes) {
-            if (recipe.getRecipeName().equalsIgnoreCase(name)) {
-                return recipe;
-            }
-        }
-        return null;
+        return index().get(INDEX_NAME, name);
     }
 
     @Override
@@ -0,0 +1,302 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.recipe;
+
+import com.dre.brewery.Brew;
+import com.dre.brewery.BreweryPlugin;
+import com.dre.brewery.utility.Logging;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * Immutable multiset of Ingredients, as used by BIngredients of Cauldrons and Brews.
+ * <p>Ingredients are sorted by their saved bytes, so the same ingredients always give the same set,
+ * and sets are interned: all equal sets share one instance, which can be compared by identity.
+ * <p>The Ingredients in a set must not be changed. Each one keeps the amount it has in this set.
+ */
+public final class IngredientSet {
+
+    // Weak, so sets no Brew or Cauldron uses anymore can be collected
+    private static final Map<IngredientSet, WeakReference<IngredientSet>> interned = new WeakHashMap<>();
+    public static final IngredientSet EMPTY = intern(new IngredientSet(new Ingredient[0], new byte[0][], new int[0]));
+
+    private final Ingredient[] ingredients;
+    private final byte[][] keys; // Saved bytes of each ingredient, without amount
+    private final int[] amounts;
+    private final int totalAmount;
+    private final int hash;
+    private final List<Ingredient> view;
+
+    private IngredientSet(Ingredient[] ingredients, byte[][] keys, int[] amounts) {
+        this.ingredients = ingredients;
+        this.keys = keys;
+        this.amounts = amounts;
+        int total = 0;
+        int h = 1;
+        for (int i = 0; i < ingredients.length; i++) {
+            total += amounts[i];
+            h = 31 * (31 * h + Arrays.hashCode(keys[i])) + amounts[i];
+        }
+        this.totalAmount = total;
+        this.hash = h;
+        this.view = Collections.unmodifiableList(Arrays.asList(ingredients));
+    }
+
+    /**
+     * The interned set of these ingredients.
+     * <p>The set takes over the given Ingredients, they must not be changed afterwards.
+     * Similar Ingredients are merged by adding up their amounts.
+     */
+    public static IngredientSet of(List<Ingredient> ingredients) {
+        if (ingredients.isEmpty()) {
+            return EMPTY;
+        }
+        int size = ingredients.size();
+        Integer[] order = new Integer[size];
+        byte[][] keys = new byte[size][];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+            keys[i] = encode(ingredients.get(i));
+        }
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(keys[a], keys[b]));
+
+        Ingredient[] sortedIngredients = new Ingredient[size];
+        byte[][] sortedKeys = new byte[size][];
+        int[] amounts = new int[size];
+        int n = 0;
+        for (int i : order) {
+            Ingredient ingredient = ingredients.get(i);
+            if (n > 0 && Arrays.equals(sortedKeys[n - 1], keys[i])) {
+                amounts[n - 1] += ingredient.getAmount();
+                sortedIngredients[n - 1].setAmount(amounts[n - 1]);
+                continue;
+            }
+            sortedIngredients[n] = ingredient;
+            sortedKeys[n] = keys[i];
+            amounts[n] = ingredient.getAmount();
+            n++;
+        }
+        if (n < size) {
+            sortedIngredients = Arrays.copyOf(sortedIngredients, n);
+            sortedKeys = Arrays.copyOf(sortedKeys, n);
+            amounts = Arrays.copyOf(amounts, n);
+        }
+        return intern(new IngredientSet(sortedIngredients, sortedKeys, amounts));
+    }
+
+    private static IngredientSet intern(IngredientSet set) {
+        synchronized (interned) {
+            WeakReference<IngredientSet> ref = interned.get(set);
+            IngredientSet existing = ref != null ? ref.get() : null;
+            if (existing != null) {
+                return existing;
+            }
+            interned.put(set, new WeakReference<>(set));
+            return set;
+        }
+    }
+
+    private static byte[] encode(Ingredient ingredient) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            ingredient.saveTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * A new instance of the ingredient at the index, loaded from its saved bytes.
+     */
+    @Nullable
+    private Ingredient copyOf(int index) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(keys[index]))) {
+            ItemLoader loader = new ItemLoader(Brew.SAVE_VER, in, in.readUTF());
+            Function<ItemLoader, Ingredient> loadFct = BreweryPlugin.getInstance().getIngredientLoaders().get(loader.getSaveID());
+            return loadFct != null ? loadFct.apply(loader) : null;
+        } catch (IOException e) {
+            Logging.errorLog("Failed to copy Ingredient", e);
+            return null;
+        }
+    }
+
+    /**
+     * This set with one more of the ingredient at the index.
+     */
+    public IngredientSet increment(int index) {
+        Ingredient copy = copyOf(index);
+        if (copy == null) {
+            Logging.errorLog("Could not add to Ingredient " + ingredients[index].debug() + ", no loader found");
+            return this;
+        }
+        copy.setAmount(amounts[index] + 1);
+        Ingredient[] newIngredients = ingredients.clone();
+        newIngredients[index] = copy;
+        int[] newAmounts = amounts.clone();
+        newAmounts[index]++;
+        return intern(new IngredientSet(newIngredients, keys, newAmounts));
+    }
+
+    /**
+     * This set with one more of the given ingredient.
+     * <p>Increments the ingredient with the same saved bytes, or adds the given one with an amount of 1
+     */
+    public IngredientSet plus(Ingredient ingredient) {
+        byte[] key = encode(ingredient);
+        int pos = Arrays.binarySearch(keys, key, Arrays::compareUnsigned);
+        if (pos >= 0) {
+            return increment(pos);
+        }
+        pos = -pos - 1;
+        ingredient.setAmount(1);
+        return intern(new IngredientSet(insert(ingredients, pos, ingredient, new Ingredient[ingredients.length + 1]),
+            insert(keys, pos, key, new byte[keys.length + 1][]), insert(amounts, pos, 1)));
+    }
+
+    private static <T> T[] insert(T[] array, int pos, T element, T[] into) {
+        System.arraycopy(array, 0, into, 0, pos);
+        into[pos] = element;
+        System.arraycopy(array, pos, into, pos + 1, array.length - pos);
+        return into;
+    }
+
+    private static int[] insert(int[] array, int pos, int element) {
+        int[] into = new int[array.length + 1];
+        System.arraycopy(array, 0, into, 0, pos);
+        into[pos] = element;
+        System.arraycopy(array, pos, into, pos + 1, array.length - pos);
+        return into;
+    }
+
+    /**
+     * Index of the first ingredient that matches the item, -1 if none does
+     */
+    public int indexOfMatching(ItemStack item) {
+        for (int i = 0; i < ingredients.length; i++) {
+            if (ingredients[i].matches(item)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Match the ingredients against the items of a recipe in one pass.
+     * <p>Fills amountsInRecipe with the amount of the first recipe item each ingredient matches, 0 if none does,
+     * and adds the recipe items no ingredient matches to missing.
+     *
+     * @param amountsInRecipe Array of at least size() length
+     * @param missing List to add the missing recipe items to, or null to only count them
+     * @return The number of recipe items no ingredient matches
+     */
+    public int matchRecipe(List<RecipeItem> recipeItems, int[] amountsInRecipe, @Nullable List<RecipeItem> missing) {
+        boolean[] found = new boolean[ingredients.length];
+        Arrays.fill(amountsInRecipe, 0, ingredients.length, 0);
+        int missingCount = 0;
+        for (RecipeItem rItem : recipeItems) {
+            boolean matches = false;
+            for (int i = 0; i < ingredients.length; i++) {
+                if (rItem.matches(ingredients[i])) {
+                    matches = true;
+                    if (!found[i]) {
+                        found[i] = true;
+                        amountsInRecipe[i] = rItem.getAmount();
+                    }
+                }
+            }
+            if (!matches) {
+                missingCount++;
+                if (missing != null) {
+                    missing.add(rItem);
+                }
+            }
+        }
+        return missingCount;
+    }
+
+    public int size() {
+        return ingredients.length;
+    }
+
+    public boolean isEmpty() {
+        return ingredients.length == 0;
+    }
+
+    public Ingredient get(int index) {
+        return ingredients[index];
+    }
+
+    public int getAmount(int index) {
+        return amounts[index];
+    }
+
+    /**
+     * Sum of the amounts of all ingredients
+     */
+    public int getTotalAmount() {
+        return totalAmount;
+    }
+
+    /**
+     * Unmodifiable List view of the ingredients
+     */
+    public List<Ingredient> asList() {
+        return view;
+    }
+
+    /**
+     * Write the ingredients and their amounts, in the format read by BIngredients.load
+     */
+    public void save(DataOutputStream out) throws IOException {
+        out.writeByte(ingredients.length);
+        for (int i = 0; i < ingredients.length; i++) {
+            out.write(keys[i]);
+            out.writeShort(Math.min(amounts[i], Short.MAX_VALUE));
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof IngredientSet other)) return false;
+        return hash == other.hash && Arrays.equals(amounts, other.amounts) && Arrays.deepEquals(keys, other.keys);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -111,6 +111,38 @@ public abstract class PluginItem extends RecipeItem implements Ingredient {
         return isSimilar(ingredient);
     }
 
+    /**
+     * If this PluginItem can tell the id its plugin uses for any item, see {@link #resolveItemId(ItemStack)}.
+     * <p>Then the Cauldron resolves that id once per item and looks up matching PluginItems by id,
+     * instead of calling matches(ItemStack) on all of them
+     */
+    public boolean canResolveItemId() {
+        return false;
+    }
+
+    /**
+     * The id the plugin uses for this item, or null if it is not an item of this plugin.
+     * <p>Must not depend on the data of this PluginItem, as it is shared between all PluginItems of the same class.
+     * Only called if {@link #canResolveItemId()} returns true
+     *
+     * @param item The item to get the id of
+     * @return The item id, or null
+     */
+    @Nullable
+    public String resolveItemId(ItemStack item) {
+        return null;
+    }
+
+    /**
+     * If an id returned by {@link #resolveItemId(ItemStack)} matches this PluginItem.
+     *
+     * @param resolvedId The resolved item id
+     * @return True if the item with this id matches this PluginItem
+     */
+    public boolean matchesItemId(String resolvedId) {
+        return resolvedId.equalsIgnoreCase(itemId);
+    }
+
     @NotNull
     @Override
     public Ingredient toIngredient(ItemStack forItem) {
@@ -157,19 +157,23 @@ public class RecipeEvaluation {
         if (other == null) {
             throw new NullPointerException("other cannot be null");
         }
-        int numDefectsCompare = -Integer.compare(deductions.size(), other.deductions.size());
+        return compareMostToLeastComplexity(deductions.size(), fatalCount(), getTrueQuality(),
+            other.deductions.size(), other.fatalCount(), other.getTrueQuality());
+    }
+    // Shared with RecipeScore, so ranking by scores picks the same recipe as ranking by evaluations
+    static int compareMostToLeastComplexity(int defects, int fatalCount, float trueQuality,
+                                            int otherDefects, int otherFatalCount, float otherTrueQuality) {
+        int numDefectsCompare = -Integer.compare(defects, otherDefects);
         if (numDefectsCompare != 0) {
             return numDefectsCompare;
         }
-        int thisFatalCount = fatalCount();
-        boolean thisFatal = thisFatalCount > 0;
-        int otherFatalCount = other.fatalCount();
+        boolean thisFatal = fatalCount > 0;
         boolean otherFatal = otherFatalCount > 0;
         if (!thisFatal && !otherFatal) {
-            return Float.compare(getTrueQuality(), other.getTrueQuality());
+            return Float.compare(trueQuality, otherTrueQuality);
         }
         if (thisFatal && otherFatal) {
-            return -Integer.compare(thisFatalCount, otherFatalCount);
+            return -Integer.compare(fatalCount, otherFatalCount);
         }
         return -Boolean.compare(thisFatal, otherFatal);
     }
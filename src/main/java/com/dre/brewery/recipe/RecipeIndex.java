@@ -0,0 +1,102 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.recipe;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Case-insensitive hash indexes over a list of recipes, by name, id or similar.
+ * <p>Each index maps to the first recipe in list order with that key, same as a linear scan with equalsIgnoreCase would.
+ * <br>Only valid for the list it was built from, while that list doesn't change.
+ *
+ * @param <R> The type of recipe
+ */
+final class RecipeIndex<R> {
+
+    private final List<R> source;
+    private final int size;
+    private final List<Map<String, R>> indexes;
+
+    /**
+     * @param source The list to index
+     * @param keys   One function per index, returning all keys of a recipe for that index. Null keys are skipped
+     */
+    @SafeVarargs
+    RecipeIndex(List<R> source, Function<R, String[]>... keys) {
+        this.source = source;
+        this.size = source.size();
+        this.indexes = new ArrayList<>(keys.length);
+        for (Function<R, String[]> key : keys) {
+            Map<String, R> index = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                R recipe = source.get(i);
+                for (String k : key.apply(recipe)) {
+                    if (k != null) {
+                        index.putIfAbsent(fold(k), recipe);
+                    }
+                }
+            }
+            indexes.add(index);
+        }
+    }
+
+    /**
+     * If this was built from the given list and its size didn't change since.
+     * <p>Replacing elements in place is not detected, the index has to be dropped manually then.
+     */
+    boolean isCurrent(List<R> list) {
+        return source == list && size == list.size();
+    }
+
+    @Nullable
+    R get(int index, String key) {
+        return indexes.get(index).get(fold(key));
+    }
+
+    /**
+     * Fold the case of a String, so that two Strings are equal after folding if they are equalsIgnoreCase.
+     * <p>Returns the same String without copying if it is already folded.
+     */
+    static String fold(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (foldChar(c) != c) {
+                char[] chars = s.toCharArray();
+                for (int j = i; j < chars.length; j++) {
+                    chars[j] = foldChar(chars[j]);
+                }
+                return new String(chars);
+            }
+        }
+        return s;
+    }
+
+    private static char foldChar(char c) {
+        // Same comparison as String.equalsIgnoreCase
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+}
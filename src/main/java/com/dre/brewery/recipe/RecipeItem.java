@@ -161,28 +161,14 @@ public abstract class RecipeItem implements Cloneable, DebuggableItem {
     @Nullable
     @Contract("_, true -> !null")
     public static RecipeItem getMatchingRecipeItem(ItemStack item, boolean acceptAll) {
-        RecipeItem rItem = null;
-        boolean multiMatch = false;
-        for (RecipeItem ri : BCauldronRecipe.acceptedCustom) {
-            // If we already have a multi match, only check if there is a PluginItem that matches more strictly
-            if (!multiMatch || (ri instanceof PluginItem)) {
-                if (ri.matches(item)) {
-                    // If we match a plugin item, that's a very strict match, so immediately return it
-                    if (ri instanceof PluginItem) {
-                        return ri;
-                    }
-                    if (rItem == null) {
-                        rItem = ri;
-                    } else {
-                        multiMatch = true;
-                    }
-                }
-            }
-        }
-        if (multiMatch) {
-            // We have multiple Custom Items matching, so just store all item info
-            return new CustomItem(item);
+        AcceptedItemIndex index = AcceptedItemIndex.get();
+        // If we match a plugin item, that's a very strict match, so immediately return it
+        RecipeItem rItem = index.matchPluginItem(item);
+        if (rItem != null) {
+            return rItem;
         }
+        // If there are multiple Custom Items matching, this is a new CustomItem with all item info
+        rItem = index.matchCustom(item);
         if (rItem == null && (acceptAll || BCauldronRecipe.acceptedSimple.contains(item.getType()))) {
             // No Custom item found
             if (VERSION.isOrLater(MinecraftVersion.V1_13)) {
@@ -196,6 +182,25 @@ public abstract class RecipeItem implements Cloneable, DebuggableItem {
         return rItem;
     }
 
+    /**
+     * If the item matches an accepted PluginItem of the given class.
+     *
+     * @param type The class of the PluginItem, i.e. MMOItemsPluginItem.class
+     * @param item The item to check
+     * @return True if an accepted PluginItem of this class matches the item
+     */
+    public static boolean isAcceptedPluginItem(Class<? extends PluginItem> type, ItemStack item) {
+        return AcceptedItemIndex.get().hasPluginItem(type, item);
+    }
+
+    /**
+     * Run the action, asking each item plugin for the id of an item only once while it runs, i.e. during one event.
+     * <p>Without this, the ids are resolved again for every lookup.
+     */
+    public static void withResolvedIds(Runnable action) {
+        AcceptedItemIndex.runScoped(action);
+    }
+
     @Nullable
     public static RecipeItem fromConfigCustom(String id, ConfigCustomItem configCustomItem) {
         RecipeItem rItem;
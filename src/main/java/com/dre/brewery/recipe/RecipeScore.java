@@ -0,0 +1,145 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.recipe;
+
+import java.util.Arrays;
+
+/**
+ * Numbers only counterpart of {@link RecipeEvaluation}, without any {@link com.dre.brewery.BrewDefect BrewDefects}.
+ * <p>Used to rank all recipes cheaply, the full RecipeEvaluation is only built for the one that wins.
+ * Instances are meant to be reused, every score starts with {@link #reset()}.
+ */
+public final class RecipeScore {
+
+    private float[] deductions = new float[8];
+    private int size;
+    private int fatalCount;
+
+    public void reset() {
+        size = 0;
+        fatalCount = 0;
+    }
+
+    /**
+     * Deducts quality by the specified amount, same as {@link RecipeEvaluation#deduct}.
+     * @throws IllegalArgumentException if qualityDeduction is negative or not finite
+     */
+    public void deduct(float qualityDeduction) {
+        if (qualityDeduction < 0) {
+            throw new IllegalArgumentException("qualityDeduction cannot be negative");
+        }
+        if (!Float.isFinite(qualityDeduction)) {
+            throw new IllegalArgumentException("qualityDeduction must be finite");
+        }
+        add(qualityDeduction);
+    }
+
+    /**
+     * Adds a fatal defect, same as {@link RecipeEvaluation#fatal}.
+     */
+    public void fatal() {
+        fatalCount++;
+        add(Float.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * Sets this score to the combination of the given parts, same as {@link RecipeEvaluation#combine}.
+     */
+    public void combine(RecipeScore first, RecipeScore second) {
+        reset();
+        float scale = 1.0f / 2;
+        append(first, scale);
+        append(second, scale);
+    }
+
+    /**
+     * Sets this score to the combination of the given parts, same as {@link RecipeEvaluation#combine}.
+     */
+    public void combine(RecipeScore first, RecipeScore second, RecipeScore third, RecipeScore fourth) {
+        reset();
+        float scale = 1.0f / 4;
+        append(first, scale);
+        append(second, scale);
+        append(third, scale);
+        append(fourth, scale);
+    }
+
+    public void copyFrom(RecipeScore other) {
+        reset();
+        append(other, 1.0f);
+    }
+
+    /**
+     * @return whether {@link #getQuality()} is -1
+     */
+    public boolean isFatal() {
+        return getTrueQuality() < 0;
+    }
+
+    /**
+     * @see RecipeEvaluation#getQuality()
+     */
+    public int getQuality() {
+        float quality = getTrueQuality();
+        if (quality < 0) {
+            return -1;
+        }
+        return Math.round(quality);
+    }
+
+    /**
+     * @see RecipeEvaluation#getTrueQuality()
+     */
+    public float getTrueQuality() {
+        if (fatalCount > 0) {
+            return Float.NEGATIVE_INFINITY;
+        }
+        // Same order of subtractions as the evaluation, so both end up with the exact same float
+        float quality = 10f;
+        for (int i = 0; i < size; i++) {
+            quality -= deductions[i];
+        }
+        return quality;
+    }
+
+    /**
+     * @see RecipeEvaluation#compareMostToLeastComplexity(RecipeEvaluation)
+     */
+    public int compareMostToLeastComplexity(RecipeScore other) {
+        return RecipeEvaluation.compareMostToLeastComplexity(size, fatalCount, getTrueQuality(),
+            other.size, other.fatalCount, other.getTrueQuality());
+    }
+
+    private void append(RecipeScore part, float scale) {
+        for (int i = 0; i < part.size; i++) {
+            // -inf * anything non-negative stays -inf
+            add(part.deductions[i] * scale);
+        }
+        fatalCount += part.fatalCount;
+    }
+
+    private void add(float deduction) {
+        if (size == deductions.length) {
+            deductions = Arrays.copyOf(deductions, size * 2);
+        }
+        deductions[size++] = deduction;
+    }
+}
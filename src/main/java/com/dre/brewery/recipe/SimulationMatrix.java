@@ -0,0 +1,339 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.recipe;
+
+import com.dre.brewery.BIngredients;
+import com.dre.brewery.BarrelWoodType;
+import com.dre.brewery.BrewDefect;
+import com.dre.brewery.utility.Logging;
+import lombok.Getter;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+/**
+ * Sweeps a grid of ingredient amounts, cook times, distill runs, age times and barrel woods around recipes
+ * and writes the resulting brew quality of every combination to a CSV file.
+ * <p>Every combination is evaluated against an immutable snapshot of the recipes, in parallel on its own ForkJoinPool.
+ * Nothing here touches the main thread or any world state, so the results are the final state of a brew,
+ * without the intermediate cooking and distilling steps a player would see.
+ */
+public class SimulationMatrix {
+
+    public static final String HEADER = "recipe,ingredients,cook_time,distill_runs,age_time,wood,result,quality,outcome,defect";
+    // At about 100 bytes per row, larger grids would write more than 200 MB of CSV
+    public static final long MAX_COMBINATIONS = 2_000_000L;
+    public static final int MAX_INGREDIENT_DEVIATION = 32;
+    private static final int LEAF_SIZE = 256;
+
+    private final List<BRecipe> snapshot;
+    private final List<Plan> plans = new ArrayList<>();
+    private final File output;
+    @Getter
+    private final long totalCombinations;
+    private final AtomicLong done = new AtomicLong();
+
+    /**
+     * @param targets The recipes to sweep the grid around
+     * @param grid    The grid to sweep
+     * @param output  The CSV file to write to, overwritten if it exists
+     */
+    public SimulationMatrix(List<BRecipe> targets, Grid grid, File output) {
+        this.snapshot = List.copyOf(BRecipe.getAllRecipes());
+        this.output = output;
+        long total = 0;
+        for (BRecipe target : targets) {
+            Plan plan = new Plan(target, grid);
+            if (plan.size > 0) {
+                plans.add(plan);
+                total += plan.size;
+            }
+        }
+        this.totalCombinations = total;
+    }
+
+    /**
+     * Runs the simulation asynchronously.
+     *
+     * @param progress Called with the percentage done in steps of 10, from a worker thread
+     * @return Future of the number of combinations where another recipe than the target was the result
+     */
+    public CompletableFuture<Long> run(IntConsumer progress) {
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        pool.execute(() -> {
+            try (BufferedWriter writer = Files.newBufferedWriter(output.toPath(), StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                AtomicLong collisions = new AtomicLong();
+                List<Sweep> sweeps = new ArrayList<>(plans.size());
+                for (Plan plan : plans) {
+                    sweeps.add(new Sweep(plan, 0, plan.size, writer, collisions, progress));
+                }
+                RecursiveAction.invokeAll(sweeps);
+                future.complete(collisions.get());
+            } catch (IOException | UncheckedIOException e) {
+                Logging.errorLog("Could not write recipe simulation to " + output.getName(), e);
+                future.completeExceptionally(e);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                pool.shutdown();
+            }
+        });
+        return future;
+    }
+
+    private void evaluate(Plan plan, long index, StringBuilder out, AtomicLong collisions) {
+        // Mixed radix decoding of the index: [amounts...][cook][distill][age/wood]
+        long rest = index;
+        int ageIndex = (int) (rest % plan.ages.length);
+        rest /= plan.ages.length;
+        int distillRuns = plan.distillRuns[(int) (rest % plan.distillRuns.length)];
+        rest /= plan.distillRuns.length;
+        int cookTime = plan.cookTimes[(int) (rest % plan.cookTimes.length)];
+        rest /= plan.cookTimes.length;
+
+        List<Ingredient> ingredients = new ArrayList<>(plan.items.size());
+        StringBuilder ingredientNames = new StringBuilder();
+        for (int i = 0; i < plan.items.size(); i++) {
+            int amount = plan.baseAmounts[i] + (int) (rest % plan.amountSteps) - plan.deviation;
+            rest /= plan.amountSteps;
+            if (amount <= 0) {
+                continue;
+            }
+            RecipeItem item = plan.items.get(i);
+            Ingredient ingredient = item.toIngredientGeneric();
+            ingredient.setAmount(amount);
+            ingredients.add(ingredient);
+            if (!ingredientNames.isEmpty()) {
+                ingredientNames.append(' ');
+            }
+            ingredientNames.append(item.toConfigStringNoAmount()).append('/').append(amount);
+        }
+        if (ingredients.isEmpty()) {
+            return;
+        }
+
+        float ageTime = plan.ages[ageIndex];
+        BarrelWoodType wood = plan.woods[ageIndex];
+        boolean distilled = distillRuns > 0;
+        BIngredients brew = new BIngredients(ingredients, cookTime);
+        BestRecipeResult result = brew.getBestRecipeFull(snapshot, wood, ageTime, distilled);
+
+        BRecipe recipe = result.getSuccessRecipe();
+        String outcome;
+        String defect = "";
+        int quality = 0;
+        if (recipe != null && !matchesStage(recipe, distilled, ageTime)) {
+            outcome = "RUINED";
+            defect = "WrongStage";
+        } else if (recipe != null) {
+            quality = brew.getQuality(recipe, distilled, wood, ageTime);
+            if (recipe == plan.target) {
+                outcome = "OK";
+            } else {
+                outcome = "COLLISION";
+                collisions.incrementAndGet();
+            }
+        } else {
+            outcome = "RUINED";
+            if (result instanceof BestRecipeResult.Error error) {
+                List<BrewDefect> worst = error.eval().getWorstDefects();
+                if (!worst.isEmpty()) {
+                    defect = worst.get(0).getClass().getSimpleName();
+                }
+            }
+        }
+
+        out.append(csv(plan.target.getRecipeName())).append(',')
+            .append(csv(ingredientNames.toString())).append(',')
+            .append(cookTime).append(',')
+            .append(distillRuns).append(',')
+            .append(ageTime).append(',')
+            .append(wood.name()).append(',')
+            .append(recipe != null ? csv(recipe.getRecipeName()) : "").append(',')
+            .append(quality).append(',')
+            .append(outcome).append(',')
+            .append(defect).append('\n');
+    }
+
+    // Same checks as the cook, distill and age steps of a brew do on the best recipe
+    private static boolean matchesStage(BRecipe recipe, boolean distilled, float ageTime) {
+        if (ageTime > 0.5) {
+            return recipe.needsToAge();
+        } else if (distilled) {
+            return recipe.needsDistilling();
+        }
+        return recipe.isCookingOnly();
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private void reportProgress(long count, IntConsumer progress) {
+        long before = done.getAndAdd(count);
+        int percentBefore = (int) (before * 10 / totalCombinations);
+        int percentAfter = (int) ((before + count) * 10 / totalCombinations);
+        if (percentAfter > percentBefore) {
+            progress.accept(percentAfter * 10);
+        }
+    }
+
+    /**
+     * The range of values to sweep around each recipe.
+     *
+     * @param ingredientDeviation How many items each ingredient amount may deviate from the recipe
+     * @param cookSteps           Number of cook time steps below and above the recipe, each step half the allowed time difference
+     * @param ageSteps            Number of age time steps below and above the recipe, each step a quarter of the age
+     */
+    public record Grid(int ingredientDeviation, int cookSteps, int ageSteps) {
+        public static final Grid DEFAULT = new Grid(1, 4, 4);
+    }
+
+    /**
+     * All values of the grid for one recipe.
+     */
+    private static class Plan {
+        private final BRecipe target;
+        private final List<RecipeItem> items;
+        private final int[] baseAmounts;
+        private final int deviation;
+        private final int amountSteps;
+        private final int[] cookTimes;
+        private final int[] distillRuns;
+        private final float[] ages;
+        private final BarrelWoodType[] woods;
+        private final long size;
+
+        Plan(BRecipe target, Grid grid) {
+            this.target = target;
+            this.items = List.copyOf(target.getIngredients());
+            this.baseAmounts = items.stream().mapToInt(RecipeItem::getAmount).toArray();
+            this.deviation = Math.max(0, grid.ingredientDeviation());
+            this.amountSteps = deviation * 2 + 1;
+
+            int cookStep = Math.max(1, target.allowedTimeDiff(target.getCookingTime()) / 2);
+            this.cookTimes = steps(target.getCookingTime(), cookStep, grid.cookSteps());
+            this.distillRuns = new int[target.getDistillruns() + 2];
+            Arrays.setAll(distillRuns, i -> i);
+
+            List<Float> ageList = new ArrayList<>();
+            List<BarrelWoodType> woodList = new ArrayList<>();
+            ageList.add(0F);
+            woodList.add(BarrelWoodType.ANY);
+            int[] ageTimes = target.needsToAge()
+                ? steps(target.getAge(), Math.max(1, target.getAge() / 4), grid.ageSteps())
+                : new int[]{ 1 };
+            for (int age : ageTimes) {
+                for (BarrelWoodType wood : BarrelWoodType.values()) {
+                    if (wood.isSpecific()) {
+                        ageList.add((float) age);
+                        woodList.add(wood);
+                    }
+                }
+            }
+            this.ages = new float[ageList.size()];
+            for (int i = 0; i < ages.length; i++) {
+                ages[i] = ageList.get(i);
+            }
+            this.woods = woodList.toArray(new BarrelWoodType[0]);
+
+            long amounts = 1;
+            for (int i = 0; i < items.size(); i++) {
+                amounts = Math.multiplyExact(amounts, amountSteps);
+            }
+            this.size = items.isEmpty() ? 0
+                : Math.multiplyExact(amounts, (long) cookTimes.length * distillRuns.length * ages.length);
+        }
+
+        // Positive values from center - steps * step to center + steps * step
+        private static int[] steps(int center, int step, int steps) {
+            List<Integer> values = new ArrayList<>();
+            for (int i = -steps; i <= steps; i++) {
+                int value = center + i * step;
+                if (value > 0) {
+                    values.add(value);
+                }
+            }
+            return values.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Evaluates a range of a Plan, splitting it until it is small enough.
+     */
+    private class Sweep extends RecursiveAction {
+        private final Plan plan;
+        private final long from;
+        private final long to;
+        private final BufferedWriter writer;
+        private final AtomicLong collisions;
+        private final IntConsumer progress;
+
+        Sweep(Plan plan, long from, long to, BufferedWriter writer, AtomicLong collisions, IntConsumer progress) {
+            this.plan = plan;
+            this.from = from;
+            this.to = to;
+            this.writer = writer;
+            this.collisions = collisions;
+            this.progress = progress;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                long mid = (from + to) >>> 1;
+                invokeAll(new Sweep(plan, from, mid, writer, collisions, progress),
+                    new Sweep(plan, mid, to, writer, collisions, progress));
+                return;
+            }
+            StringBuilder rows = new StringBuilder((int) (to - from) * 96);
+            for (long i = from; i < to; i++) {
+                evaluate(plan, i, rows, collisions);
+            }
+            try {
+                synchronized (writer) {
+                    writer.write(rows.toString());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            reportProgress(to - from, progress);
+        }
+    }
+}
@@ -231,6 +231,7 @@ public class BData {
                 }
             }
             BPlayer.getPlayers().putAll(players.stream().collect(Collectors.toMap(BPlayer::getUuid, Function.identity())));
+            BPlayer.updateAllStumbling();
 
 
             final List<World> worlds = plugin.getServer().getWorlds();
@@ -420,7 +421,7 @@ public class BData {
                         }
 
                         final BoundingBox bbox = box;
-                        CompletableFuture<Barrel> barrelFuture = Barrel.computeSmall(spigotLocation)
+                        CompletableFuture<Barrel> barrelFuture = Barrel.computeSmall(spigotLocation, null, bbox)
                             .thenApply(small -> {
                                 if (invSection != null) {
                                     return new Barrel(spigotLocation.getBlock(), sign, bbox, invSection.getValues(true), time, UUID.randomUUID(), small);
@@ -35,10 +35,12 @@ import com.dre.brewery.storage.impls.FlatFileStorage;
 import com.dre.brewery.storage.impls.MongoDBStorage;
 import com.dre.brewery.storage.impls.MySQLStorage;
 import com.dre.brewery.storage.impls.SQLiteStorage;
+import com.dre.brewery.storage.impls.WALStorage;
 import com.dre.brewery.storage.interfaces.ExternallyAutoSavable;
 import com.dre.brewery.storage.interfaces.SerializableThing;
 import com.dre.brewery.storage.records.BreweryMiscData;
 import com.dre.brewery.utility.Logging;
+import com.dre.brewery.utility.perf.PerfMetrics;
 import lombok.Getter;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -47,8 +49,10 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -82,6 +86,48 @@ public abstract class DataManager {
 
     public abstract void deleteGeneric(String id, String table);
 
+    /**
+     * Read up to limit records of a table, ordered by id, starting after the given id.
+     * <p>Used to migrate tables without having them in memory. Records that can't be read are skipped,
+     * so only an empty page marks the end of the table.
+     * <p>Loads the whole table unless the storage overrides this.
+     *
+     * @param afterId The id of the last record of the previous page, null to start at the beginning
+     * @throws IllegalStateException if the page could not be read
+     */
+    public <T extends SerializableThing> List<T> getGenericPage(String table, Class<T> type, @Nullable String afterId, int limit) {
+        return getAllGeneric(table, type).stream()
+            .filter(thing -> afterId == null || thing.getId().compareTo(afterId) > 0)
+            .sorted(Comparator.comparing(SerializableThing::getId))
+            .limit(limit)
+            .toList();
+    }
+
+    /**
+     * @return The amount of records in the table, -1 if they could not be counted
+     */
+    public <T extends SerializableThing> long countGeneric(String table, Class<T> type) {
+        return getAllGeneric(table, type).size();
+    }
+
+    /**
+     * Insert or replace the records in one batch, keeping all other records of the table.
+     * <p>Saves them one by one unless the storage overrides this.
+     *
+     * @return false if the batch could not be saved
+     */
+    public <T extends SerializableThing> boolean saveGenericBatch(List<T> serializableThings, String table, Class<T> type) {
+        try {
+            for (T thing : serializableThings) {
+                saveGeneric(thing, table);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            Logging.errorLog("Failed to save objects to: " + table + "!", e);
+            return false;
+        }
+    }
+
     public abstract CompletableFuture<Barrel> getBarrel(UUID id);
 
     public abstract CompletableFuture<List<Barrel>> getAllBarrels();
@@ -193,30 +239,51 @@ public abstract class DataManager {
     }
 
     private void doSave(Collection<Barrel> barrels, Collection<BCauldron> cauldrons, Collection<BPlayer> players, Collection<Wakeup> wakeups) {
-        this.saveBreweryMiscData(getLoadedMiscData());
-        this.saveAllBarrels(barrels);
-        this.saveAllCauldrons(cauldrons);
-        this.saveAllPlayers(players);
-        this.saveAllWakeups(wakeups);
+        long start = System.nanoTime();
+        timedSave("misc", () -> this.saveBreweryMiscData(getLoadedMiscData()));
+        timedSave("barrels", () -> this.saveAllBarrels(barrels));
+        timedSave("cauldrons", () -> this.saveAllCauldrons(cauldrons));
+        timedSave("players", () -> this.saveAllPlayers(players));
+        timedSave("wakeups", () -> this.saveAllWakeups(wakeups));
 
         for (ExternallyAutoSavable autoSaveAble : autoSavabales) {
             try {
-                autoSaveAble.onAutoSave(this);
+                timedSave("addon:" + autoSaveAble.getClass().getSimpleName(), () -> autoSaveAble.onAutoSave(this));
             } catch (Throwable e) {
                 Logging.errorLog("An external auto-savable class threw an exception. This is most likely an addon not saving properly.", e);
             }
         }
+        saveTimer("all").recordSince(start);
         Logging.debugLog("Saved all data!");
     }
 
+    private void timedSave(String table, Runnable save) {
+        long start = System.nanoTime();
+        save.run();
+        saveTimer(table).recordSince(start);
+    }
 
-    public static DataManager createDataManager(ConfiguredDataManager record) throws StorageInitException {
-        DataManager dataManager = switch (record.getType()) {
+    private PerfMetrics.Timer saveTimer(String table) {
+        return PerfMetrics.timer("brewery_save_seconds", "Duration of saving the data, per storage backend and table",
+            "backend", type.name().toLowerCase(Locale.ROOT), "table", table);
+    }
+
+
+    /**
+     * Open the storage without loading anything, i.e. to migrate data from or to it.
+     */
+    public static DataManager connect(ConfiguredDataManager record) throws StorageInitException {
+        return switch (record.getType()) {
             case FLATFILE -> new FlatFileStorage(record);
             case MYSQL -> new MySQLStorage(record);
             case SQLITE -> new SQLiteStorage(record);
             case MONGODB -> new MongoDBStorage(record);
+            case WAL -> new WALStorage(record);
         };
+    }
+
+    public static DataManager createDataManager(ConfiguredDataManager record) throws StorageInitException {
+        DataManager dataManager = connect(record);
 
         // Legacy data migration
         if (BData.checkForLegacyData()) {
@@ -260,6 +327,7 @@ public abstract class DataManager {
         Brew.installTime = miscData.installTime();
         MCBarrel.mcBarrelTime = miscData.mcBarrelTime();
         Brew.loadPrevSeeds(miscData.prevSaveSeeds());
+        Brew.loadReencodedSeeds(miscData.reencodedSeeds());
 
 
         BreweryStats breweryStats = plugin.getBreweryStats();
@@ -286,7 +354,8 @@ public abstract class DataManager {
             MCBarrel.mcBarrelTime,
             Brew.getPrevSeeds(),
             brewsCreated,
-            brewsCreated.hashCode()
+            brewsCreated.hashCode(),
+            Brew.getReencodedSeeds()
         );
     }
 
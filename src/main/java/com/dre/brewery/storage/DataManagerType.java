@@ -26,7 +26,8 @@ public enum DataManagerType {
     FLATFILE("FlatFile"),
     MYSQL("MySQL"),
     SQLITE("SQLite"),
-    MONGODB("MongoDB");
+    MONGODB("MongoDB"),
+    WAL("WAL");
 
     private final String formattedName;
 
@@ -0,0 +1,283 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.storage;
+
+import com.dre.brewery.BreweryPlugin;
+import com.dre.brewery.configuration.ConfigManager;
+import com.dre.brewery.configuration.files.Config;
+import com.dre.brewery.configuration.sector.capsule.ConfiguredDataManager;
+import com.dre.brewery.storage.interfaces.ExternallyAutoSavable;
+import com.dre.brewery.storage.interfaces.SerializableThing;
+import com.dre.brewery.storage.records.SerializableBPlayer;
+import com.dre.brewery.storage.records.SerializableBarrel;
+import com.dre.brewery.storage.records.SerializableCauldron;
+import com.dre.brewery.storage.records.SerializableWakeup;
+import com.dre.brewery.utility.Logging;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+/**
+ * Copies all data from one storage type to another, one page of records at a time.
+ * <p>Runs on a worker thread, so only one page per table is ever in memory.
+ * The last copied id of each table is written to a progress file, so an interrupted migration continues where it stopped.
+ * At the end the row counts and checksums of both storages are compared.
+ */
+public final class DataMigration {
+
+    private static final int PAGE_SIZE = 500;
+    private static final long REPORT_INTERVAL = 5000;
+    private static final AtomicBoolean running = new AtomicBoolean();
+
+    private record Table(String name, Class<? extends SerializableThing> type, int maxIdLength) {
+    }
+
+    private record Checksum(long rows, long sum) {
+    }
+
+    private final CommandSender sender;
+    private final DataManagerType fromType;
+    private final DataManagerType toType;
+    private final File progressFile;
+    private final YamlConfiguration progress;
+
+    private DataMigration(CommandSender sender, DataManagerType fromType, DataManagerType toType, boolean fresh) {
+        this.sender = sender;
+        this.fromType = fromType;
+        this.toType = toType;
+        this.progressFile = new File(BreweryPlugin.getInstance().getDataFolder(),
+            "migration-" + fromType.name().toLowerCase() + "-" + toType.name().toLowerCase() + ".yml");
+        if (fresh || !progressFile.exists()) {
+            this.progress = new YamlConfiguration();
+        } else {
+            this.progress = YamlConfiguration.loadConfiguration(progressFile);
+        }
+    }
+
+    /**
+     * Start migrating all data on a worker thread.
+     * <p>The target may not be the storage currently in use, as saving would overwrite the migrated data.
+     *
+     * @param fresh Ignore the progress of an earlier, interrupted migration
+     * @return false if the migration could not be started
+     */
+    public static boolean start(CommandSender sender, DataManagerType fromType, DataManagerType toType, boolean fresh) {
+        if (fromType == toType) {
+            Logging.msg(sender, "Can not migrate from and to the same storage type.");
+            return false;
+        }
+        if (toType == BreweryPlugin.getDataManager().getType()) {
+            Logging.msg(sender, "Can not migrate into the storage type that is in use. Migrate from it, then change the storage type in the config.");
+            return false;
+        }
+        if (!running.compareAndSet(false, true)) {
+            Logging.msg(sender, "A migration is already running.");
+            return false;
+        }
+        DataMigration migration = new DataMigration(sender, fromType, toType, fresh);
+        BreweryPlugin.getScheduler().runTaskAsynchronously(() -> {
+            try {
+                migration.run();
+            } catch (Throwable e) {
+                Logging.errorLog("The data migration failed!", e);
+                Logging.msg(sender, "The data migration failed, check the console. Run it again to continue where it stopped.");
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    private void run() throws StorageInitException {
+        DataManager live = BreweryPlugin.getDataManager();
+        DataManager from = null;
+        DataManager to = null;
+        try {
+            if (fromType == live.getType()) {
+                // Make sure everything that is loaded is in the storage before copying it
+                live.saveAll(false);
+                from = live;
+            } else {
+                from = DataManager.connect(record(fromType));
+            }
+            to = DataManager.connect(record(toType));
+            Logging.msg(sender, "Migrating data from " + fromType.getFormattedName() + " to " + toType.getFormattedName() + "...");
+
+            List<Table> tables = tables();
+            for (Table table : tables) {
+                if (!migrateTable(from, to, table, table.type())) {
+                    Logging.msg(sender, "Stopped migrating at table " + table.name() + ", run the command again to continue.");
+                    return;
+                }
+            }
+            to.saveBreweryMiscData(from.getBreweryMiscData());
+
+            boolean verified = true;
+            for (Table table : tables) {
+                verified &= verify(from, to, table, table.type());
+            }
+            if (verified) {
+                progressFile.delete();
+                Logging.msg(sender, "Migration to " + toType.getFormattedName() + " finished and verified. Change the storage type in the config and run /brew data reload to use it.");
+            } else {
+                Logging.msg(sender, "Migration finished, but the data does not match. Was there already data in " + toType.getFormattedName() + "?");
+            }
+        } finally {
+            if (from != null && from != live) {
+                from.closeConnection();
+            }
+            if (to != null) {
+                to.closeConnection();
+            }
+        }
+    }
+
+    private static ConfiguredDataManager record(DataManagerType type) {
+        ConfiguredDataManager configured = ConfigManager.getConfig(Config.class).getStorage();
+        return ConfiguredDataManager.builder()
+            .type(type)
+            .database(configured.getDatabase())
+            .tablePrefix(configured.getTablePrefix())
+            .address(configured.getAddress())
+            .username(configured.getUsername())
+            .password(configured.getPassword())
+            .build();
+    }
+
+    private List<Table> tables() {
+        List<Table> tables = new ArrayList<>();
+        tables.add(new Table("barrels", SerializableBarrel.class, 36));
+        tables.add(new Table("cauldrons", SerializableCauldron.class, 36));
+        tables.add(new Table("players", SerializableBPlayer.class, 36));
+        tables.add(new Table("wakeups", SerializableWakeup.class, 36));
+        for (ExternallyAutoSavable autoSavable : DataManager.autoSavabales) {
+            if (autoSavable.dataType() == null) {
+                Logging.msg(sender, "Skipping table " + autoSavable.table() + ", its addon does not declare a data type.");
+                continue;
+            }
+            tables.add(new Table(autoSavable.table(), autoSavable.dataType(), autoSavable.tableMaxIdLength()));
+        }
+        return tables;
+    }
+
+    private <T extends SerializableThing> boolean migrateTable(DataManager from, DataManager to, Table table, Class<T> type) {
+        String name = table.name();
+        if (progress.getBoolean(name + ".done")) {
+            Logging.msg(sender, name + ": already migrated");
+            return true;
+        }
+        to.createTable(name, table.maxIdLength());
+
+        String lastId = progress.getString(name + ".lastId");
+        long copied = progress.getLong(name + ".copied");
+        long total = from.countGeneric(name, type);
+        if (total < 0) {
+            Logging.msg(sender, name + ": could not count the rows in " + fromType.getFormattedName());
+            return false;
+        }
+        if (lastId != null) {
+            Logging.msg(sender, name + ": continuing after " + copied + " rows");
+        }
+
+        long start = System.currentTimeMillis();
+        long lastReport = start;
+        long copiedNow = 0;
+        while (true) {
+            List<T> page;
+            try {
+                page = from.getGenericPage(name, type, lastId, PAGE_SIZE);
+            } catch (IllegalStateException e) {
+                Logging.errorLog("Could not read table " + name + " from " + fromType.getFormattedName(), e);
+                return false;
+            }
+            if (page.isEmpty()) {
+                break;
+            }
+            if (!to.saveGenericBatch(page, name, type)) {
+                return false;
+            }
+            lastId = page.get(page.size() - 1).getId();
+            copied += page.size();
+            copiedNow += page.size();
+            progress.set(name + ".lastId", lastId);
+            progress.set(name + ".copied", copied);
+            saveProgress();
+
+            long now = System.currentTimeMillis();
+            if (now - lastReport >= REPORT_INTERVAL) {
+                lastReport = now;
+                Logging.msg(sender, String.format("%s: %d/%d rows, %.0f rows/s", name, copied, total, copiedNow * 1000.0 / (now - start)));
+            }
+        }
+
+        progress.set(name + ".done", true);
+        saveProgress();
+        long took = Math.max(1, System.currentTimeMillis() - start);
+        Logging.msg(sender, String.format("%s: %d rows copied in %dms (%.0f rows/s)", name, copied, took, copiedNow * 1000.0 / took));
+        return true;
+    }
+
+    private <T extends SerializableThing> boolean verify(DataManager from, DataManager to, Table table, Class<T> type) {
+        Checksum source = checksum(from, table.name(), type);
+        Checksum target = checksum(to, table.name(), type);
+        if (source.equals(target)) {
+            Logging.msg(sender, table.name() + ": " + source.rows() + " rows verified");
+            return true;
+        }
+        Logging.msg(sender, String.format("%s: mismatch! %d rows (checksum %x) in %s, %d rows (checksum %x) in %s", table.name(),
+            source.rows(), source.sum(), fromType.getFormattedName(), target.rows(), target.sum(), toType.getFormattedName()));
+        return false;
+    }
+
+    // Sum of the CRC32 of every record, so the order of the pages does not matter
+    private static <T extends SerializableThing> Checksum checksum(DataManager dataManager, String table, Class<T> type) {
+        CRC32 crc = new CRC32();
+        long rows = 0;
+        long sum = 0;
+        String lastId = null;
+        List<T> page;
+        while (!(page = dataManager.getGenericPage(table, type, lastId, PAGE_SIZE)).isEmpty()) {
+            for (T thing : page) {
+                crc.reset();
+                crc.update(thing.toString().getBytes(StandardCharsets.UTF_8));
+                sum += crc.getValue();
+                rows++;
+            }
+            lastId = page.get(page.size() - 1).getId();
+        }
+        return new Checksum(rows, sum);
+    }
+
+    private void saveProgress() {
+        try {
+            progress.save(progressFile);
+        } catch (IOException e) {
+            Logging.errorLog("Could not save the migration progress to " + progressFile.getName(), e);
+        }
+    }
+}
@@ -24,13 +24,18 @@ import com.dre.brewery.BCauldron;
 import com.dre.brewery.BIngredients;
 import com.dre.brewery.BPlayer;
 import com.dre.brewery.Barrel;
+import com.dre.brewery.BarrelFacing;
+import com.dre.brewery.BarrelWoodType;
 import com.dre.brewery.Wakeup;
 import com.dre.brewery.configuration.sector.capsule.ConfiguredDataManager;
 import com.dre.brewery.storage.DataManager;
 import com.dre.brewery.storage.StorageInitException;
 import com.dre.brewery.storage.interfaces.SerializableThing;
 import com.dre.brewery.storage.records.BreweryMiscData;
-import com.dre.brewery.storage.serialization.BukkitSerialization;
+import com.dre.brewery.storage.records.SerializableBPlayer;
+import com.dre.brewery.storage.records.SerializableBarrel;
+import com.dre.brewery.storage.records.SerializableCauldron;
+import com.dre.brewery.storage.records.SerializableWakeup;
 import com.dre.brewery.storage.serialization.SQLDataSerializer;
 import com.dre.brewery.utility.BUtil;
 import com.dre.brewery.utility.BoundingBox;
@@ -54,8 +59,11 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 // TODO: Simplify methods
 public class FlatFileStorage extends DataManager {
@@ -155,13 +163,18 @@ public class FlatFileStorage extends DataManager {
         }
 
         for (T thing : serializableThings) {
-            saveGeneric(thing, table);
+            setGeneric(thing, table);
         }
         save();
     }
 
     @Override
     public <T extends SerializableThing> void saveGeneric(T serializableThing, String table) {
+        setGeneric(serializableThing, table);
+        save();
+    }
+
+    private void setGeneric(SerializableThing serializableThing, String table) {
         String path = table + "." + serializableThing.getId();
 
         Gson gson = getLazySerializerInstance().getGson();
@@ -172,7 +185,104 @@ public class FlatFileStorage extends DataManager {
         for (Map.Entry<String, Object> entry : map.entrySet()) {
             dataFile.set(path + "." + entry.getKey(), entry.getValue());
         }
-        save();
+    }
+
+    @Override
+    public <T extends SerializableThing> List<T> getGenericPage(String table, Class<T> type, @Nullable String afterId, int limit) {
+        ConfigurationSection section = dataFile.getConfigurationSection(table);
+        if (section == null) {
+            return Collections.emptyList();
+        }
+        NavigableSet<String> keys = new TreeSet<>(section.getKeys(false));
+        List<T> page = new ArrayList<>(limit);
+        for (String key : afterId != null ? keys.tailSet(afterId, false) : keys) {
+            if (page.size() >= limit) {
+                break;
+            }
+            T thing = getRecord(key, table, type);
+            if (thing != null) {
+                page.add(thing);
+            } else {
+                Logging.warningLog("Skipping incomplete record " + key + " in table " + table);
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public <T extends SerializableThing> long countGeneric(String table, Class<T> type) {
+        ConfigurationSection section = dataFile.getConfigurationSection(table);
+        return section != null ? section.getKeys(false).size() : 0;
+    }
+
+    @Override
+    public <T extends SerializableThing> boolean saveGenericBatch(List<T> serializableThings, String table, Class<T> type) {
+        for (T thing : serializableThings) {
+            setRecord(thing, table);
+        }
+        try {
+            dataFile.save(rawFile);
+            return true;
+        } catch (IOException e) {
+            Logging.errorLog("Failed to save to FlatFile!", e);
+            return false;
+        }
+    }
+
+    // The brewery tables have their own layout in the file, other tables are stored like the generic records
+    @Nullable
+    private <T extends SerializableThing> T getRecord(String id, String table, Class<T> type) {
+        String path = table + "." + id;
+        SerializableThing thing = switch (table) {
+            case "barrels" -> {
+                String bounds = dataFile.getString(path + ".bounds");
+                if (bounds == null) {
+                    yield null;
+                }
+                yield new SerializableBarrel(id, dataFile.getString(path + ".spigot"),
+                    Arrays.stream(bounds.split(",")).map(Integer::parseInt).toList(),
+                    (float) dataFile.getDouble(path + ".time", 0.0), (byte) dataFile.getInt(path + ".sign", 0),
+                    dataFile.getString(path + ".items", null),
+                    dataFile.isBoolean(path + ".small") ? dataFile.getBoolean(path + ".small") : null,
+                    dataFile.getString(path + ".facing"), dataFile.getString(path + ".wood"));
+            }
+            case "cauldrons" -> new SerializableCauldron(id, dataFile.getString(path + ".block"),
+                dataFile.getString(path + ".ingredients"), dataFile.getInt(path + ".state", 0));
+            case "players" -> new SerializableBPlayer(id, dataFile.getInt(path + ".quality", 0),
+                dataFile.getInt(path + ".drunkenness", 0), dataFile.getInt(path + ".offlineDrunkenness", 0));
+            case "wakeups" -> new SerializableWakeup(id, dataFile.getString(path + ".location"));
+            default -> getGeneric(id, table, type);
+        };
+        return type.cast(thing);
+    }
+
+    private void setRecord(SerializableThing thing, String table) {
+        String path = table + "." + thing.getId();
+        switch (thing) {
+            case SerializableBarrel barrel when table.equals("barrels") -> {
+                dataFile.set(path + ".spigot", barrel.serializedLocation());
+                dataFile.set(path + ".bounds", barrel.bounds().stream().map(String::valueOf).collect(Collectors.joining(",")));
+                dataFile.set(path + ".time", barrel.time());
+                dataFile.set(path + ".sign", barrel.sign());
+                dataFile.set(path + ".items", barrel.serializedItems());
+                dataFile.set(path + ".small", barrel.small());
+                dataFile.set(path + ".facing", barrel.facing());
+                dataFile.set(path + ".wood", barrel.wood());
+            }
+            case SerializableCauldron cauldron when table.equals("cauldrons") -> {
+                dataFile.set(path + ".block", cauldron.serializedLocation());
+                dataFile.set(path + ".ingredients", cauldron.serializedIngredients());
+                dataFile.set(path + ".state", cauldron.state());
+            }
+            case SerializableBPlayer player when table.equals("players") -> {
+                dataFile.set(path + ".quality", player.quality());
+                dataFile.set(path + ".drunkenness", player.drunkenness());
+                dataFile.set(path + ".offlineDrunkenness", player.offlineDrunkenness());
+            }
+            case SerializableWakeup wakeup when table.equals("wakeups") ->
+                dataFile.set(path + ".location", wakeup.serializedLocation());
+            default -> setGeneric(thing, table);
+        }
     }
 
     @Override
@@ -198,12 +308,17 @@ public class FlatFileStorage extends DataManager {
         BoundingBox boundingBox = BoundingBox.fromPoints(bounds);
         float time = (float) dataFile.getDouble(path + ".time", 0.0);
         byte sign = (byte) dataFile.getInt(path + ".sign", 0);
-        ItemStack[] items = BukkitSerialization.itemStackArrayFromBase64(dataFile.getString(path + ".items", null));
+        String items = dataFile.getString(path + ".items", null);
+        Boolean storedSmall = dataFile.isBoolean(path + ".small") ? dataFile.getBoolean(path + ".small") : null;
+        BarrelFacing facing = BUtil.getEnumByName(BarrelFacing.class, dataFile.getString(path + ".facing"));
+        BarrelWoodType wood = BUtil.getEnumByName(BarrelWoodType.class, dataFile.getString(path + ".wood"));
 
-
-        return Barrel.computeSmall(spigotLoc).thenApplyAsync(small ->
-            new Barrel(spigotLoc.getBlock(), sign, boundingBox, items, time, id, small)
-        );
+        return Barrel.computeSmall(spigotLoc, storedSmall, boundingBox).thenApplyAsync(small -> {
+            Barrel barrel = new Barrel(spigotLoc.getBlock(), sign, boundingBox, (ItemStack[]) null, time, id, small);
+            barrel.loadItems(items);
+            barrel.loadShape(facing, wood);
+            return barrel;
+        });
     }
 
     @Override
@@ -243,7 +358,10 @@ public class FlatFileStorage extends DataManager {
         dataFile.set(path + ".bounds", barrel.getBounds().serialize());
         dataFile.set(path + ".time", barrel.getTime());
         dataFile.set(path + ".sign", barrel.getSignoffset());
-        dataFile.set(path + ".items", BukkitSerialization.itemStackArrayToBase64(barrel.getInventory().getContents()));
+        dataFile.set(path + ".items", barrel.serializeItems());
+        dataFile.set(path + ".small", barrel.isSmall());
+        dataFile.set(path + ".facing", barrel.getFacing() != null ? barrel.getFacing().name() : null);
+        dataFile.set(path + ".wood", barrel.getWoodType() != null ? barrel.getWoodType().name() : null);
         save();
     }
 
@@ -422,7 +540,8 @@ public class FlatFileStorage extends DataManager {
             dataFile.getLong("misc.mcBarrelTime", 0),
             dataFile.getLongList("misc.previousSaveSeeds"),
             dataFile.getIntegerList("misc.brewsCreated"),
-            dataFile.getInt("misc.brewsCreatedHash", 0)
+            dataFile.getInt("misc.brewsCreatedHash", 0),
+            dataFile.getLongList("misc.reencodedSeeds")
         );
     }
 
@@ -433,6 +552,7 @@ public class FlatFileStorage extends DataManager {
         dataFile.set("misc.previousSaveSeeds", data.prevSaveSeeds());
         dataFile.set("misc.brewsCreated", data.brewsCreated());
         dataFile.set("misc.brewsCreatedHash", data.brewsCreatedHash());
+        dataFile.set("misc.reencodedSeeds", data.reencodedSeeds());
         save();
     }
 }
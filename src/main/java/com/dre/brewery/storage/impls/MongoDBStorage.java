@@ -34,15 +34,21 @@ import com.dre.brewery.storage.records.SerializableBarrel;
 import com.dre.brewery.storage.records.SerializableCauldron;
 import com.dre.brewery.storage.records.SerializableWakeup;
 import com.dre.brewery.utility.FutureUtil;
+import com.dre.brewery.utility.Logging;
+import com.mongodb.MongoException;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
 import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.core.Logger;
+import org.bson.conversions.Bson;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
@@ -150,6 +156,37 @@ public class MongoDBStorage extends DataManager {
         }
     }
 
+    @Override
+    public <T extends SerializableThing> List<T> getGenericPage(String collection, Class<T> type, @Nullable String afterId, int limit) {
+        MongoCollection<T> mongoCollection = mongoDatabase.getCollection(collectionPrefix + collection, type);
+        Bson filter = afterId != null ? Filters.gt(MONGO_ID, afterId) : Filters.empty();
+        return mongoCollection.find(filter).sort(Sorts.ascending(MONGO_ID)).limit(limit).into(new ArrayList<>(limit));
+    }
+
+    @Override
+    public <T extends SerializableThing> long countGeneric(String collection, Class<T> type) {
+        return mongoDatabase.getCollection(collectionPrefix + collection, type).countDocuments();
+    }
+
+    @Override
+    public <T extends SerializableThing> boolean saveGenericBatch(List<T> things, String collection, Class<T> type) {
+        if (things.isEmpty()) {
+            return true;
+        }
+        MongoCollection<T> mongoCollection = mongoDatabase.getCollection(collectionPrefix + collection, type);
+        List<ReplaceOneModel<T>> replacements = new ArrayList<>(things.size());
+        for (T thing : things) {
+            replacements.add(new ReplaceOneModel<>(Filters.eq(MONGO_ID, thing.getId()), thing, new ReplaceOptions().upsert(true)));
+        }
+        try {
+            mongoCollection.bulkWrite(replacements, new BulkWriteOptions().ordered(false));
+            return true;
+        } catch (MongoException e) {
+            Logging.errorLog("Failed to save objects to: " + collection + ", to: MongoDB!", e);
+            return false;
+        }
+    }
+
     @Override
     public void deleteGeneric(String id, String collection) {
         MongoCollection<SerializableThing> mongoCollection = mongoDatabase.getCollection(collectionPrefix + collection, SerializableThing.class);
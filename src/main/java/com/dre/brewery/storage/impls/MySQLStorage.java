@@ -222,6 +222,64 @@ public class MySQLStorage extends DataManager {
         }
     }
 
+    @Override
+    public <T extends SerializableThing> List<T> getGenericPage(String table, Class<T> type, @Nullable String afterId, int limit) {
+        String sql = "SELECT data FROM " + tablePrefix + table + " WHERE id > ? ORDER BY id LIMIT ?";
+        List<T> objects = new ArrayList<>(limit);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, afterId != null ? afterId : "");
+            statement.setInt(2, limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    objects.add(serializer.deserialize(resultSet.getString("data"), type));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to retrieve objects from table: " + table + ", from: MySQL!", e);
+        }
+        return objects;
+    }
+
+    @Override
+    public <T extends SerializableThing> long countGeneric(String table, Class<T> type) {
+        String sql = "SELECT COUNT(*) FROM " + tablePrefix + table;
+        try (PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
+            if (resultSet.next()) {
+                return resultSet.getLong(1);
+            }
+        } catch (SQLException e) {
+            Logging.errorLog("Failed to count objects in table: " + table + ", from: MySQL!", e);
+        }
+        return -1;
+    }
+
+    @Override
+    public <T extends SerializableThing> boolean saveGenericBatch(List<T> serializableThings, String table, Class<T> type) {
+        String sql = "INSERT INTO " + tablePrefix + table + " (id, data) VALUES (?, ?) ON DUPLICATE KEY UPDATE data = VALUES(data)";
+        try {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (T serializableThing : serializableThings) {
+                    statement.setString(1, serializableThing.getId());
+                    statement.setString(2, serializer.serialize(serializableThing));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                Logging.errorLog("Failed to save objects to: " + table + " due to MySQL exception!", e);
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            Logging.errorLog("Failed to manage transaction for saving objects to: " + table + " due to MySQL exception!", e);
+        }
+        return false;
+    }
+
     @Override
     public void deleteGeneric(String id, String table) {
         String sql = "DELETE FROM " + tablePrefix + table + " WHERE id = ?";
@@ -0,0 +1,381 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.storage.impls;
+
+import com.dre.brewery.BCauldron;
+import com.dre.brewery.BPlayer;
+import com.dre.brewery.Barrel;
+import com.dre.brewery.BreweryPlugin;
+import com.dre.brewery.Wakeup;
+import com.dre.brewery.configuration.sector.capsule.ConfiguredDataManager;
+import com.dre.brewery.storage.DataManager;
+import com.dre.brewery.storage.StorageInitException;
+import com.dre.brewery.storage.interfaces.SerializableThing;
+import com.dre.brewery.storage.records.BreweryMiscData;
+import com.dre.brewery.storage.records.SerializableBPlayer;
+import com.dre.brewery.storage.records.SerializableBarrel;
+import com.dre.brewery.storage.records.SerializableCauldron;
+import com.dre.brewery.storage.records.SerializableWakeup;
+import com.dre.brewery.storage.serialization.SQLDataSerializer;
+import com.dre.brewery.storage.wal.WriteAheadLog;
+import com.dre.brewery.utility.FutureUtil;
+import com.dre.brewery.utility.Logging;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Local storage in a {@link WriteAheadLog}, in the folder {@code <database>-wal}.
+ * <p>Every save only appends the records that changed, instead of rewriting the whole file like FlatFile.
+ * Records are stored as JSON, like the data column of the SQL storages.
+ */
+public class WALStorage extends DataManager {
+
+    private final WriteAheadLog wal;
+    private final SQLDataSerializer serializer;
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private volatile boolean closed;
+
+    public WALStorage(ConfiguredDataManager record) throws StorageInitException {
+        super(record.getType());
+        this.serializer = new SQLDataSerializer();
+        String folderName = record.getDatabase() + "-wal";
+        try {
+            this.wal = WriteAheadLog.open(new File(plugin.getDataFolder(), folderName));
+        } catch (IOException e) {
+            throw new StorageInitException("Failed to open write-ahead log! " + folderName, e);
+        }
+        if (wal.getDiscardedBytes() > 0) {
+            Logging.warningLog("The write-ahead log was not closed properly, discarded " + wal.getDiscardedBytes() + " bytes of incomplete changes.");
+        }
+    }
+
+    @Override
+    protected void closeConnection() {
+        closed = true;
+        try {
+            // Inline, no tasks can be scheduled anymore on shutdown. Closing waits for a running compaction
+            if (wal.needsCompaction()) {
+                wal.compact();
+            }
+            wal.close();
+        } catch (IOException e) {
+            Logging.errorLog("Failed to close write-ahead log!", e);
+        }
+    }
+
+    private byte[] serialize(SerializableThing thing) {
+        return serializer.getGson().toJson(thing).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private <T> T deserialize(byte[] data, Class<T> type) {
+        return serializer.getGson().fromJson(new String(data, StandardCharsets.UTF_8), type);
+    }
+
+    // Compaction rewrites all records, never on the thread that saved
+    private void compactIfNeeded() {
+        if (closed || !plugin.isEnabled() || !wal.needsCompaction() || !compacting.compareAndSet(false, true)) {
+            return;
+        }
+        BreweryPlugin.getScheduler().runTaskAsynchronously(() -> {
+            try {
+                long start = System.currentTimeMillis();
+                wal.compact();
+                Logging.debugLog("Compacted write-ahead log in " + (System.currentTimeMillis() - start) + "ms");
+            } catch (IOException e) {
+                Logging.errorLog("Failed to compact write-ahead log!", e);
+            } finally {
+                compacting.set(false);
+            }
+        });
+    }
+
+    @Override
+    public boolean createTable(String name, int maxIdLength) {
+        try {
+            return wal.createTable(name);
+        } catch (IOException e) {
+            Logging.errorLog("Failed to create table: " + name + " in write-ahead log!", e);
+        }
+        return false;
+    }
+
+    @Override
+    public boolean dropTable(String name) {
+        try {
+            wal.dropTable(name);
+            return true;
+        } catch (IOException e) {
+            Logging.errorLog("Failed to drop table: " + name + " in write-ahead log!", e);
+        }
+        return false;
+    }
+
+    @Override
+    public <T extends SerializableThing> T getGeneric(String id, String table, Class<T> type) {
+        byte[] data = wal.get(table, id);
+        return data != null ? deserialize(data, type) : null;
+    }
+
+    @Override
+    public <T extends SerializableThing> List<T> getAllGeneric(String table, Class<T> type) {
+        List<T> objects = new ArrayList<>();
+        for (byte[] data : wal.records(table).values()) {
+            objects.add(deserialize(data, type));
+        }
+        return objects;
+    }
+
+    @Override
+    public <T extends SerializableThing> void saveAllGeneric(List<T> serializableThings, String table, @Nullable Class<T> type) {
+        try {
+            wal.putAll(table, serializeAll(serializableThings), true);
+            wal.sync();
+        } catch (IOException e) {
+            Logging.errorLog("Failed to save objects to: " + table + " in write-ahead log!", e);
+        }
+        compactIfNeeded();
+    }
+
+    @Override
+    public <T extends SerializableThing> void saveGeneric(T serializableThing, String table) {
+        try {
+            wal.put(table, serializableThing.getId(), serialize(serializableThing));
+        } catch (IOException e) {
+            Logging.errorLog("Failed to save object to: " + table + " in write-ahead log!", e);
+        }
+        compactIfNeeded();
+    }
+
+    private Map<String, byte[]> serializeAll(List<? extends SerializableThing> serializableThings) {
+        Map<String, byte[]> records = new LinkedHashMap<>();
+        for (SerializableThing thing : serializableThings) {
+            records.put(thing.getId(), serialize(thing));
+        }
+        return records;
+    }
+
+    @Override
+    public <T extends SerializableThing> List<T> getGenericPage(String table, Class<T> type, @Nullable String afterId, int limit) {
+        NavigableMap<String, byte[]> records = wal.records(table);
+        List<T> page = new ArrayList<>(limit);
+        for (byte[] data : (afterId != null ? records.tailMap(afterId, false) : records).values()) {
+            if (page.size() >= limit) {
+                break;
+            }
+            page.add(deserialize(data, type));
+        }
+        return page;
+    }
+
+    @Override
+    public <T extends SerializableThing> long countGeneric(String table, Class<T> type) {
+        return wal.records(table).size();
+    }
+
+    @Override
+    public <T extends SerializableThing> boolean saveGenericBatch(List<T> serializableThings, String table, Class<T> type) {
+        try {
+            wal.putAll(table, serializeAll(serializableThings), false);
+            wal.sync();
+            return true;
+        } catch (IOException e) {
+            Logging.errorLog("Failed to save objects to: " + table + " in write-ahead log!", e);
+            return false;
+        } finally {
+            compactIfNeeded();
+        }
+    }
+
+    @Override
+    public void deleteGeneric(String id, String table) {
+        try {
+            wal.delete(table, id);
+        } catch (IOException e) {
+            Logging.errorLog("Failed to delete object from: " + table + " in write-ahead log!", e);
+        }
+        compactIfNeeded();
+    }
+
+    @Override
+    public CompletableFuture<Barrel> getBarrel(UUID id) {
+        SerializableBarrel serializableBarrel = getGeneric(id.toString(), "barrels", SerializableBarrel.class);
+        if (serializableBarrel != null) {
+            return serializableBarrel.toBarrel();
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<List<Barrel>> getAllBarrels() {
+        return FutureUtil.mergeFutures(
+            getAllGeneric("barrels", SerializableBarrel.class).stream()
+                .map(SerializableBarrel::toBarrel)
+                .toList()
+        );
+    }
+
+    @Override
+    public void saveAllBarrels(Collection<Barrel> barrels) {
+        List<SerializableBarrel> serializableBarrels = barrels.stream()
+            .filter(it -> it.getBounds() != null)
+            .map(SerializableBarrel::new)
+            .toList();
+        saveAllGeneric(serializableBarrels, "barrels", SerializableBarrel.class);
+    }
+
+    @Override
+    public void saveBarrel(Barrel barrel) {
+        saveGeneric(new SerializableBarrel(barrel), "barrels");
+    }
+
+    @Override
+    public void deleteBarrel(UUID id) {
+        deleteGeneric(id.toString(), "barrels");
+    }
+
+    @Override
+    public BCauldron getCauldron(UUID id) {
+        SerializableCauldron serializableCauldron = getGeneric(id.toString(), "cauldrons", SerializableCauldron.class);
+        if (serializableCauldron != null) {
+            return serializableCauldron.toCauldron();
+        }
+        return null;
+    }
+
+    @Override
+    public Collection<BCauldron> getAllCauldrons() {
+        return getAllGeneric("cauldrons", SerializableCauldron.class).stream()
+            .map(SerializableCauldron::toCauldron)
+            .toList();
+    }
+
+    @Override
+    public void saveAllCauldrons(Collection<BCauldron> cauldrons) {
+        List<SerializableCauldron> serializableCauldrons = cauldrons.stream()
+            .map(SerializableCauldron::new)
+            .toList();
+        saveAllGeneric(serializableCauldrons, "cauldrons", SerializableCauldron.class);
+    }
+
+    @Override
+    public void saveCauldron(BCauldron cauldron) {
+        saveGeneric(new SerializableCauldron(cauldron), "cauldrons");
+    }
+
+    @Override
+    public void deleteCauldron(UUID id) {
+        deleteGeneric(id.toString(), "cauldrons");
+    }
+
+    @Override
+    public BPlayer getPlayer(UUID playerUUID) {
+        SerializableBPlayer serializableBPlayer = getGeneric(playerUUID.toString(), "players", SerializableBPlayer.class);
+        if (serializableBPlayer != null) {
+            return serializableBPlayer.toBPlayer();
+        }
+        return null;
+    }
+
+    @Override
+    public Collection<BPlayer> getAllPlayers() {
+        return getAllGeneric("players", SerializableBPlayer.class).stream()
+            .map(SerializableBPlayer::toBPlayer)
+            .toList();
+    }
+
+    @Override
+    public void saveAllPlayers(Collection<BPlayer> players) {
+        List<SerializableBPlayer> serializableBPlayers = players.stream()
+            .map(SerializableBPlayer::new)
+            .toList();
+        saveAllGeneric(serializableBPlayers, "players", SerializableBPlayer.class);
+    }
+
+    @Override
+    public void savePlayer(BPlayer player) {
+        saveGeneric(new SerializableBPlayer(player), "players");
+    }
+
+    @Override
+    public void deletePlayer(UUID playerUUID) {
+        deleteGeneric(playerUUID.toString(), "players");
+    }
+
+    @Override
+    public Wakeup getWakeup(UUID id) {
+        SerializableWakeup serializableWakeup = getGeneric(id.toString(), "wakeups", SerializableWakeup.class);
+        if (serializableWakeup != null) {
+            return serializableWakeup.toWakeup();
+        }
+        return null;
+    }
+
+    @Override
+    public Collection<Wakeup> getAllWakeups() {
+        return getAllGeneric("wakeups", SerializableWakeup.class).stream()
+            .map(SerializableWakeup::toWakeup)
+            .toList();
+    }
+
+    @Override
+    public void saveAllWakeups(Collection<Wakeup> wakeups) {
+        List<SerializableWakeup> serializableWakeups = wakeups.stream()
+            .map(SerializableWakeup::new)
+            .toList();
+        saveAllGeneric(serializableWakeups, "wakeups", SerializableWakeup.class);
+    }
+
+    @Override
+    public void saveWakeup(Wakeup wakeup) {
+        saveGeneric(new SerializableWakeup(wakeup), "wakeups");
+    }
+
+    @Override
+    public void deleteWakeup(UUID id) {
+        deleteGeneric(id.toString(), "wakeups");
+    }
+
+    @Override
+    public BreweryMiscData getBreweryMiscData() {
+        BreweryMiscData data = getGeneric("misc", "misc", BreweryMiscData.class);
+        if (data != null) {
+            return data;
+        }
+        return new BreweryMiscData(System.currentTimeMillis(), 0, new ArrayList<>(), new ArrayList<>(), 0);
+    }
+
+    @Override
+    public void saveBreweryMiscData(BreweryMiscData data) {
+        saveGeneric(data, "misc");
+    }
+}
@@ -21,6 +21,7 @@
 package com.dre.brewery.storage.interfaces;
 
 import com.dre.brewery.storage.DataManager;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Allows an external class (a class outside or inside) of this Plugin to be auto-saved by Brewery.
@@ -50,6 +51,17 @@ public interface ExternallyAutoSavable {
         return 36; // Standard UUID length is 36
     }
 
+    /**
+     * The type of the records saved in the table.
+     * Needed to copy the table when migrating to another storage type with /brew data migrate.
+     *
+     * @return The record type, or null if the table can not be migrated
+     */
+    @Nullable
+    default Class<? extends SerializableThing> dataType() {
+        return null;
+    }
+
     /**
      * Fired when Brewery is handling its auto-save task.
      *
@@ -22,15 +22,23 @@ package com.dre.brewery.storage.records;
 
 import com.dre.brewery.storage.interfaces.SerializableThing;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.util.List;
 
 /**
  * Miscellaneous save data about brewery.
  * These were added by the original author(s) and their source/usage hasn't been completely
  * read through by me.
+ *
+ * @param reencodedSeeds Previous seeds that no brew in a barrel used anymore on the last re-encoding pass, null in data from older versions
  */
 public record BreweryMiscData(long installTime, long mcBarrelTime, List<Long> prevSaveSeeds, List<Integer> brewsCreated,
-                              int brewsCreatedHash) implements SerializableThing {
+                              int brewsCreatedHash, @Nullable List<Long> reencodedSeeds) implements SerializableThing {
+
+    public BreweryMiscData(long installTime, long mcBarrelTime, List<Long> prevSaveSeeds, List<Integer> brewsCreated, int brewsCreatedHash) {
+        this(installTime, mcBarrelTime, prevSaveSeeds, brewsCreated, brewsCreatedHash, null);
+    }
 
     @Override
     public String getId() {
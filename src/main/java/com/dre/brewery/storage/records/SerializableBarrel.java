@@ -21,12 +21,15 @@
 package com.dre.brewery.storage.records;
 
 import com.dre.brewery.Barrel;
+import com.dre.brewery.BarrelFacing;
+import com.dre.brewery.BarrelWoodType;
 import com.dre.brewery.storage.DataManager;
 import com.dre.brewery.storage.interfaces.SerializableThing;
-import com.dre.brewery.storage.serialization.BukkitSerialization;
 import com.dre.brewery.utility.BUtil;
 import com.dre.brewery.utility.BoundingBox;
 import org.bukkit.Location;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -39,12 +42,17 @@ import java.util.concurrent.CompletableFuture;
  * @param bounds             The bounds of the barrel
  * @param time               no idea
  * @param sign               The sign byte offset the barrel
- * @param serializedItems    Serialized ItemStacks 'BukkitSerialization.itemStackArrayToBase64(ItemStack[])'
+ * @param serializedItems    Serialized ItemStacks 'Barrel.serializeItems()'
+ * @param small              If the barrel is small, null in data from older versions
+ * @param facing             The BarrelFacing name, null if not known
+ * @param wood               The BarrelWoodType name, null if not known
  */
 public record SerializableBarrel(String id, String serializedLocation, List<Integer> bounds, float time, byte sign,
-                                 String serializedItems) implements SerializableThing {
+                                 String serializedItems, @Nullable Boolean small, @Nullable String facing,
+                                 @Nullable String wood) implements SerializableThing {
     public SerializableBarrel(Barrel barrel) {
-        this(barrel.getId().toString(), DataManager.serializeLocation(barrel.getSpigot().getLocation()), barrel.getBounds().serializeToIntList(), barrel.getTime(), barrel.getSignoffset(), BukkitSerialization.itemStackArrayToBase64(barrel.getInventory().getContents()));
+        this(barrel.getId().toString(), DataManager.serializeLocation(barrel.getSpigot().getLocation()), barrel.getBounds().serializeToIntList(), barrel.getTime(), barrel.getSignoffset(), barrel.serializeItems(),
+            barrel.isSmall(), barrel.getFacing() != null ? barrel.getFacing().name() : null, barrel.getWoodType() != null ? barrel.getWoodType().name() : null);
     }
 
     public CompletableFuture<Barrel> toBarrel() {
@@ -52,9 +60,13 @@ public record SerializableBarrel(String id, String serializedLocation, List<Inte
         if (loc == null) {
             return CompletableFuture.completedFuture(null);
         }
-        return Barrel.computeSmall(loc).thenApplyAsync(small ->
-            new Barrel(loc.getBlock(), sign, BoundingBox.fromPoints(bounds), BukkitSerialization.itemStackArrayFromBase64(serializedItems), time, BUtil.uuidFromString(id), small)
-        );
+        BoundingBox boundingBox = BoundingBox.fromPoints(bounds);
+        return Barrel.computeSmall(loc, small, boundingBox).thenApplyAsync(isSmall -> {
+            Barrel barrel = new Barrel(loc.getBlock(), sign, boundingBox, (ItemStack[]) null, time, BUtil.uuidFromString(id), isSmall);
+            barrel.loadItems(serializedItems);
+            barrel.loadShape(BUtil.getEnumByName(BarrelFacing.class, facing), BUtil.getEnumByName(BarrelWoodType.class, wood));
+            return barrel;
+        });
     }
 
     @Override
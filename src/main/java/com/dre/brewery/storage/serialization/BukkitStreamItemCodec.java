@@ -0,0 +1,54 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.storage.serialization;
+
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * The Bukkit object stream format of {@link BukkitSerialization}, works on every server.
+ */
+public class BukkitStreamItemCodec implements ItemStackCodec {
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public boolean canDecode(String data) {
+        // Anything that isn't from another codec
+        return !PAPER.canDecode(data);
+    }
+
+    @Override
+    public String encode(ItemStack[] items) {
+        return BukkitSerialization.itemStackArrayToBase64(items);
+    }
+
+    @Override
+    public ItemStack[] decode(String data) {
+        ItemStack[] items = BukkitSerialization.itemStackArrayFromBase64(data);
+        if (items == null) {
+            throw new IllegalStateException("Unable to decode stored items.");
+        }
+        return items;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.storage.serialization;
+
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Encodes the ItemStacks of an inventory, i.e. of a Barrel, into a String for storage.
+ * <p>Each codec recognizes its own payloads, so data written by any codec can always be read back with {@link #decodeAny(String)}
+ */
+public interface ItemStackCodec {
+
+    ItemStackCodec BUKKIT = new BukkitStreamItemCodec();
+    ItemStackCodec PAPER = new PaperItemCodec();
+
+    /**
+     * @return true if this codec can be used on this server
+     */
+    boolean isAvailable();
+
+    /**
+     * @return true if the data was written by this codec
+     */
+    boolean canDecode(String data);
+
+    String encode(ItemStack[] items);
+
+    /**
+     * @return The items
+     * @throws IllegalStateException if the data can't be decoded on this server
+     */
+    ItemStack[] decode(String data);
+
+    /**
+     * The fastest codec available on this server, Paper's native item bytes or the Bukkit object stream.
+     */
+    static ItemStackCodec preferred() {
+        return PAPER.isAvailable() ? PAPER : BUKKIT;
+    }
+
+    static String encodeItems(ItemStack[] items) {
+        return preferred().encode(items);
+    }
+
+    /**
+     * Decode items written by any codec.
+     *
+     * @return The items, or null if there is no data
+     * @throws IllegalStateException if the data can't be decoded on this server
+     */
+    @Nullable
+    static ItemStack[] decodeAny(@Nullable String data) {
+        if (data == null || data.isEmpty()) {
+            return null;
+        }
+        return PAPER.canDecode(data) ? PAPER.decode(data) : BUKKIT.decode(data);
+    }
+}
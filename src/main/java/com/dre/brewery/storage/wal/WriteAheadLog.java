@@ -0,0 +1,532 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.storage.wal;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append only log of record upserts and deletes, with all live records kept in memory.
+ * <p>The directory holds, N being the generation:
+ * <ul>
+ *     <li>{@code snapshot-N.dat}: every live record at the moment log-N was started</li>
+ *     <li>{@code log-N.dat}: all changes since then</li>
+ * </ul>
+ * Both are a header followed by entries of {@code [int length][int crc32][body]}.
+ * On open, the newest snapshot and the logs after it are memory mapped and replayed.
+ * Replay stops at the first torn or corrupt entry of a log, and the recovered state is compacted right away.
+ * <p>Writes only go to the OS, {@link #sync()} forces them to disk.
+ * The record data given to and returned from this log must never be modified.
+ */
+public final class WriteAheadLog implements Closeable {
+
+    private static final int MAGIC = 0x4257414C; // BWAL
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 5;
+    private static final int ENTRY_HEADER_SIZE = 8;
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte CREATE_TABLE = 3;
+    private static final byte DROP_TABLE = 4;
+
+    // Compact once the log is larger than this and larger than the live records
+    private static final long MIN_COMPACT_SIZE = 4L << 20;
+    private static final Pattern FILE_NAME = Pattern.compile("(snapshot|log)-(\\d+)\\.dat");
+
+    private final Path directory;
+    private final Map<String, ConcurrentSkipListMap<String, byte[]>> tables = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private final Object compactionLock = new Object(); // Held while a snapshot is written, close waits for it
+
+    private FileChannel log;
+    private long generation;
+    private long logSize;
+    private long liveSize;
+    private long discardedBytes;
+    private boolean closed;
+
+    private WriteAheadLog(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Opens the log in the given directory, creating it if needed, and reads all records into memory.
+     *
+     * @throws IOException if the files can not be read, or a snapshot is corrupt
+     */
+    public static WriteAheadLog open(File directory) throws IOException {
+        WriteAheadLog wal = new WriteAheadLog(directory.toPath());
+        wal.recover();
+        return wal;
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        TreeSet<Long> snapshots = new TreeSet<>();
+        TreeSet<Long> logs = new TreeSet<>();
+        for (Path file : list()) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(".tmp")) {
+                // Snapshot that was never finished
+                Files.deleteIfExists(file);
+                continue;
+            }
+            Matcher matcher = FILE_NAME.matcher(name);
+            if (matcher.matches()) {
+                (matcher.group(1).equals("snapshot") ? snapshots : logs).add(Long.parseLong(matcher.group(2)));
+            }
+        }
+
+        long base = snapshots.isEmpty() ? 0 : snapshots.last();
+        if (!snapshots.isEmpty()) {
+            Path snapshot = file("snapshot", base);
+            if (replay(snapshot) < Files.size(snapshot)) {
+                throw new IOException(snapshot.getFileName() + " is corrupt");
+            }
+        }
+        generation = base;
+        for (long gen : logs.tailSet(base, true)) {
+            Path logFile = file("log", gen);
+            long size = Files.size(logFile);
+            long valid = replay(logFile);
+            discardedBytes += size - valid;
+            generation = gen;
+        }
+
+        log = openLog(generation);
+        logSize = log.size();
+        if (discardedBytes > 0) {
+            // Never append behind a broken entry, continue with a clean snapshot instead
+            compact();
+        } else {
+            // Logs after the snapshot are still needed if a compaction was interrupted
+            deleteBefore(base);
+        }
+    }
+
+    /**
+     * Replays the entries of a file into memory.
+     *
+     * @return The offset after the last valid entry
+     */
+    private long replay(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                // Nothing or a torn header
+                return 0;
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(file.getFileName() + " is too large to be mapped");
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (map.getInt() != MAGIC) {
+                throw new IOException(file.getFileName() + " is not a BreweryX log");
+            }
+            if (map.get() != VERSION) {
+                throw new IOException(file.getFileName() + " has an unknown version");
+            }
+            CRC32 crc = new CRC32();
+            while (map.remaining() >= ENTRY_HEADER_SIZE) {
+                int start = map.position();
+                int length = map.getInt();
+                int checksum = map.getInt();
+                if (length <= 0 || length > map.remaining()) {
+                    return start;
+                }
+                ByteBuffer body = map.slice(map.position(), length);
+                crc.reset();
+                crc.update(body.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    return start;
+                }
+                apply(body);
+                map.position(start + ENTRY_HEADER_SIZE + length);
+            }
+            return map.position();
+        }
+    }
+
+    private void apply(ByteBuffer body) {
+        byte op = body.get();
+        String table = readString(body);
+        switch (op) {
+            case PUT -> {
+                String id = readString(body);
+                byte[] data = new byte[body.remaining()];
+                body.get(data);
+                putLocal(table, id, data);
+            }
+            case DELETE -> deleteLocal(table, readString(body));
+            case CREATE_TABLE -> tables.computeIfAbsent(table, t -> new ConcurrentSkipListMap<>());
+            case DROP_TABLE -> dropLocal(table);
+            default -> throw new IllegalStateException("Unknown log entry " + op);
+        }
+    }
+
+
+    // Reading
+
+    @Nullable
+    public byte[] get(String table, String id) {
+        Map<String, byte[]> records = tables.get(table);
+        return records != null ? records.get(id) : null;
+    }
+
+    /**
+     * @return Unmodifiable view of the records of the table, sorted by id
+     */
+    public NavigableMap<String, byte[]> records(String table) {
+        NavigableMap<String, byte[]> records = tables.get(table);
+        return records != null ? Collections.unmodifiableNavigableMap(records) : Collections.emptyNavigableMap();
+    }
+
+    public boolean hasTable(String table) {
+        return tables.containsKey(table);
+    }
+
+    /**
+     * @return The amount of bytes cut off broken logs while opening
+     */
+    public long getDiscardedBytes() {
+        return discardedBytes;
+    }
+
+
+    // Writing
+
+    /**
+     * @return false if the table already existed
+     */
+    public boolean createTable(String table) throws IOException {
+        synchronized (lock) {
+            if (tables.containsKey(table)) {
+                return false;
+            }
+            append(List.of(entry(CREATE_TABLE, table, null, null)));
+            tables.put(table, new ConcurrentSkipListMap<>());
+            return true;
+        }
+    }
+
+    public void dropTable(String table) throws IOException {
+        synchronized (lock) {
+            if (!tables.containsKey(table)) {
+                return;
+            }
+            append(List.of(entry(DROP_TABLE, table, null, null)));
+            dropLocal(table);
+        }
+    }
+
+    public void put(String table, String id, byte[] data) throws IOException {
+        synchronized (lock) {
+            if (Arrays.equals(get(table, id), data)) {
+                return;
+            }
+            append(List.of(entry(PUT, table, id, data)));
+            putLocal(table, id, data);
+        }
+    }
+
+    /**
+     * Writes all records in one append, unchanged records are skipped.
+     *
+     * @param replace Delete all other records of the table
+     */
+    public void putAll(String table, Map<String, byte[]> records, boolean replace) throws IOException {
+        synchronized (lock) {
+            List<byte[]> entries = new ArrayList<>();
+            List<String> deleted = new ArrayList<>();
+            Map<String, byte[]> current = tables.get(table);
+            if (replace && current != null) {
+                for (String id : current.keySet()) {
+                    if (!records.containsKey(id)) {
+                        entries.add(entry(DELETE, table, id, null));
+                        deleted.add(id);
+                    }
+                }
+            }
+            Map<String, byte[]> changed = new HashMap<>();
+            for (Map.Entry<String, byte[]> record : records.entrySet()) {
+                if (!Arrays.equals(current != null ? current.get(record.getKey()) : null, record.getValue())) {
+                    entries.add(entry(PUT, table, record.getKey(), record.getValue()));
+                    changed.put(record.getKey(), record.getValue());
+                }
+            }
+            if (entries.isEmpty()) {
+                return;
+            }
+            append(entries);
+            deleted.forEach(id -> deleteLocal(table, id));
+            changed.forEach((id, data) -> putLocal(table, id, data));
+        }
+    }
+
+    public void delete(String table, String id) throws IOException {
+        synchronized (lock) {
+            if (get(table, id) == null) {
+                return;
+            }
+            append(List.of(entry(DELETE, table, id, null)));
+            deleteLocal(table, id);
+        }
+    }
+
+    /**
+     * Forces everything written so far to the disk.
+     */
+    public void sync() throws IOException {
+        synchronized (lock) {
+            if (!closed) {
+                log.force(false);
+            }
+        }
+    }
+
+    private void append(List<byte[]> entries) throws IOException {
+        if (closed) {
+            throw new IOException("The log is closed");
+        }
+        int length = 0;
+        for (byte[] entry : entries) {
+            length += entry.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        entries.forEach(buffer::put);
+        buffer.flip();
+
+        long start = logSize;
+        try {
+            while (buffer.hasRemaining()) {
+                log.write(buffer, logSize + buffer.position());
+            }
+        } catch (IOException e) {
+            // Don't leave half an entry in front of the next one
+            log.truncate(start);
+            throw e;
+        }
+        logSize += length;
+    }
+
+    private void putLocal(String table, String id, byte[] data) {
+        byte[] previous = tables.computeIfAbsent(table, t -> new ConcurrentSkipListMap<>()).put(id, data);
+        if (previous != null) {
+            liveSize -= snapshotSize(table, id, previous);
+        }
+        liveSize += snapshotSize(table, id, data);
+    }
+
+    private void deleteLocal(String table, String id) {
+        Map<String, byte[]> records = tables.get(table);
+        byte[] previous = records != null ? records.remove(id) : null;
+        if (previous != null) {
+            liveSize -= snapshotSize(table, id, previous);
+        }
+    }
+
+    private void dropLocal(String table) {
+        Map<String, byte[]> records = tables.remove(table);
+        if (records != null) {
+            records.forEach((id, data) -> liveSize -= snapshotSize(table, id, data));
+        }
+    }
+
+    // Roughly the size of the entry in a snapshot, ids and table names are mostly ASCII
+    private static long snapshotSize(String table, String id, byte[] data) {
+        return ENTRY_HEADER_SIZE + 5 + table.length() + id.length() + data.length;
+    }
+
+
+    // Compaction
+
+    /**
+     * @return true if the log has grown so much that it should be compacted
+     */
+    public boolean needsCompaction() {
+        synchronized (lock) {
+            return !closed && logSize > MIN_COMPACT_SIZE && logSize > liveSize;
+        }
+    }
+
+    /**
+     * Starts a new log and writes all live records into a snapshot for it, then deletes the old files.
+     * <p>Only the start is blocking, writes can continue while the snapshot is written.
+     * Does nothing once the log is closed.
+     */
+    public void compact() throws IOException {
+        synchronized (compactionLock) {
+            long gen;
+            Map<String, NavigableMap<String, byte[]>> state = new TreeMap<>();
+            synchronized (lock) {
+                if (closed) {
+                    return;
+                }
+                gen = generation + 1;
+                FileChannel next = openLog(gen);
+                log.force(false);
+                log.close();
+                log = next;
+                logSize = next.size();
+                generation = gen;
+                // Only the maps are copied, the record data is never modified
+                tables.forEach((table, records) -> state.put(table, new TreeMap<>(records)));
+            }
+
+            Path snapshot = file("snapshot", gen);
+            Path tmp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16)) {
+                out.write(header());
+                for (Map.Entry<String, NavigableMap<String, byte[]>> table : state.entrySet()) {
+                    out.write(entry(CREATE_TABLE, table.getKey(), null, null));
+                    for (Map.Entry<String, byte[]> record : table.getValue().entrySet()) {
+                        out.write(entry(PUT, table.getKey(), record.getKey(), record.getValue()));
+                    }
+                }
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(tmp, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            deleteBefore(gen);
+        }
+    }
+
+    private void deleteBefore(long gen) throws IOException {
+        for (Path file : list()) {
+            Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+            if (matcher.matches() && Long.parseLong(matcher.group(2)) < gen) {
+                try {
+                    Files.delete(file);
+                } catch (IOException ignored) {
+                    // Can fail while the file is still mapped on Windows, it is deleted on a later compaction or start
+                }
+            }
+        }
+    }
+
+    private List<Path> list() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+
+    /**
+     * Closes the log, after waiting for a running compaction to finish its snapshot.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (compactionLock) {
+            synchronized (lock) {
+                if (closed) {
+                    return;
+                }
+                log.force(true);
+                log.close();
+                closed = true;
+            }
+        }
+    }
+
+
+    // Encoding
+
+    private Path file(String kind, long gen) {
+        return directory.resolve(kind + "-" + gen + ".dat");
+    }
+
+    private FileChannel openLog(long gen) throws IOException {
+        FileChannel channel = FileChannel.open(file("log", gen), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            channel.write(ByteBuffer.wrap(header()), 0);
+        }
+        return channel;
+    }
+
+    private static byte[] header() {
+        return ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).put(VERSION).array();
+    }
+
+    private static byte[] entry(byte op, String table, @Nullable String id, @Nullable byte[] data) {
+        byte[] tableBytes = table.getBytes(StandardCharsets.UTF_8);
+        byte[] idBytes = id != null ? id.getBytes(StandardCharsets.UTF_8) : null;
+        int length = 1 + 2 + tableBytes.length + (idBytes != null ? 2 + idBytes.length : 0) + (data != null ? data.length : 0);
+
+        ByteBuffer buffer = ByteBuffer.allocate(ENTRY_HEADER_SIZE + length);
+        buffer.position(ENTRY_HEADER_SIZE);
+        buffer.put(op);
+        writeString(buffer, tableBytes);
+        if (idBytes != null) {
+            writeString(buffer, idBytes);
+        }
+        if (data != null) {
+            buffer.put(data);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), ENTRY_HEADER_SIZE, length);
+        buffer.putInt(0, length).putInt(4, (int) crc.getValue());
+        return buffer.array();
+    }
+
+    private static void writeString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Table names and ids can not be longer than 65535 bytes");
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
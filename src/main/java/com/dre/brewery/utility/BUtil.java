@@ -55,6 +55,7 @@ import java.util.OptionalDouble;
 import java.util.OptionalInt;
 import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -72,6 +73,7 @@ public final class BUtil {
     private static final String WITH_DELIMITER = "((?<=%1$s)|(?=%1$s))";
     private static final MinecraftVersion VERSION = BreweryPlugin.getMCVersion();
     private static final Pattern RANGE_PATTERN = Pattern.compile("([-+]?\\d+)\\.\\.([-+]?\\d+)");
+    private static final Map<String, Integer> despawnRates = new ConcurrentHashMap<>();
 
     /**
      * Check if the Chunk of a Block is loaded !without loading it in the process!
@@ -516,10 +518,17 @@ public final class BUtil {
     }
 
 
+    /**
+     * The item-despawn-rate of this World from the spigot.yml, cached as the spigot.yml is only read on startup.
+     */
     public static int getItemDespawnRate(World world) {
+        return despawnRates.computeIfAbsent(world.getName(), BUtil::readItemDespawnRate);
+    }
+
+    private static int readItemDespawnRate(String worldName) {
         YamlConfiguration spigotConfig = Bukkit.spigot().getConfig();
 
-        int worldDespawnRate = spigotConfig.getInt("world-settings." + world.getName() + ".item-despawn-rate", -1);
+        int worldDespawnRate = spigotConfig.getInt("world-settings." + worldName + ".item-despawn-rate", -1);
         if (worldDespawnRate < 0) {
             return spigotConfig.getInt("world-settings.default.item-despawn-rate", 6000);
         }
@@ -48,6 +48,24 @@ public final class NBTUtil {
         }
     }
 
+    @SuppressWarnings("deprecation")
+    public static void writeIntItem(int value, ItemMeta meta, NamespacedKey key) {
+        if (NewNbtVer) {
+            meta.getPersistentDataContainer().set(key, org.bukkit.persistence.PersistentDataType.INTEGER, value);
+        } else {
+            meta.getCustomTagContainer().setCustomTag(key, org.bukkit.inventory.meta.tags.ItemTagType.INTEGER, value);
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    public static Integer readIntItem(ItemMeta meta, NamespacedKey key) {
+        if (NewNbtVer) {
+            return meta.getPersistentDataContainer().get(key, org.bukkit.persistence.PersistentDataType.INTEGER);
+        } else {
+            return meta.getCustomTagContainer().getCustomTag(key, org.bukkit.inventory.meta.tags.ItemTagType.INTEGER);
+        }
+    }
+
     @SuppressWarnings("deprecation")
     public static boolean hasBytesItem(ItemMeta meta, NamespacedKey key) {
         if (NewNbtVer) {
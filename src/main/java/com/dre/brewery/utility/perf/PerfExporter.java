@@ -0,0 +1,89 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.utility.perf;
+
+import com.dre.brewery.configuration.ConfigManager;
+import com.dre.brewery.configuration.files.Config;
+import com.dre.brewery.utility.Logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Writes the metrics to a file in the Prometheus text format, for the textfile collector of the node exporter.
+ * <p>Runs asynchronously every few seconds and writes whenever the configured interval has passed.
+ * The file is written to a temporary file first and then moved over, so a collector never reads half a file.
+ */
+public class PerfExporter implements Runnable {
+
+    public static final String FILE_NAME = "breweryx.prom";
+
+    private final Path file;
+    private final Path tempFile;
+    private long lastExport;
+    private boolean failed;
+
+    public PerfExporter(File dataFolder) {
+        Path folder = dataFolder.toPath().resolve("metrics");
+        this.file = folder.resolve(FILE_NAME);
+        this.tempFile = folder.resolve(FILE_NAME + ".tmp");
+    }
+
+    @Override
+    public void run() {
+        int interval = ConfigManager.getConfig(Config.class).getMetricsExportInterval();
+        if (interval <= 0) return;
+        long now = System.currentTimeMillis();
+        if (now - lastExport < interval * 1000L) return;
+        lastExport = now;
+        try {
+            export();
+            failed = false;
+        } catch (IOException e) {
+            // Only log once until it works again, this runs every few seconds
+            if (!failed) {
+                Logging.errorLog("Could not write the metrics to " + file, e);
+            }
+            failed = true;
+        }
+    }
+
+    /**
+     * Write the metrics now, also used by /brew perf export.
+     */
+    public void export() throws IOException {
+        // The command may export while the timer does, both use the same temporary file
+        synchronized (PerfExporter.class) {
+            Files.createDirectories(file.getParent());
+            Files.writeString(tempFile, PerfMetrics.toPrometheus(), StandardCharsets.UTF_8);
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+}
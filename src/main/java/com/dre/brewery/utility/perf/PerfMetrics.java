@@ -0,0 +1,377 @@
+/*
+ * BreweryX Bukkit-Plugin for an alternate brewing process
+ * Copyright (C) 2024 The Brewery Team
+ *
+ * This file is part of BreweryX.
+ *
+ * BreweryX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * BreweryX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with BreweryX. If not, see <http://www.gnu.org/licenses/gpl-3.0.html>.
+ */
+
+package com.dre.brewery.utility.perf;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of the performance metrics BreweryX keeps about itself.
+ * <p>Counters, timers with a fixed histogram and gauges, identified by name and labels.
+ * Shown in /brew perf and optionally exported in the Prometheus text format by {@link PerfExporter}.
+ * <p>Recording is lock free, so the hot paths may keep a metric in a static field and record from any thread.
+ */
+public final class PerfMetrics {
+
+    // Histogram bucket bounds of all timers, in seconds
+    private static final double[] BUCKETS = { 0.0001, 0.0005, 0.001, 0.005, 0.01, 0.05, 0.1, 0.5, 1, 5 };
+
+    private static final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+    private PerfMetrics() {
+    }
+
+    /**
+     * Get or create the counter with this name and labels.
+     *
+     * @param name   Name of the metric, should end in _total
+     * @param help   Description of the metric
+     * @param labels Label names and values, alternating
+     */
+    public static Counter counter(String name, String help, String... labels) {
+        return register(new Counter(name, help, labels, null));
+    }
+
+    /**
+     * Register a counter whose value is read from somewhere else, replacing an earlier one with the same name and labels.
+     */
+    public static Counter counter(String name, String help, LongSupplier value, String... labels) {
+        Counter counter = new Counter(name, help, labels, value);
+        metrics.put(counter.key, counter);
+        return counter;
+    }
+
+    /**
+     * Get or create the timer with this name and labels.
+     *
+     * @param name   Name of the metric, should end in _seconds
+     * @param help   Description of the metric
+     * @param labels Label names and values, alternating
+     */
+    public static Timer timer(String name, String help, String... labels) {
+        return register(new Timer(name, help, labels));
+    }
+
+    /**
+     * Register a gauge, replacing an earlier one with the same name and labels.
+     */
+    public static Gauge gauge(String name, String help, DoubleSupplier value, String... labels) {
+        Gauge gauge = new Gauge(name, help, labels, value);
+        metrics.put(gauge.key, gauge);
+        return gauge;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <M extends Metric> M register(M metric) {
+        Metric existing = metrics.putIfAbsent(metric.key, metric);
+        if (existing == null) {
+            return metric;
+        }
+        if (existing.getClass() != metric.getClass()) {
+            throw new IllegalArgumentException("Metric " + metric.key + " is already registered as " + existing.getClass().getSimpleName());
+        }
+        return (M) existing;
+    }
+
+    /**
+     * All metrics, sorted by name and labels.
+     */
+    public static List<Metric> getMetrics() {
+        return new ArrayList<>(metrics.values());
+    }
+
+    /**
+     * Take the per minute snapshots for the rates, called every minute by the heartbeat.
+     */
+    public static void tick() {
+        for (Metric metric : metrics.values()) {
+            metric.tick();
+        }
+    }
+
+    /**
+     * The whole registry in the Prometheus text exposition format.
+     */
+    public static String toPrometheus() {
+        StringBuilder out = new StringBuilder(4096);
+        String family = null;
+        for (Metric metric : metrics.values()) {
+            if (!metric.name.equals(family)) {
+                family = metric.name;
+                out.append("# HELP ").append(family).append(' ').append(metric.help).append('\n');
+                out.append("# TYPE ").append(family).append(' ').append(metric.type()).append('\n');
+            }
+            metric.writePrometheus(out);
+        }
+        return out.toString();
+    }
+
+    private static String formatLabels(String[] labels, @Nullable String extraName, @Nullable String extraValue) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels have to be name/value pairs");
+        }
+        if (labels.length == 0 && extraName == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) builder.append(',');
+            builder.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+        }
+        if (extraName != null) {
+            if (labels.length > 0) builder.append(',');
+            builder.append(extraName).append("=\"").append(extraValue).append('"');
+        }
+        return builder.append('}').toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String number(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return Double.isNaN(value) ? "NaN" : value > 0 ? "+Inf" : "-Inf";
+        }
+        if (value == (long) value) {
+            return Long.toString((long) value);
+        }
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+
+    public abstract static sealed class Metric permits Counter, Timer, Gauge {
+        protected final String name;
+        protected final String help;
+        protected final String[] labels;
+        protected final String labelString;
+        private final String key;
+
+        private Metric(String name, String help, String[] labels) {
+            this.name = name;
+            this.help = help;
+            this.labels = labels;
+            this.labelString = formatLabels(labels, null, null);
+            this.key = name + labelString;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * The labels as written in the Prometheus format, empty if there are none.
+         */
+        public String getLabelString() {
+            return labelString;
+        }
+
+        protected abstract String type();
+
+        protected abstract void writePrometheus(StringBuilder out);
+
+        protected void tick() {
+        }
+    }
+
+    /**
+     * A value that only goes up, i.e. how often something happened.
+     */
+    public static final class Counter extends Metric {
+        private final LongAdder count = new LongAdder();
+        @Nullable
+        private final LongSupplier source;
+        private long lastMinute;
+        private volatile long perMinute;
+
+        private Counter(String name, String help, String[] labels, @Nullable LongSupplier source) {
+            super(name, help, labels);
+            this.source = source;
+        }
+
+        public void increment() {
+            count.increment();
+        }
+
+        public void add(long amount) {
+            count.add(amount);
+        }
+
+        public long get() {
+            return source != null ? source.getAsLong() : count.sum();
+        }
+
+        /**
+         * @return By how much the counter went up in the last full minute
+         */
+        public long getPerMinute() {
+            return perMinute;
+        }
+
+        @Override
+        protected void tick() {
+            long now = get();
+            perMinute = now - lastMinute;
+            lastMinute = now;
+        }
+
+        @Override
+        protected String type() {
+            return "counter";
+        }
+
+        @Override
+        protected void writePrometheus(StringBuilder out) {
+            out.append(name).append(labelString).append(' ').append(get()).append('\n');
+        }
+    }
+
+    /**
+     * Durations of an operation, with a histogram over fixed buckets.
+     */
+    public static final class Timer extends Metric {
+        private final LongAdder[] buckets = new LongAdder[BUCKETS.length];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private volatile long lastNanos;
+
+        private Timer(String name, String help, String[] labels) {
+            super(name, help, labels);
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Record the time since start.
+         *
+         * @param startNanos The value of System.nanoTime() when the operation started
+         */
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        public void record(long nanos) {
+            double seconds = nanos / 1_000_000_000.0;
+            for (int i = 0; i < BUCKETS.length; i++) {
+                if (seconds <= BUCKETS[i]) {
+                    buckets[i].increment();
+                    break;
+                }
+            }
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            lastNanos = nanos;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public double getAverageMillis() {
+            long c = count.sum();
+            return c == 0 ? 0 : totalNanos.sum() / (c * 1_000_000.0);
+        }
+
+        public double getMaxMillis() {
+            return maxNanos.get() / 1_000_000.0;
+        }
+
+        public double getLastMillis() {
+            return lastNanos / 1_000_000.0;
+        }
+
+        /**
+         * Estimate of the given percentile, the upper bound of the bucket it falls in.
+         *
+         * @param percentile Between 0 and 1
+         * @return The estimate in milliseconds, or the max if it is above all buckets
+         */
+        public double getPercentileMillis(double percentile) {
+            long total = count.sum();
+            if (total == 0) return 0;
+            long needed = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS.length; i++) {
+                seen += buckets[i].sum();
+                if (seen >= needed) {
+                    return Math.min(BUCKETS[i] * 1000, getMaxMillis());
+                }
+            }
+            return getMaxMillis();
+        }
+
+        @Override
+        protected String type() {
+            return "histogram";
+        }
+
+        @Override
+        protected void writePrometheus(StringBuilder out) {
+            long cumulative = 0;
+            for (int i = 0; i < BUCKETS.length; i++) {
+                cumulative += buckets[i].sum();
+                out.append(name).append("_bucket").append(formatLabels(labels, "le", number(BUCKETS[i])))
+                    .append(' ').append(cumulative).append('\n');
+            }
+            long c = count.sum();
+            out.append(name).append("_bucket").append(formatLabels(labels, "le", "+Inf")).append(' ').append(c).append('\n');
+            out.append(name).append("_sum").append(labelString).append(' ').append(number(totalNanos.sum() / 1_000_000_000.0)).append('\n');
+            out.append(name).append("_count").append(labelString).append(' ').append(c).append('\n');
+        }
+    }
+
+    /**
+     * A value that is read when shown or exported, i.e. how many barrels are loaded.
+     */
+    public static final class Gauge extends Metric {
+        private final DoubleSupplier source;
+
+        private Gauge(String name, String help, String[] labels, DoubleSupplier source) {
+            super(name, help, labels);
+            this.source = source;
+        }
+
+        public double get() {
+            return source.getAsDouble();
+        }
+
+        @Override
+        protected String type() {
+            return "gauge";
+        }
+
+        @Override
+        protected void writePrometheus(StringBuilder out) {
+            out.append(name).append(labelString).append(' ').append(number(get())).append('\n');
+        }
+    }
+}
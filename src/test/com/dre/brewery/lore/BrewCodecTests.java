@@ -0,0 +1,249 @@
+package com.dre.brewery.lore;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.security.InvalidKeyException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round trip corpus making sure BrewCodec stays wire compatible with the old XOR/Base91 stream chain.
+ */
+public class BrewCodecTests {
+
+    private static final long[] SEEDS = {
+        0L, 1L, -1L, Long.MIN_VALUE, Long.MAX_VALUE, 0x5DEECE66DL, 4839261847561L, -7125698203985461L
+    };
+    private static final short[] IDS = { 1, -1, Short.MIN_VALUE, Short.MAX_VALUE, 0x1234, (short) 0xBEEF };
+
+    private static byte[] body(int len, long salt) {
+        byte[] body = new byte[len];
+        new Random(len * 31L + salt).nextBytes(body);
+        return body;
+    }
+
+    // Wire format as written by XORScrambleStream, but with a fixed id
+    private static byte[] streamScramble(long seed, short id, byte[] body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(BrewCodec.PARITY);
+        bytes.write(1);
+        bytes.write((byte) (id >> 8));
+        bytes.write((byte) id);
+        SeedInputStream xor = new SeedInputStream(seed ^ id);
+        bytes.write(((int) (seed >> 48) & 0xFF) ^ xor.read());
+        for (byte b : body) {
+            bytes.write(b ^ xor.read());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] readBody(BrewCodec.Reader reader, int len) throws IOException {
+        byte[] out = new byte[len];
+        for (int i = 0; i < len; i++) {
+            out[i] = reader.readByte();
+        }
+        return out;
+    }
+
+    @Test
+    public void keystreamMatchesSeedInputStream() {
+        for (long seed : SEEDS) {
+            for (int len = 0; len < 40; len++) {
+                byte[] expected = new byte[len];
+                new SeedInputStream(seed).read(expected, 0, len);
+                byte[] actual = new byte[len];
+                BrewCodec.xor(actual, 0, len, seed);
+                assertArrayEquals(expected, actual, "seed " + seed + " len " + len);
+            }
+        }
+    }
+
+    @Test
+    public void readsStreamScrambledData() throws Exception {
+        for (long seed : SEEDS) {
+            for (short id : IDS) {
+                for (int len = 0; len < 70; len += 3) {
+                    byte[] body = body(len, seed);
+                    BrewCodec.Reader reader = new BrewCodec.Reader(streamScramble(seed, id, body));
+                    assertTrue(reader.checkParity());
+                    assertEquals(1, reader.readByte());
+                    reader.unscramble(seed, null);
+                    assertEquals(XORUnscrambleStream.SuccessType.MAIN_SEED, reader.getSuccessType());
+                    assertArrayEquals(body, readBody(reader, len));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void readsXORScrambleStreamOutput() throws Exception {
+        for (long seed : SEEDS) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            XORScrambleStream scrambler = new XORScrambleStream(bytes, seed);
+            DataOutputStream out = new DataOutputStream(scrambler);
+            out.writeByte(BrewCodec.PARITY);
+            out.writeByte(1);
+            scrambler.start();
+            out.writeByte(7);
+            out.writeShort(-1234);
+            out.writeFloat(12.5F);
+            out.writeUTF("Fancy Beer");
+            out.writeInt(42);
+            out.close();
+
+            BrewCodec.Reader reader = new BrewCodec.Reader(bytes.toByteArray());
+            assertTrue(reader.checkParity());
+            assertEquals(1, reader.readByte());
+            reader.unscramble(seed, null);
+            assertEquals(7, reader.readByte());
+            assertEquals(-1234, reader.readShort());
+            assertEquals(12.5F, reader.readFloat());
+            assertEquals("Fancy Beer", reader.readUTF());
+            assertEquals(42, reader.remaining().readInt());
+        }
+    }
+
+    @Test
+    public void writerMatchesWireFormat() throws Exception {
+        for (long seed : SEEDS) {
+            for (int len = 0; len < 70; len += 5) {
+                byte[] body = body(len, seed);
+                BrewCodec.Writer writer = new BrewCodec.Writer();
+                writer.data().writeByte(BrewCodec.PARITY);
+                writer.data().writeByte(1);
+                writer.startScrambled(seed);
+                writer.data().write(body);
+                byte[] data = writer.finish();
+
+                short id = (short) ((data[2] & 0xFF) << 8 | (data[3] & 0xFF));
+                assertArrayEquals(streamScramble(seed, id, body), data);
+            }
+        }
+    }
+
+    @Test
+    public void unscrambledRoundTrip() throws Exception {
+        BrewCodec.Writer writer = new BrewCodec.Writer();
+        writer.data().writeByte(BrewCodec.PARITY);
+        writer.data().writeByte(1);
+        writer.startUnscrambled();
+        writer.data().writeUTF("Ünscrambled 🍺");
+        byte[] data = writer.finish();
+        assertEquals(0, data[2]);
+        assertEquals(0, data[3]);
+
+        BrewCodec.Reader reader = new BrewCodec.Reader(data);
+        assertTrue(reader.checkParity());
+        assertEquals(1, reader.readByte());
+        reader.unscramble(SEEDS[6], null);
+        assertEquals(XORUnscrambleStream.SuccessType.UNSCRAMBLED, reader.getSuccessType());
+        assertEquals("Ünscrambled 🍺", reader.readUTF());
+    }
+
+    @Test
+    public void fallsBackToPreviousSeeds() throws Exception {
+        List<Long> prevSeeds = new ArrayList<>();
+        prevSeeds.add(SEEDS[6]);
+        prevSeeds.add(SEEDS[7]);
+        byte[] body = body(33, 0);
+        BrewCodec.Reader reader = new BrewCodec.Reader(streamScramble(SEEDS[6], IDS[4], body));
+        reader.checkParity();
+        reader.readByte();
+        reader.unscramble(SEEDS[5], prevSeeds);
+        assertEquals(XORUnscrambleStream.SuccessType.PREV_SEED, reader.getSuccessType());
+        assertArrayEquals(body, readBody(reader, body.length));
+    }
+
+    private static byte[] writeScrambled(long seed, String text) throws IOException {
+        BrewCodec.Writer writer = new BrewCodec.Writer();
+        writer.data().writeByte(BrewCodec.PARITY);
+        writer.data().writeByte(1);
+        writer.startScrambled(seed);
+        writer.data().writeUTF(text);
+        return writer.finish();
+    }
+
+    @Test
+    public void generationPicksPreviousSeed() throws Exception {
+        for (long seed : SEEDS) {
+            BrewCodec.Keyring keyring = new BrewCodec.Keyring(~seed, List.of(seed, ~seed));
+            assertEquals(0, keyring.generationOf(seed));
+            assertEquals(1, keyring.generationOf(~seed));
+
+            BrewCodec.Reader reader = new BrewCodec.Reader(writeScrambled(seed, "Generation"));
+            reader.checkParity();
+            reader.readByte();
+            reader.unscramble(keyring, keyring.generationOf(seed));
+            assertEquals(XORUnscrambleStream.SuccessType.PREV_SEED, reader.getSuccessType());
+            assertEquals("Generation", reader.readUTF());
+        }
+    }
+
+    @Test
+    public void wrongGenerationFallsBack() throws Exception {
+        long main = SEEDS[6];
+        BrewCodec.Keyring keyring = new BrewCodec.Keyring(main, List.of(SEEDS[7], main));
+        for (int generation : new int[] { -1, 0, 5 }) {
+            byte[] body = body(20, generation);
+            BrewCodec.Reader reader = new BrewCodec.Reader(streamScramble(main, IDS[5], body));
+            reader.checkParity();
+            reader.readByte();
+            reader.unscramble(keyring, generation);
+            assertEquals(XORUnscrambleStream.SuccessType.MAIN_SEED, reader.getSuccessType());
+            assertArrayEquals(body, readBody(reader, body.length));
+        }
+    }
+
+    @Test
+    public void writtenIdsAreRandom() throws Exception {
+        Set<Short> ids = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            byte[] data = writeScrambled(SEEDS[6], "");
+            ids.add((short) ((data[2] & 0xFF) << 8 | (data[3] & 0xFF)));
+        }
+        // The id keys the keystream, a fixed part would let brews of one seed share keystreams
+        assertTrue(ids.size() > 150);
+    }
+
+    @Test
+    public void rejectsWrongSeed() throws Exception {
+        BrewCodec.Reader reader = new BrewCodec.Reader(streamScramble(SEEDS[6], IDS[4], body(10, 0)));
+        reader.checkParity();
+        reader.readByte();
+        assertThrows(InvalidKeyException.class, () -> reader.unscramble(SEEDS[7], null));
+    }
+
+    @Test
+    public void base91MatchesStreams() throws Exception {
+        for (int len = 0; len < 200; len += 7) {
+            byte[] data = body(len, 91);
+            ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+            try (Base91EncoderStream out = new Base91EncoderStream(encoded)) {
+                out.write(data);
+                out.flush();
+            }
+            assertArrayEquals(encoded.toByteArray(), BrewCodec.encodeBase91(data, len));
+
+            byte[] decoded = BrewCodec.decodeBase91(encoded.toByteArray());
+            assertArrayEquals(data, decoded);
+            try (DataInputStream in = new DataInputStream(new Base91DecoderStream(new ByteArrayInputStream(encoded.toByteArray())))) {
+                byte[] streamDecoded = new byte[len];
+                in.readFully(streamDecoded);
+                assertArrayEquals(streamDecoded, decoded);
+            }
+        }
+    }
+}
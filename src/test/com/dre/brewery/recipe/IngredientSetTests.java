@@ -0,0 +1,122 @@
+package com.dre.brewery.recipe;
+
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * BIngredients compares its IngredientSets by identity, so equal sets have to be interned to the same instance.
+ */
+public class IngredientSetTests {
+
+    private static final class TestIngredient implements Ingredient {
+        private final String name;
+        private int amount;
+
+        TestIngredient(String name, int amount) {
+            this.name = name;
+            this.amount = amount;
+        }
+
+        @Override
+        public void saveTo(DataOutputStream out) throws IOException {
+            out.writeUTF("TEST");
+            out.writeUTF(name);
+        }
+
+        @Override
+        public int getAmount() {
+            return amount;
+        }
+
+        @Override
+        public void setAmount(int amount) {
+            this.amount = amount;
+        }
+
+        @Override
+        public boolean matches(ItemStack item) {
+            return false;
+        }
+
+        @Override
+        public boolean isSimilar(Ingredient item) {
+            return item instanceof TestIngredient other && name.equals(other.name);
+        }
+
+        @Override
+        public String getDebugID() {
+            return name;
+        }
+    }
+
+    private static IngredientSet set(Object... nameAndAmount) {
+        List<Ingredient> list = new ArrayList<>();
+        for (int i = 0; i < nameAndAmount.length; i += 2) {
+            list.add(new TestIngredient((String) nameAndAmount[i], (Integer) nameAndAmount[i + 1]));
+        }
+        return IngredientSet.of(list);
+    }
+
+    @Test
+    public void orderIndependent() {
+        IngredientSet a = set("wheat", 3, "sugar", 1, "apple", 2);
+        IngredientSet b = set("apple", 2, "wheat", 3, "sugar", 1);
+        assertSame(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals("apple", a.get(0).getDebugID());
+        assertEquals(6, a.getTotalAmount());
+    }
+
+    @Test
+    public void interned() {
+        IngredientSet a = set("wheat", 3, "sugar", 1);
+        IngredientSet b = set("sugar", 1, "wheat", 3);
+        assertSame(a, b);
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+
+        IngredientSet other = set("wheat", 2, "sugar", 1);
+        assertNotSame(a, other);
+        assertNotEquals(a, other);
+        assertSame(IngredientSet.EMPTY, IngredientSet.of(new ArrayList<>()));
+    }
+
+    @Test
+    public void mergesSameIngredients() {
+        IngredientSet merged = set("wheat", 2, "sugar", 1, "wheat", 3);
+        assertEquals(2, merged.size());
+        assertSame(set("wheat", 5, "sugar", 1), merged);
+        assertEquals(5, merged.getAmount(1));
+    }
+
+    @Test
+    public void plusKeepsOrder() {
+        IngredientSet built = IngredientSet.EMPTY
+            .plus(new TestIngredient("wheat", 7))
+            .plus(new TestIngredient("apple", 7))
+            .plus(new TestIngredient("sugar", 7));
+        assertSame(set("sugar", 1, "apple", 1, "wheat", 1), built);
+        assertEquals(3, built.getTotalAmount());
+    }
+
+    @Test
+    public void unmodifiableView() {
+        IngredientSet set = set("wheat", 3);
+        List<Ingredient> view = set.asList();
+        assertThrows(UnsupportedOperationException.class, () -> view.add(new TestIngredient("sugar", 1)));
+        assertThrows(UnsupportedOperationException.class, () -> view.remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> view.set(0, new TestIngredient("sugar", 1)));
+        assertEquals(1, set.size());
+    }
+}
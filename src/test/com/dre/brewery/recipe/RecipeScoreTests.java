@@ -0,0 +1,69 @@
+package com.dre.brewery.recipe;
+
+import com.dre.brewery.BrewDefect;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * RecipeScore has to rank exactly like the RecipeEvaluation it replaces during the recipe search.
+ */
+public class RecipeScoreTests {
+
+    private static final BrewDefect DEFECT = new BrewDefect.CookTimeMismatch(1, 2);
+
+    // Fills both with the same random defects
+    private static void fill(Random random, RecipeScore score, RecipeEvaluation eval) {
+        score.reset();
+        for (int i = random.nextInt(4); i > 0; i--) {
+            if (random.nextInt(8) == 0) {
+                score.fatal();
+                eval.fatal(DEFECT);
+            } else {
+                float deduction = random.nextFloat() * 7;
+                score.deduct(deduction);
+                eval.deduct(DEFECT, deduction);
+            }
+        }
+    }
+
+    private static RecipeEvaluation randomCombined(Random random, RecipeScore combined) {
+        RecipeScore[] scores = new RecipeScore[random.nextBoolean() ? 2 : 4];
+        RecipeEvaluation[] evals = new RecipeEvaluation[scores.length];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = new RecipeScore();
+            evals[i] = new RecipeEvaluation();
+            fill(random, scores[i], evals[i]);
+            assertEquals(evals[i].getQuality(), scores[i].getQuality());
+            assertEquals(evals[i].isFatal(), scores[i].isFatal());
+        }
+        if (scores.length == 2) {
+            combined.combine(scores[0], scores[1]);
+        } else {
+            combined.combine(scores[0], scores[1], scores[2], scores[3]);
+        }
+        return RecipeEvaluation.combine(evals);
+    }
+
+    @Test
+    public void matchesEvaluation() {
+        Random random = new Random(5381);
+        for (int i = 0; i < 2000; i++) {
+            RecipeScore score = new RecipeScore();
+            RecipeEvaluation eval = randomCombined(random, score);
+            assertEquals(eval.getTrueQuality(), score.getTrueQuality());
+            assertEquals(eval.getQuality(), score.getQuality());
+
+            RecipeScore otherScore = new RecipeScore();
+            RecipeEvaluation otherEval = randomCombined(random, otherScore);
+            assertEquals(eval.compareMostToLeastComplexity(otherEval), score.compareMostToLeastComplexity(otherScore));
+
+            RecipeScore copy = new RecipeScore();
+            copy.copyFrom(score);
+            assertEquals(0, copy.compareMostToLeastComplexity(score));
+            assertEquals(score.getTrueQuality(), copy.getTrueQuality());
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.dre.brewery.storage.wal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WriteAheadLogTests {
+
+    @TempDir
+    File dir;
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void survivesReopen() throws IOException {
+        try (WriteAheadLog wal = WriteAheadLog.open(dir)) {
+            assertTrue(wal.createTable("empty"));
+            assertFalse(wal.createTable("empty"));
+            wal.put("barrels", "a", bytes("1"));
+            wal.put("barrels", "b", bytes("2"));
+            wal.put("barrels", "a", bytes("3"));
+            wal.delete("barrels", "b");
+            wal.put("players", "p", bytes("4"));
+            wal.dropTable("players");
+        }
+        try (WriteAheadLog wal = WriteAheadLog.open(dir)) {
+            assertEquals(0, wal.getDiscardedBytes());
+            assertTrue(wal.hasTable("empty"));
+            assertFalse(wal.hasTable("players"));
+            assertArrayEquals(bytes("3"), wal.get("barrels", "a"));
+            assertNull(wal.get("barrels", "b"));
+        }
+    }
+
+    @Test
+    public void putAllReplacesTable() throws IOException {
+        try (WriteAheadLog wal = WriteAheadLog.open(dir)) {
+            wal.put("t", "old", bytes("x"));
+            Map<String, byte[]> records = new LinkedHashMap<>();
+            records.put("c", bytes("3"));
+            records.put("a", bytes("1"));
+            wal.putAll("t", records, true);
+            assertEquals(List.of("a", "c"), List.copyOf(wal.records("t").keySet()));
+
+            wal.putAll("t", Map.of("b", bytes("2")), false);
+            assertEquals(List.of("a", "b", "c"), List.copyOf(wal.records("t").keySet()));
+        }
+    }
+
+    @Test
+    public void recoversFromTornTail() throws IOException {
+        try (WriteAheadLog wal = WriteAheadLog.open(dir)) {
+            wal.put("t", "kept", bytes("kept"));
+            wal.put("t", "torn", bytes("this entry is cut in half"));
+        }
+        File log = new File(dir, "log-0.dat");
+        try (RandomAccessFile file = new RandomAccessFile(log, "rw")) {
+            file.setLength(file.length() - 5);
+        }
+
+        try (WriteAheadLog wal = WriteAheadLog.open(dir)) {
+            assertTrue(wal.getDiscardedBytes() > 0);
+            assertArrayEquals(bytes("kept"), wal.get("t", "kept"));
+            assertNull(wal.get("t", "torn"));
+            wal.put("t", "after", bytes("after"));
+        }
+        try (WriteAheadLog wal = WriteAheadLog.open(dir)) {
+            assertEquals(0, wal.getDiscardedBytes());
+            assertArrayEquals(bytes("kept"), wal.get("t", "kept"));
+            assertArrayEquals(bytes("after"), wal.get("t", "after"));
+        }
+    }
+
+    @Test
+    public void rejectsCorruptEntry() throws IOException {
+        try (WriteAheadLog wal = WriteAheadLog.open(dir)) {
+            wal.put("t", "a", bytes("first"));
+            wal.put("t", "b", bytes("second"));
+        }
+        File log = new File(dir, "log-0.dat");
+        try (RandomAccessFile file = new RandomAccessFile(log, "rw")) {
+            // Flip the last byte of the data of "b"
+            file.seek(file.length() - 1);
+            int b = file.read();
+            file.seek(file.length() - 1);
+            file.write(b ^ 0xFF);
+        }
+        try (WriteAheadLog wal = WriteAheadLog.open(dir)) {
+            assertArrayEquals(bytes("first"), wal.get("t", "a"));
+            assertNull(wal.get("t", "b"));
+        }
+    }
+
+    @Test
+    public void compactionKeepsRecords() throws IOException {
+        try (WriteAheadLog wal = WriteAheadLog.open(dir)) {
+            wal.createTable("empty");
+            for (int i = 0; i < 100; i++) {
+                wal.put("t", "id" + i, bytes("v" + i));
+            }
+            wal.delete("t", "id0");
+            wal.compact();
+            wal.put("t", "id1", bytes("changed"));
+        }
+        assertFalse(new File(dir, "log-0.dat").exists());
+        assertTrue(new File(dir, "snapshot-1.dat").exists());
+
+        try (WriteAheadLog wal = WriteAheadLog.open(dir)) {
+            assertTrue(wal.hasTable("empty"));
+            assertEquals(99, wal.records("t").size());
+            assertNull(wal.get("t", "id0"));
+            assertArrayEquals(bytes("changed"), wal.get("t", "id1"));
+            assertArrayEquals(bytes("v99"), wal.get("t", "id99"));
+        }
+    }
+
+    @Test
+    public void closeWaitsForCompaction() throws Exception {
+        WriteAheadLog wal = WriteAheadLog.open(dir);
+        // Overwrite the same records until the log is large enough to compact
+        byte round = 0;
+        while (!wal.needsCompaction()) {
+            round++;
+            for (int i = 0; i < 100; i++) {
+                byte[] value = new byte[4096];
+                value[0] = round;
+                wal.put("t", "id" + i, value);
+            }
+        }
+        Thread compaction = new Thread(() -> {
+            try {
+                wal.compact();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        compaction.start();
+        wal.close();
+        // Nothing is left half written once close returns
+        String[] tmp = dir.list((d, name) -> name.endsWith(".tmp"));
+        assertEquals(0, tmp.length);
+        compaction.join();
+
+        // A compaction after close does nothing
+        Set<String> files = Set.of(dir.list());
+        wal.compact();
+        assertEquals(files, Set.of(dir.list()));
+
+        try (WriteAheadLog reopened = WriteAheadLog.open(dir)) {
+            assertEquals(100, reopened.records("t").size());
+            assertEquals(round, reopened.get("t", "id99")[0]);
+        }
+    }
+}